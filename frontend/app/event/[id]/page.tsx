@@ -102,17 +102,30 @@ export default function EventBookingPage() {
     setBookingStatus('loading');
     
     try {
-      const response = await fetch('http://localhost:8080/api/bookings', {
-        method: 'POST',
-        headers: { 
-            'Content-Type': 'application/json',
-            'Authorization': `Bearer ${token}`
-        },
-        body: JSON.stringify({
-          eventId: eventId,
-          seatIds: selectedSeatIds
-        }),
-      });
+      // Waiting room: on 429 with a queue ticket, wait Retry-After and come back with the ticket
+      // One Idempotency-Key per click: a retried request can't book twice
+      const idempotencyKey = crypto.randomUUID();
+      let queueTicket: string | null = null;
+      let response: Response;
+      while (true) {
+        response = await fetch('http://localhost:8080/api/bookings', {
+          method: 'POST',
+          headers: {
+              'Content-Type': 'application/json',
+              'Authorization': `Bearer ${token}`,
+              'Idempotency-Key': idempotencyKey,
+              ...(queueTicket ? { 'X-Queue-Ticket': queueTicket } : {})
+          },
+          body: JSON.stringify({
+            eventId: eventId,
+            seatIds: selectedSeatIds
+          }),
+        });
+        queueTicket = response.status === 429 ? response.headers.get('X-Queue-Ticket') : null;
+        if (!queueTicket) break;
+        const retryAfter = Number(response.headers.get('Retry-After') || '1');
+        await new Promise(resolve => setTimeout(resolve, retryAfter * 1000));
+      }
 
       // --- SELF-HEALING LOGIC START ---
       if (response.status === 403 || response.status === 401) {
@@ -219,7 +232,7 @@ export default function EventBookingPage() {
                                 
                                 <div className="flex gap-1.5">
                                     {rowTickets.map(ticket => {
-                                        const isBooked = ticket.status === 'BOOKED';
+                                        const isBooked = ticket.status !== 'AVAILABLE'; // BOOKED or LOCKED (held by someone else)
                                         const isSelected = selectedSeatIds.includes(ticket.seat.id);
                                         return (
                                             <button
@@ -2,7 +2,7 @@
 
 import React, { useState, useEffect } from 'react';
 import Link from 'next/link';
-import { Calendar, MapPin, ArrowRight, Zap } from 'lucide-react';
+import { Calendar, MapPin, ArrowRight, Zap, Search } from 'lucide-react';
 
 type Event = {
   id: number;
@@ -11,16 +11,55 @@ type Event = {
   venue: { name: string; address: string; capacity: number };
 };
 
+// One result of /api/catalog/events/search (a projection, not the full event)
+type SearchHit = {
+  id: number;
+  title: string;
+  date: string;
+  venueName: string;
+  venueAddress: string;
+};
+
+const API = 'http://localhost:8080/api/catalog';
+
+// One keyset page: /events and /events/search both return the next page's cursor in X-Next-Cursor
+async function fetchEventPage(query: string, after: string | null, signal?: AbortSignal) {
+  const params = new URLSearchParams({ limit: '60' });
+  if (query) params.set('q', query);
+  if (after) params.set('after', after);
+  const res = await fetch(`${API}/events${query ? '/search' : ''}?${params}`, { signal });
+  const data = await res.json();
+  const events: Event[] = query
+    ? (data as SearchHit[]).map(hit => ({ ...hit, venue: { name: hit.venueName, address: hit.venueAddress, capacity: 0 } }))
+    : data;
+  return { events, next: res.headers.get('X-Next-Cursor') };
+}
+
 export default function HomePage() {
   const [events, setEvents] = useState<Event[]>([]);
+  const [nextCursor, setNextCursor] = useState<string | null>(null);
+  const [loadingMore, setLoadingMore] = useState(false);
+  const [query, setQuery] = useState('');
 
+  // Server-side search as you type (debounced); an empty box lists all events, a page at a time
   useEffect(() => {
-    fetch('http://localhost:8080/api/catalog/events')
-      .then(res => res.json())
-      .then(data => setEvents(data))
-      .catch(err => console.error("Failed to fetch events", err));
-  }, []);
+    const controller = new AbortController();
+    const timer = setTimeout(() => {
+      fetchEventPage(query.trim(), null, controller.signal)
+        .then(page => { setEvents(page.events); setNextCursor(page.next); })
+        .catch(err => { if (err.name !== 'AbortError') console.error("Failed to fetch events", err); });
+    }, query ? 150 : 0);
+    return () => { clearTimeout(timer); controller.abort(); };
+  }, [query]);
 
+  const loadMore = () => {
+    if (!nextCursor || loadingMore) return;
+    setLoadingMore(true);
+    fetchEventPage(query.trim(), nextCursor)
+      .then(page => { setEvents(current => [...current, ...page.events]); setNextCursor(page.next); })
+      .catch(err => console.error("Failed to fetch events", err))
+      .finally(() => setLoadingMore(false));
+  };
 
   return (
     <div className="min-h-screen bg-slate-950 text-slate-100 font-sans selection:bg-violet-500 selection:text-white">
@@ -47,7 +86,19 @@ export default function HomePage() {
 
       {/* Events Grid */}
       <main className="max-w-6xl mx-auto px-6 py-16">
-        <h2 className="text-2xl font-bold text-white mb-8">Upcoming Events</h2>
+        <div className="flex flex-col md:flex-row md:items-center md:justify-between gap-4 mb-8">
+          <h2 className="text-2xl font-bold text-white">Upcoming Events</h2>
+          <div className="relative w-full md:w-80">
+            <Search size={16} className="absolute left-3 top-1/2 -translate-y-1/2 text-slate-500"/>
+            <input
+              type="search"
+              value={query}
+              onChange={e => setQuery(e.target.value)}
+              placeholder="Search artists, venues, cities..."
+              className="w-full pl-9 pr-3 py-2 rounded-xl bg-slate-900 border border-slate-800 text-sm text-white placeholder:text-slate-500 focus:outline-none focus:border-violet-500"
+            />
+          </div>
+        </div>
         
         {events.length === 0 ? (
            <div className="text-slate-500">Loading events or no events found...</div>
@@ -85,6 +136,16 @@ export default function HomePage() {
             ))}
           </div>
         )}
+
+        {nextCursor && (
+          <button
+            onClick={loadMore}
+            disabled={loadingMore}
+            className="mt-10 mx-auto block px-6 py-3 rounded-xl bg-slate-800 text-sm font-medium text-white hover:bg-violet-600 transition-all duration-300 disabled:opacity-50"
+          >
+            {loadingMore ? 'Loading...' : 'Load more events'}
+          </button>
+        )}
       </main>
     </div>
   );
@@ -0,0 +1,45 @@
+package com.deepika.ticketvelo.config.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+// Cost of authenticating one request: cached hit vs full HS256 verification
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtUtilBenchmark {
+
+    // Same secret length as application.yml (HS256 needs at least 32 bytes)
+    private static final String SECRET = "5367566B59703373367639792F423F4528482B4D6251655468576D5A71347437";
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtUtil = new JwtUtil(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(jwtUtil, "secretString", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expirationTime", 86_400_000L);
+        ReflectionTestUtils.setField(jwtUtil, "tokenCacheMaxEntries", 1000L);
+        jwtUtil.init();
+        token = jwtUtil.generateToken(42L);
+    }
+
+    // Same token every time, as during seat selection: served from the verified-token cache
+    @Benchmark
+    public Long validateToken() {
+        return jwtUtil.validateTokenAndGetUserId(token);
+    }
+
+    // Cache miss: signature check + claims parsing
+    @Benchmark
+    public JwtUtil.VerifiedToken verifySignature() {
+        return jwtUtil.parse(token);
+    }
+}
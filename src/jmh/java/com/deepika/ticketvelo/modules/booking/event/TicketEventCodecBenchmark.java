@@ -0,0 +1,85 @@
+package com.deepika.ticketvelo.modules.booking.event;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Producing and consuming one booking on ticket-updates: the old text format (one
+ * "Ticket Confirmed: <id> for User <id>" message per seat, parsed back with a regex) vs one
+ * binary TicketEvent. Bytes per booking for both formats are printed in setup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TicketEventCodecBenchmark {
+
+    private static final Pattern TEXT_FORMAT = Pattern.compile("Ticket Confirmed: (\\d+) for User (\\d+)");
+
+    @Param({"1", "4", "10"})
+    private int seatsPerBooking;
+
+    private TicketEvent event;
+    private byte[] binary;
+    private List<byte[]> text;
+
+    @Setup
+    public void setup() {
+        List<Long> ticketIds = new ArrayList<>(seatsPerBooking);
+        List<Long> seatIds = new ArrayList<>(seatsPerBooking);
+        for (int i = 0; i < seatsPerBooking; i++) {
+            ticketIds.add(4_200_317L + i);
+            seatIds.add(120_517L + i);
+        }
+        event = new TicketEvent(TicketEvent.Type.BOOKED, 42L, 1_048_576L, null, Instant.now(), ticketIds, seatIds);
+        binary = TicketEventCodec.encode(event);
+        text = textFormat();
+
+        int textBytes = text.stream().mapToInt(message -> message.length).sum();
+        System.out.printf("%n%d seats: binary %d bytes in 1 message, text %d bytes in %d messages%n",
+                seatsPerBooking, binary.length, textBytes, text.size());
+    }
+
+    @Benchmark
+    public byte[] encodeBinary() {
+        return TicketEventCodec.encode(event);
+    }
+
+    @Benchmark
+    public List<byte[]> encodeText() {
+        return textFormat();
+    }
+
+    @Benchmark
+    public TicketEvent decodeBinary() {
+        return TicketEventCodec.decode(binary);
+    }
+
+    @Benchmark
+    public long decodeText() {
+        long sum = 0;
+        for (byte[] message : text) {
+            Matcher matcher = TEXT_FORMAT.matcher(new String(message, StandardCharsets.UTF_8));
+            if (!matcher.matches()) throw new IllegalStateException();
+            sum += Long.parseLong(matcher.group(1)) + Long.parseLong(matcher.group(2));
+        }
+        return sum;
+    }
+
+    private List<byte[]> textFormat() {
+        List<byte[]> messages = new ArrayList<>(seatsPerBooking);
+        for (Long ticketId : event.ticketIds()) {
+            messages.add(("Ticket Confirmed: " + ticketId + " for User " + event.userId()).getBytes(StandardCharsets.UTF_8));
+        }
+        return messages;
+    }
+}
@@ -0,0 +1,79 @@
+package com.deepika.ticketvelo.modules.booking.model;
+
+import com.deepika.ticketvelo.modules.catalog.model.Event;
+import com.deepika.ticketvelo.modules.catalog.model.Seat;
+import com.deepika.ticketvelo.modules.catalog.model.Venue;
+import org.openjdk.jmh.annotations.*;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON cost of a 2,500-seat event's seat map: the Ticket entity graph (what the endpoint used to
+ * return, with event + venue repeated on every ticket) vs the flat TicketView it returns now.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TicketSerializationBenchmark {
+
+    private static final int ROWS = 50;
+    private static final int SEATS_PER_ROW = 50;
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private List<Ticket> tickets;
+    private List<TicketView> ticketViews;
+
+    @Setup
+    public void setup() {
+        Venue venue = new Venue();
+        venue.setId(1L);
+        venue.setName("The Mega Dome");
+        venue.setAddress("Los Angeles");
+        venue.setCapacity(ROWS * SEATS_PER_ROW);
+
+        Event event = new Event();
+        event.setId(1L);
+        event.setTitle("Beyoncé Renaissance Tour");
+        event.setDate(LocalDateTime.of(2026, 1, 1, 20, 0));
+        event.setVenue(venue);
+
+        tickets = new ArrayList<>(ROWS * SEATS_PER_ROW);
+        ticketViews = new ArrayList<>(ROWS * SEATS_PER_ROW);
+        long id = 1;
+        for (int r = 0; r < ROWS; r++) {
+            String rowLabel = "R" + (r + 1);
+            for (int s = 1; s <= SEATS_PER_ROW; s++, id++) {
+                Seat seat = new Seat(rowLabel, s, "Standard", venue);
+                seat.setId(id);
+
+                Ticket ticket = new Ticket();
+                ticket.setId(id);
+                ticket.setEvent(event);
+                ticket.setSeat(seat);
+                ticket.setStatus(id % 3 == 0 ? "BOOKED" : "AVAILABLE");
+                ticket.setUserId(id % 3 == 0 ? id : null);
+                ticket.setVersion(0);
+                tickets.add(ticket);
+
+                ticketViews.add(TicketView.of(new TicketSeatRow(id, id, rowLabel, s, "Standard", ticket.getStatus(), ticket.getUserId())));
+            }
+        }
+    }
+
+    @Benchmark
+    public byte[] ticketEntities() {
+        return jsonMapper.writeValueAsBytes(tickets);
+    }
+
+    @Benchmark
+    public byte[] ticketViews() {
+        return jsonMapper.writeValueAsBytes(ticketViews);
+    }
+}
@@ -0,0 +1,90 @@
+package com.deepika.ticketvelo.modules.booking.service;
+
+import com.deepika.ticketvelo.common.concurrency.ConcurrencyLimits;
+import com.deepika.ticketvelo.modules.booking.model.TicketSeatRow;
+import com.deepika.ticketvelo.modules.booking.repository.TicketRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Best-available on a 50,000-seat stadium (20 sections x 50 rows x 50 seats), pre-filled at
+ * random: claim + release of one block through the SeatBlockIndex, against a linear scan for the
+ * first row with a long enough free run (what a client-side "guess" amounts to).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BestAvailableBenchmark {
+
+    private static final Long EVENT_ID = 1L;
+    private static final int SECTIONS = 20;
+    private static final int ROWS = 50;
+    private static final int SEATS_PER_ROW = 50;
+
+    @Param({"0", "50", "80"})
+    private int filledPercent;
+
+    @Param({"2", "4"})
+    private int quantity;
+
+    private SeatInventory seatInventory;
+    private SeatInventory.EventSeats seats;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        List<TicketSeatRow> rows = new ArrayList<>(SECTIONS * ROWS * SEATS_PER_ROW);
+        Random random = new Random(42);
+        long id = 1;
+        for (int section = 0; section < SECTIONS; section++) {
+            for (int row = 0; row < ROWS; row++) {
+                for (int seat = 1; seat <= SEATS_PER_ROW; seat++, id++) {
+                    boolean booked = random.nextInt(100) < filledPercent;
+                    rows.add(new TicketSeatRow(id, id, "R" + (row + 1), seat, "S" + section,
+                            booked ? "BOOKED" : "AVAILABLE", booked ? 7L : null));
+                }
+            }
+        }
+        TicketRepository ticketRepository = mock(TicketRepository.class);
+        when(ticketRepository.findSeatRowsByEventId(EVENT_ID)).thenReturn(rows);
+
+        seatInventory = new SeatInventory(ticketRepository, new ConcurrencyLimits(10, 2, 10, new SimpleMeterRegistry()), 100, 8192);
+        seatInventory.getTickets(EVENT_ID); // load
+        seatInventory.release(seatInventory.claimBestAvailable(EVENT_ID, null, 1, 1L)); // build the index
+        @SuppressWarnings("unchecked")
+        Map<Long, SeatInventory.EventSeats> events = (Map<Long, SeatInventory.EventSeats>) ReflectionTestUtils.getField(seatInventory, "events");
+        seats = events.get(EVENT_ID);
+    }
+
+    @Benchmark
+    public SeatInventory.Claim indexedClaimAndRelease() {
+        SeatInventory.Claim claim = seatInventory.claimBestAvailable(EVENT_ID, null, quantity, 1L);
+        seatInventory.release(claim);
+        return claim;
+    }
+
+    // Baseline: walk every seat until a row has `quantity` free neighbours
+    @Benchmark
+    public int linearScan() {
+        int run = 0;
+        for (int i = 0; i < seats.size(); i++) {
+            boolean sameRow = i > 0 && seats.rowNumbers[i].equals(seats.rowNumbers[i - 1])
+                    && seats.sections[i].equals(seats.sections[i - 1]);
+            run = seats.isSet(i) ? 0 : (sameRow ? run + 1 : 1);
+            if (run == quantity) return i - quantity + 1;
+        }
+        return -1;
+    }
+}
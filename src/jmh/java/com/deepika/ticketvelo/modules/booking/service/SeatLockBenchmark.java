@@ -0,0 +1,100 @@
+package com.deepika.ticketvelo.modules.booking.service;
+
+import com.deepika.ticketvelo.common.concurrency.ConcurrencyLimits;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The lock step of BookingService.bookTickets: one multi-seat acquire + release per operation.
+ *
+ * Redis is replaced by an in-memory stub that mimics the two Lua scripts, so this measures our
+ * side of the call (key building, token, permits, metrics) and not the network round trip.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SeatLockBenchmark {
+
+    private static final AtomicLong EVENT_IDS = new AtomicLong();
+
+    @Param({"1", "4", "10"})
+    private int seatsPerBooking;
+
+    private SeatLockManager seatLockManager;
+
+    @State(Scope.Thread)
+    public static class Basket {
+        Long eventId;
+        List<Long> seatIds;
+
+        // Every thread books its own event, so threads never conflict on a seat
+        @Setup
+        public void setup(SeatLockBenchmark benchmark) {
+            eventId = EVENT_IDS.incrementAndGet();
+            seatIds = new ArrayList<>();
+            for (long seatId = 1; seatId <= benchmark.seatsPerBooking; seatId++) seatIds.add(seatId);
+        }
+    }
+
+    @Setup
+    public void setup() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ConcurrencyLimits concurrencyLimits = new ConcurrencyLimits(10, 2, 64, meterRegistry);
+        ReflectionTestUtils.setField(concurrencyLimits, "acquireTimeoutMillis", 2000L);
+
+        seatLockManager = new SeatLockManager(new InMemoryRedisTemplate(), concurrencyLimits, meterRegistry);
+        ReflectionTestUtils.setField(seatLockManager, "ttlMillis", 5000L);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public SeatLockManager.SeatLock acquireAndRelease(Basket basket) {
+        SeatLockManager.SeatLock lock = seatLockManager.acquire(basket.eventId, basket.seatIds);
+        seatLockManager.release(lock);
+        return lock;
+    }
+
+    @Benchmark
+    @Threads(8)
+    public SeatLockManager.SeatLock acquireAndReleaseConcurrent(Basket basket) {
+        return acquireAndRelease(basket);
+    }
+
+    // Stands in for Redis: same all-or-nothing acquire and owner-checked release as the scripts, picked by identity
+    static final class InMemoryRedisTemplate extends StringRedisTemplate {
+        private final Map<String, String> store = new ConcurrentHashMap<>();
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T execute(RedisScript<T> script, List<String> keys, Object... args) {
+            String token = (String) args[0];
+            if (script == SeatLockManager.ACQUIRE_SCRIPT) {
+                for (int i = 0; i < keys.size(); i++) {
+                    if (store.putIfAbsent(keys.get(i), token) != null) {
+                        for (int j = 0; j < i; j++) store.remove(keys.get(j), token);
+                        return (T) Long.valueOf(i + 1);
+                    }
+                }
+                return (T) Long.valueOf(0);
+            }
+
+            if (script != SeatLockManager.RELEASE_SCRIPT) throw new IllegalArgumentException("Unknown script: " + script.getSha1());
+            long released = 0;
+            for (String key : keys) if (store.remove(key, token)) released++;
+            return (T) Long.valueOf(released);
+        }
+    }
+}
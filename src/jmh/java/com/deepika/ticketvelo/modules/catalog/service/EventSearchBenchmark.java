@@ -0,0 +1,67 @@
+package com.deepika.ticketvelo.modules.catalog.service;
+
+import com.deepika.ticketvelo.modules.catalog.model.Event;
+import com.deepika.ticketvelo.modules.catalog.model.Venue;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Typeahead over 100k events at 500 venues: one 20-hit page per query, as /api/catalog/events/search serves it
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EventSearchBenchmark {
+
+    private static final String[] ARTISTS = {"Taylor Swift", "Beyoncé", "Coldplay", "Ed Sheeran", "Adele", "Drake",
+            "The Weeknd", "Billie Eilish", "Arctic Monkeys", "Bad Bunny", "Dua Lipa", "Metallica", "Kendrick Lamar",
+            "Olivia Rodrigo", "Harry Styles", "Imagine Dragons", "Foo Fighters", "Rosalía", "Stromae", "Tame Impala"};
+    private static final String[] SHOWS = {"World Tour", "Live", "Stadium Tour", "Unplugged", "Farewell Tour", "Arena Night"};
+    private static final String[] CITIES = {"London", "New York", "Paris", "Berlin", "Madrid", "Tokyo", "Toronto",
+            "Sydney", "Chicago", "Amsterdam", "Mumbai", "São Paulo", "Los Angeles", "Dublin", "Seoul"};
+
+    @Param({"ta", "tay swi", "coldp", "coldplay london", "tour par", "zzz"})
+    private String query;
+
+    private EventSearchIndex index;
+    private LocalDateTime from;
+
+    @Setup
+    public void setUp() {
+        index = new EventSearchIndex(null, null, new SimpleMeterRegistry(), 5000, 64, 8);
+        SplittableRandom random = new SplittableRandom(42);
+        Venue[] venues = new Venue[500];
+        for (int v = 0; v < venues.length; v++) {
+            String city = CITIES[v % CITIES.length];
+            venues[v] = new Venue();
+            venues[v].setId((long) v + 1);
+            venues[v].setName(city + " Arena " + (v + 1));
+            venues[v].setAddress((v * 7 % 300 + 1) + " Main Street, " + city);
+        }
+        LocalDateTime start = LocalDateTime.of(2026, 1, 1, 20, 0);
+        for (long id = 1; id <= 100_000; id++) {
+            Event event = new Event();
+            event.setId(id);
+            event.setTitle(ARTISTS[random.nextInt(ARTISTS.length)] + " - " + SHOWS[random.nextInt(SHOWS.length)] + " #" + id);
+            event.setDate(start.plusMinutes(random.nextInt(2 * 365 * 24 * 60)));
+            event.setVenue(venues[random.nextInt(venues.length)]);
+            index.add(event);
+        }
+        from = start.plusDays(200);
+    }
+
+    @Benchmark
+    public EventSearchIndex.Page typeahead() {
+        return index.search(query, null, null, null, 20);
+    }
+
+    @Benchmark
+    public EventSearchIndex.Page typeaheadFromDate() {
+        return index.search(query, from, null, null, 20);
+    }
+}
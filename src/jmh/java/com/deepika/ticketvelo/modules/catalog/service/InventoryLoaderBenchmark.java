@@ -0,0 +1,31 @@
+package com.deepika.ticketvelo.modules.catalog.service;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+// In-memory half of InventoryLoader.createVenue (row labels + COPY text encoding); the COPY itself needs Postgres
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InventoryLoaderBenchmark {
+
+    @Param({"20", "50", "200"})
+    private int rows;
+
+    @Benchmark
+    public void rowLabels(Blackhole blackhole) {
+        for (int r = 1; r <= rows; r++) blackhole.consume(InventoryLoader.generateRowLabel(r));
+    }
+
+    // rows x 50 seats; multiply by 10 sections x 250 seats / 50 for a 100k stadium
+    @Benchmark
+    public void encodeSeatRows(Blackhole blackhole) throws SQLException {
+        InventoryLoader.encodeSeats(42L, 1, rows, 50, 64 * 1024, blackhole::consume);
+    }
+}
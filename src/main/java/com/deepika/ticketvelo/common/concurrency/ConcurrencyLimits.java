@@ -0,0 +1,78 @@
+package com.deepika.ticketvelo.common.concurrency;
+
+import com.deepika.ticketvelo.common.exception.TicketVeloException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Bulkheads in front of the two shared, fixed-size resources: the JDBC pool and Redis.
+ *
+ * With virtual threads the number of concurrent requests is effectively unbounded, so without
+ * these semaphores a spike turns into thousands of threads queueing inside Hikari (and timing out
+ * there). Permits are derived from the pool sizes; a caller that can't get one in time is shed
+ * with a 503 instead.
+ *
+ * Only wrap the OUTERMOST call that touches the resource - permits are not re-entrant.
+ */
+@Component
+public class ConcurrencyLimits {
+
+    private final Semaphore databasePermits;
+    private final Semaphore redisPermits;
+    private final Counter databaseRejections;
+    private final Counter redisRejections;
+
+    @Value("${ticketvelo.limits.acquire-timeout-ms:2000}")
+    private long acquireTimeoutMillis;
+
+    public ConcurrencyLimits(@Value("${spring.datasource.hikari.maximum-pool-size:10}") int jdbcPoolSize,
+                             @Value("${ticketvelo.limits.db-reserved-connections:2}") int reservedConnections,
+                             @Value("${ticketvelo.limits.redis-permits:64}") int redisPermitCount,
+                             MeterRegistry meterRegistry) {
+        // Leave a few connections for background work (write-behind flush, outbox relay, ...)
+        this.databasePermits = new Semaphore(Math.max(1, jdbcPoolSize - reservedConnections), true);
+        this.redisPermits = new Semaphore(redisPermitCount, true);
+
+        this.databaseRejections = Counter.builder("ticketvelo.limits.rejected")
+                .tag("resource", "database").register(meterRegistry);
+        this.redisRejections = Counter.builder("ticketvelo.limits.rejected")
+                .tag("resource", "redis").register(meterRegistry);
+        Gauge.builder("ticketvelo.limits.available", databasePermits, Semaphore::availablePermits)
+                .tag("resource", "database").register(meterRegistry);
+        Gauge.builder("ticketvelo.limits.available", redisPermits, Semaphore::availablePermits)
+                .tag("resource", "redis").register(meterRegistry);
+    }
+
+    public <T> T withDatabase(Supplier<T> work) {
+        return guarded(databasePermits, databaseRejections, work);
+    }
+
+    public <T> T withRedis(Supplier<T> work) {
+        return guarded(redisPermits, redisRejections, work);
+    }
+
+    private <T> T guarded(Semaphore permits, Counter rejections, Supplier<T> work) {
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                rejections.increment();
+                throw new TicketVeloException("Server is busy, please retry.", HttpStatus.SERVICE_UNAVAILABLE);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TicketVeloException("Request interrupted.", HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        try {
+            return work.get();
+        } finally {
+            permits.release();
+        }
+    }
+}
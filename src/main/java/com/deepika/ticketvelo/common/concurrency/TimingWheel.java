@@ -0,0 +1,85 @@
+package com.deepika.ticketvelo.common.concurrency;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hashed timing wheel: O(1) schedule, and each advance only looks at the buckets for the
+ * ticks that have passed, no matter how many timeouts are pending.
+ *
+ * Any thread may schedule; scheduled items land in a lock-free queue and are moved into their
+ * bucket by the (single) thread calling {@link #advance}. A deadline further away than one
+ * revolution simply stays in its bucket for another lap. There is no cancel: consumers check
+ * whether an expired item still matters (e.g. a hold that was already confirmed).
+ */
+public class TimingWheel<T> {
+
+    private final long tickMillis;
+    private final int mask;
+    private final List<Entry<T>>[] buckets; // only touched under advanceLock
+    private final ConcurrentLinkedQueue<Entry<T>> incoming = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final ReentrantLock advanceLock = new ReentrantLock();
+    private long nextTick;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (Integer.bitCount(wheelSize) != 1) throw new IllegalArgumentException("wheelSize must be a power of two");
+        this.tickMillis = tickMillis;
+        this.mask = wheelSize - 1;
+        this.buckets = new List[wheelSize];
+        this.nextTick = startMillis / tickMillis;
+    }
+
+    public void schedule(T item, long deadlineMillis) {
+        incoming.add(new Entry<>(item, deadlineMillis));
+        pending.incrementAndGet();
+    }
+
+    /** Removes and returns every item whose deadline is at or before nowMillis. */
+    public List<T> advance(long nowMillis) {
+        advanceLock.lock();
+        try {
+            List<T> expired = new ArrayList<>();
+            for (Entry<T> entry; (entry = incoming.poll()) != null; ) {
+                if (entry.deadlineMillis() <= nowMillis) expired.add(entry.item()); // already due
+                else place(entry);
+            }
+
+            long nowTick = nowMillis / tickMillis;
+            // More than a full lap behind: every bucket gets visited once, which is enough
+            long ticks = Math.min(nowTick - nextTick + 1, buckets.length);
+            for (long t = 0; t < ticks; t++) {
+                List<Entry<T>> bucket = buckets[(int) ((nextTick + t) & mask)];
+                if (bucket == null || bucket.isEmpty()) continue;
+                bucket.removeIf(entry -> {
+                    if (entry.deadlineMillis() > nowMillis) return false; // due on a later lap
+                    expired.add(entry.item());
+                    return true;
+                });
+            }
+            nextTick = Math.max(nextTick, nowTick + 1);
+            pending.addAndGet(-expired.size());
+            return expired;
+        } finally {
+            advanceLock.unlock();
+        }
+    }
+
+    public int size() {
+        return pending.get();
+    }
+
+    // Rounded UP to a tick, so when that tick is processed the deadline has really passed
+    private void place(Entry<T> entry) {
+        long tick = Math.max((entry.deadlineMillis() + tickMillis - 1) / tickMillis, nextTick);
+        int index = (int) (tick & mask);
+        if (buckets[index] == null) buckets[index] = new ArrayList<>();
+        buckets[index].add(entry);
+    }
+
+    private record Entry<T>(T item, long deadlineMillis) {}
+}
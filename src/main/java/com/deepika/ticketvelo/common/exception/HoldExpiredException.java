@@ -0,0 +1,9 @@
+package com.deepika.ticketvelo.common.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class HoldExpiredException extends TicketVeloException {
+    public HoldExpiredException(String message) {
+        super(message, HttpStatus.GONE); // 410 Gone
+    }
+}
@@ -0,0 +1,21 @@
+package com.deepika.ticketvelo.common.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+// Over capacity: the caller is either in the waiting room (queueTicket set) or shed outright (null)
+@Getter
+public class QueuedException extends TicketVeloException {
+    private final String queueTicket;
+    private final long position;
+    private final long etaMillis;
+    private final long retryAfterSeconds;
+
+    public QueuedException(String message, String queueTicket, long position, long etaMillis, long retryAfterSeconds) {
+        super(message, HttpStatus.TOO_MANY_REQUESTS); // 429
+        this.queueTicket = queueTicket;
+        this.position = position;
+        this.etaMillis = etaMillis;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
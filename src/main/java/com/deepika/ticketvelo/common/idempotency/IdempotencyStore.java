@@ -0,0 +1,255 @@
+package com.deepika.ticketvelo.common.idempotency;
+
+import com.deepika.ticketvelo.common.concurrency.ConcurrencyLimits;
+import com.deepika.ticketvelo.common.exception.TicketVeloException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key support: a retried request gets the first attempt's response instead of running
+ * the booking again (and failing with "seat already taken" against its own booking).
+ *
+ * The first request for a key claims it in Redis with SET NX as "pending" (short TTL, in case the
+ * node dies), runs, and then swaps in the outcome with a compare-and-set, so the stored outcome
+ * always belongs to the request that claimed the key. Duplicates that arrive meanwhile wait: on
+ * the same node they join the in-flight future, on other nodes they poll Redis. Completed keys
+ * are replayed verbatim for the TTL without touching the booking path.
+ *
+ * Only definite answers are stored (2xx and 4xx business errors). A 5xx / 503 / 429 releases the
+ * key so the client's retry really retries. The key is scoped per user and per endpoint, and is
+ * bound to a hash of the request body: reusing it for a different request is a 422.
+ */
+@Component
+public class IdempotencyStore {
+
+    public static final String KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final String PENDING = "pending:";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    // Swap our pending marker for the outcome (or delete it, given no outcome); no-op if it isn't ours any more
+    private static final RedisScript<Long> COMPLETE_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) ~= ARGV[1] then return 0 end
+            if ARGV[2] == '' then
+              redis.call('DEL', KEYS[1])
+            else
+              redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3])
+            end
+            return 1
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ConcurrencyLimits concurrencyLimits;
+    private final JsonMapper jsonMapper;
+    private final Map<String, CompletableFuture<Outcome>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter executed;
+    private final Counter replayed;
+    private final Counter mismatched;
+
+    @Value("${ticketvelo.idempotency.ttl-ms:86400000}")
+    private long ttlMillis;
+
+    @Value("${ticketvelo.idempotency.pending-ttl-ms:30000}")
+    private long pendingTtlMillis;
+
+    @Value("${ticketvelo.idempotency.wait-timeout-ms:10000}")
+    private long waitTimeoutMillis;
+
+    public IdempotencyStore(StringRedisTemplate redisTemplate, ConcurrencyLimits concurrencyLimits, JsonMapper jsonMapper,
+                            MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.concurrencyLimits = concurrencyLimits;
+        this.jsonMapper = jsonMapper;
+        this.executed = Counter.builder("ticketvelo.idempotency.requests").tag("result", "executed").register(meterRegistry);
+        this.replayed = Counter.builder("ticketvelo.idempotency.requests").tag("result", "replayed").register(meterRegistry);
+        this.mismatched = Counter.builder("ticketvelo.idempotency.requests").tag("result", "mismatched").register(meterRegistry);
+    }
+
+    /**
+     * Runs `work` once per (scope, key); duplicates get the stored response. Without a key this is just work.get().
+     * `request` is the request body, hashed to detect a key reused for a different request.
+     */
+    public ResponseEntity<?> execute(String scope, String key, Object request, Supplier<?> work) {
+        if (key == null) return ResponseEntity.ok(work.get());
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new TicketVeloException(KEY_HEADER + " must be 1-" + MAX_KEY_LENGTH + " characters", HttpStatus.BAD_REQUEST);
+        }
+
+        String redisKey = "idem:" + scope + ":" + key;
+        String fingerprint = fingerprint(request);
+
+        // Same node: join the request that is already running
+        CompletableFuture<Outcome> mine = new CompletableFuture<>();
+        CompletableFuture<Outcome> running = inFlight.putIfAbsent(redisKey, mine);
+        if (running != null) return replay(await(running), fingerprint);
+
+        try {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitTimeoutMillis);
+            long backoffMillis = 10;
+            while (true) {
+                String marker = PENDING + UUID.randomUUID() + ":" + fingerprint;
+                Boolean claimed;
+                String stored;
+                try {
+                    claimed = concurrencyLimits.withRedis(() -> redisTemplate.opsForValue()
+                            .setIfAbsent(redisKey, marker, Duration.ofMillis(pendingTtlMillis)));
+                    stored = Boolean.TRUE.equals(claimed) ? null : concurrencyLimits.withRedis(() -> redisTemplate.opsForValue().get(redisKey));
+                } catch (RuntimeException redisDown) {
+                    // Fail open: without Redis we can't deduplicate, but the booking path still guards the seats
+                    System.out.println("Idempotency store unavailable, running without it: " + redisDown.getMessage());
+                    Object result = work.get();
+                    mine.complete(new Outcome(fingerprint, HttpStatus.OK.value(), jsonMapper.writeValueAsString(result), null));
+                    return ResponseEntity.ok(result);
+                }
+
+                if (Boolean.TRUE.equals(claimed)) return run(redisKey, marker, fingerprint, work, mine);
+
+                if (stored != null && !stored.startsWith(PENDING)) {
+                    Outcome outcome = jsonMapper.readValue(stored, Outcome.class);
+                    mine.complete(outcome);
+                    return replay(outcome, fingerprint);
+                }
+                if (stored != null && !stored.endsWith(":" + fingerprint)) {
+                    mismatched.increment();
+                    throw mismatch();
+                }
+                // Pending on another node (or just released): wait and look again
+                if (System.nanoTime() > deadline) {
+                    throw new TicketVeloException("A request with this " + KEY_HEADER + " is still being processed; retry later.",
+                            HttpStatus.CONFLICT);
+                }
+                sleep(backoffMillis);
+                backoffMillis = Math.min(backoffMillis * 2, 200);
+            }
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(redisKey, mine);
+        }
+    }
+
+    private ResponseEntity<?> run(String redisKey, String marker, String fingerprint, Supplier<?> work,
+                                  CompletableFuture<Outcome> mine) {
+        executed.increment();
+        Object result;
+        try {
+            result = work.get();
+        } catch (TicketVeloException e) {
+            if (isDefinite(e.getStatus())) {
+                Outcome outcome = new Outcome(fingerprint, e.getStatus().value(), null, e.getMessage());
+                complete(redisKey, marker, outcome);
+                mine.complete(outcome);
+            } else {
+                complete(redisKey, marker, null); // let the retry run for real
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            complete(redisKey, marker, null);
+            throw e;
+        }
+
+        Outcome outcome = new Outcome(fingerprint, HttpStatus.OK.value(), jsonMapper.writeValueAsString(result), null);
+        complete(redisKey, marker, outcome);
+        mine.complete(outcome);
+        return ResponseEntity.ok(result);
+    }
+
+    private void complete(String redisKey, String marker, Outcome outcome) {
+        String value = outcome == null ? "" : jsonMapper.writeValueAsString(outcome);
+        try {
+            concurrencyLimits.withRedis(() -> redisTemplate.execute(COMPLETE_SCRIPT, List.of(redisKey), marker, value,
+                    String.valueOf(ttlMillis)));
+        } catch (RuntimeException e) {
+            // The pending marker expires on its own; a retry after that runs again
+            System.out.println("Could not store idempotent outcome for " + redisKey + ": " + e.getMessage());
+        }
+    }
+
+    private ResponseEntity<?> replay(Outcome outcome, String fingerprint) {
+        if (!outcome.fingerprint().equals(fingerprint)) {
+            mismatched.increment();
+            throw mismatch();
+        }
+        replayed.increment();
+        if (outcome.body() == null) {
+            // Same answer as the first time, through the usual exception handler
+            throw new TicketVeloException(outcome.detail(), HttpStatus.valueOf(outcome.status()));
+        }
+        return ResponseEntity.status(outcome.status())
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(REPLAYED_HEADER, "true")
+                .body(outcome.body());
+    }
+
+    private Outcome await(CompletableFuture<Outcome> running) {
+        try {
+            return running.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new TicketVeloException("A request with this " + KEY_HEADER + " is still being processed; retry later.",
+                    HttpStatus.CONFLICT);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TicketVeloException("Request interrupted.", HttpStatus.SERVICE_UNAVAILABLE);
+        }
+    }
+
+    // 2xx and 4xx are the answer to this request; 5xx, 503 (shed) and 429 (waiting room) are not
+    private static boolean isDefinite(HttpStatus status) {
+        return status.is4xxClientError() && status != HttpStatus.TOO_MANY_REQUESTS;
+    }
+
+    private static TicketVeloException mismatch() {
+        return new TicketVeloException(KEY_HEADER + " was already used for a different request", HttpStatus.UNPROCESSABLE_CONTENT);
+    }
+
+    private String fingerprint(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(jsonMapper.writeValueAsBytes(request));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TicketVeloException("Request interrupted.", HttpStatus.SERVICE_UNAVAILABLE);
+        }
+    }
+
+    // What a completed request answered: a JSON body for success, or status + detail for a business error
+    record Outcome(String fingerprint, int status, String body, String detail) {}
+}
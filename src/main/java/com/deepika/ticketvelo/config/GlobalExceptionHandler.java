@@ -1,6 +1,8 @@
 package com.deepika.ticketvelo.config;
 
+import com.deepika.ticketvelo.common.exception.QueuedException;
 import com.deepika.ticketvelo.common.exception.TicketVeloException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -23,6 +25,25 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(ex.getStatus()).body(problem);
     }
 
+    // 1b. Waiting room: 429 with Retry-After, plus the queue ticket / position / ETA when queued
+    @ExceptionHandler(QueuedException.class)
+    public ResponseEntity<ProblemDetail> handleQueued(QueuedException ex) {
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(ex.getStatus(), ex.getMessage());
+        problem.setTitle("Waiting Room");
+        problem.setType(URI.create("https://ticketvelo.com/errors/" + ex.getClass().getSimpleName()));
+        problem.setProperty("timestamp", Instant.now());
+        if (ex.getQueueTicket() != null) {
+            problem.setProperty("queueTicket", ex.getQueueTicket());
+            problem.setProperty("position", ex.getPosition());
+            problem.setProperty("etaMs", ex.getEtaMillis());
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(ex.getStatus())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()));
+        if (ex.getQueueTicket() != null) response.header("X-Queue-Ticket", ex.getQueueTicket());
+        return response.body(problem);
+    }
+
     // 2. Handle Unexpected System Crashes (Catch-All)
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ProblemDetail> handleGeneralException(Exception ex) {
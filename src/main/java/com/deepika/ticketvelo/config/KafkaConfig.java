@@ -1,54 +1,132 @@
 package com.deepika.ticketvelo.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.annotation.EnableKafka; // IMPORTANT
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.*;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.FixedBackOff;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 
 import java.util.HashMap;
 import java.util.Map;
 
+// Keys are strings (the eventId), values raw bytes: ticket-updates carries binary TicketEvents (TicketEventCodec)
 @Configuration
 @EnableKafka // <--- Tells Spring to look for @KafkaListener
 public class KafkaConfig {
 
-    // --- PRODUCER CONFIG (You already have this) ---
+    @Value("${spring.kafka.bootstrap-servers:localhost:9092}")
+    private String bootstrapServers;
+
+    @Value("${ticketvelo.kafka.producer.linger-ms:5}")
+    private int lingerMillis;
+
+    @Value("${ticketvelo.kafka.producer.batch-size:65536}")
+    private int batchSize;
+
+    @Value("${ticketvelo.kafka.producer.compression:lz4}")
+    private String compression;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Value("${ticketvelo.notification.concurrency:3}")
+    private int notificationConcurrency;
+
+    @Value("${ticketvelo.notification.max-poll-records:500}")
+    private int notificationMaxPollRecords;
+
+    private final MeterRegistry meterRegistry;
+
+    public KafkaConfig(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    // --- PRODUCER CONFIG ---
+    // Idempotent (no duplicates or reordering from producer retries) and batched: the outbox relay fires
+    // a whole batch at once, so a short linger fills large compressed batches per partition.
     @Bean
-    public ProducerFactory<String, String> producerFactory() {
+    public ProducerFactory<String, byte[]> producerFactory() {
         Map<String, Object> configProps = new HashMap<>();
-        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092");
+        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        configProps.put(ProducerConfig.ACKS_CONFIG, "all");
+        configProps.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5); // the most idempotence keeps ordered
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, lingerMillis);
+        configProps.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        configProps.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compression);
         return new DefaultKafkaProducerFactory<>(configProps);
     }
 
     @Bean
-    public KafkaTemplate<String, String> kafkaTemplate() {
+    public KafkaTemplate<String, byte[]> kafkaTemplate() {
         return new KafkaTemplate<>(producerFactory());
     }
 
     // --- CONSUMER CONFIG (New Addition) ---
     @Bean
-    public ConsumerFactory<String, String> consumerFactory() {
+    public ConsumerFactory<String, byte[]> consumerFactory() {
         Map<String, Object> props = new HashMap<>();
-        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092");
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ConsumerConfig.GROUP_ID_CONFIG, "ticketvelo-group");
         props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class); // decoded by the listener
         props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
-        return new DefaultKafkaConsumerFactory<>(props);
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false); // the container commits after each batch
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, notificationMaxPollRecords);
+
+        DefaultKafkaConsumerFactory<String, byte[]> factory = new DefaultKafkaConsumerFactory<>(props);
+        factory.addListener(new MicrometerConsumerListener<>(meterRegistry)); // exports records-lag-max, fetch rates, ...
+        return factory;
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> kafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, byte[]> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory());
+        useVirtualThreadsIfEnabled(factory);
+        return factory;
     }
 
+    // Batch mode for NotificationService: whole polls, several consumers, offsets committed per batch
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, String> kafkaListenerContainerFactory() {
-        ConcurrentKafkaListenerContainerFactory<String, String> factory =
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> notificationListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, byte[]> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
+        factory.setBatchListener(true);
+        factory.setConcurrency(notificationConcurrency);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+
+        // The listener dead-letters failed sends itself; this only covers a batch that throws
+        // (e.g. the DLT is unreachable): retry twice, then park the records on the DLT.
+        factory.setCommonErrorHandler(new DefaultErrorHandler(
+                new DeadLetterPublishingRecoverer(kafkaTemplate()), new FixedBackOff(1000L, 2L)));
+        useVirtualThreadsIfEnabled(factory);
         return factory;
     }
+
+    // Virtual-thread mode: consumer threads block cheaply (e.g. on a slow mail server)
+    private void useVirtualThreadsIfEnabled(ConcurrentKafkaListenerContainerFactory<String, byte[]> factory) {
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("kafka-listener-");
+            executor.setVirtualThreads(true);
+            factory.getContainerProperties().setListenerTaskExecutor(executor);
+        }
+    }
 }
\ No newline at end of file
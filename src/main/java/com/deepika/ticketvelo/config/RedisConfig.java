@@ -0,0 +1,25 @@
+package com.deepika.ticketvelo.config;
+
+import com.deepika.ticketvelo.modules.booking.service.SeatInventorySync;
+import com.deepika.ticketvelo.modules.catalog.service.CatalogCache;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+@Configuration
+public class RedisConfig {
+
+    // Pub/sub subscriptions (one connection shared by all listeners)
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                       CatalogCache catalogCache,
+                                                                       SeatInventorySync seatInventorySync) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(catalogCache, new ChannelTopic(CatalogCache.CHANNEL));
+        container.addMessageListener(seatInventorySync, new ChannelTopic(SeatInventorySync.CHANNEL));
+        return container;
+    }
+}
@@ -0,0 +1,69 @@
+package com.deepika.ticketvelo.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Virtual-thread mode (spring.threads.virtual.enabled=true).
+ *
+ * Spring Boot itself moves Tomcat and the scheduler onto virtual threads; KafkaConfig does the
+ * same for our listener containers. This class adds pinning diagnostics: a JFR stream listens for
+ * jdk.VirtualThreadPinned (a virtual thread blocked while holding a monitor, i.e. inside
+ * synchronized), counts it, and logs each distinct pinning frame once.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    private final RecordingStream pinnedEvents = new RecordingStream();
+    private final Set<String> reportedFrames = ConcurrentHashMap.newKeySet();
+
+    public VirtualThreadConfig(MeterRegistry meterRegistry,
+                               @Value("${ticketvelo.virtual-threads.pinned-threshold-ms:20}") long thresholdMillis) {
+        Counter pinned = Counter.builder("ticketvelo.vthreads.pinned")
+                .description("Virtual threads pinned to their carrier longer than the threshold")
+                .register(meterRegistry);
+
+        pinnedEvents.enable("jdk.VirtualThreadPinned")
+                .withThreshold(Duration.ofMillis(thresholdMillis))
+                .withStackTrace();
+        pinnedEvents.onEvent("jdk.VirtualThreadPinned", event -> {
+            pinned.increment();
+            String frame = firstApplicationFrame(event.getStackTrace());
+            if (reportedFrames.add(frame)) {
+                System.out.println("Virtual thread pinned for " + event.getDuration().toMillis() + "ms at " + frame);
+            }
+        });
+        pinnedEvents.startAsync();
+    }
+
+    @PreDestroy
+    public void close() {
+        pinnedEvents.close();
+    }
+
+    // Our own code is what we can fix, so point at it; fall back to the top frame
+    private static String firstApplicationFrame(RecordedStackTrace stackTrace) {
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) return "<unknown>";
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            if (type.startsWith("com.deepika.ticketvelo")) return describe(frame);
+        }
+        return describe(stackTrace.getFrames().get(0));
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+}
@@ -13,6 +13,7 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowedOrigins("http://localhost:3000") // Allow Next.js
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
                 .allowedHeaders("*")
+                .exposedHeaders("X-Next-Cursor", "X-Queue-Ticket", "Retry-After", "Idempotent-Replayed") // catalog paging, waiting room, replays
                 .allowCredentials(true);
     }
 }
\ No newline at end of file
@@ -0,0 +1,88 @@
+package com.deepika.ticketvelo.config.datasource;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replicas (ticketvelo.datasource.replica-urls). Off unless at least one is configured.
+ *
+ * The application DataSource becomes a LazyConnectionDataSourceProxy over the primary: it only
+ * fetches a real connection at the first statement, by which time the transaction has marked it
+ * read-only or not. Read-write work (every booking, Flyway, the inventory loads) gets the primary;
+ * @Transactional(readOnly = true) / read-only TransactionTemplate work goes through
+ * ReplicaRoutingDataSource to a fresh replica.
+ *
+ * Each replica gets its own Hikari pool (same settings as the primary's, except size and a short
+ * connection timeout), so pool metrics come out per target: hikaricp.connections.* tagged
+ * pool=primary / replica-1 / ...
+ */
+@Configuration
+@ConditionalOnProperty(name = "ticketvelo.datasource.replica-urls")
+public class ReadReplicaConfig implements WebMvcConfigurer {
+
+    @Value("${ticketvelo.datasource.pin-after-write-ms:5000}")
+    private long pinAfterWriteMillis;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName("primary");
+        return primary;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource, MeterRegistry meterRegistry,
+                                                             @Value("${ticketvelo.datasource.replica-urls}") List<String> urls,
+                                                             @Value("${ticketvelo.datasource.replica-username:${spring.datasource.username}}") String username,
+                                                             @Value("${ticketvelo.datasource.replica-password:${spring.datasource.password}}") String password,
+                                                             @Value("${ticketvelo.datasource.replica-pool-size:10}") int poolSize,
+                                                             @Value("${ticketvelo.datasource.replica-connection-timeout-ms:500}") long connectionTimeoutMillis,
+                                                             @Value("${ticketvelo.datasource.max-lag-ms:1000}") long maxLagMillis,
+                                                             @Value("${ticketvelo.datasource.lag-check-interval-ms:1000}") long lagCheckIntervalMillis) {
+        List<HikariDataSource> replicas = new ArrayList<>(urls.size());
+        for (int i = 0; i < urls.size(); i++) {
+            HikariConfig config = new HikariConfig();
+            primaryDataSource.copyStateTo(config); // driver, connection-init-sql, lifetimes ...
+            config.setJdbcUrl(urls.get(i).trim());
+            config.setUsername(username);
+            config.setPassword(password);
+            config.setPoolName("replica-" + (i + 1));
+            config.setMaximumPoolSize(poolSize);
+            config.setConnectionTimeout(connectionTimeoutMillis); // a dead replica must not stall reads: fall back fast
+            config.setInitializationFailTimeout(-1);              // start even if a replica is down
+            config.setReadOnly(true);
+            config.setMetricRegistry(meterRegistry);
+            replicas.add(new HikariDataSource(config));
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, maxLagMillis, lagCheckIntervalMillis, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaRoutingDataSource replicaRoutingDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaRoutingDataSource);
+        return dataSource;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ReadYourWritesInterceptor(pinAfterWriteMillis));
+    }
+}
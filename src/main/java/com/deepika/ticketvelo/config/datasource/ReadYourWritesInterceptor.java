@@ -0,0 +1,60 @@
+package com.deepika.ticketvelo.config.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.Duration;
+
+/**
+ * Read-your-writes on top of replica routing: for pin-after-write-ms after a signed-in user's
+ * last write (any non-GET request), that user's GETs read from the primary, so e.g. the seat
+ * list right after a booking already shows it. Anonymous reads always take the replicas.
+ *
+ * Tracked per node: behind a load balancer this relies on a user's requests staying on one node
+ * (or on pin-after-write-ms being long enough that the replicas have caught up anyway).
+ */
+public class ReadYourWritesInterceptor implements HandlerInterceptor {
+
+    private final Cache<Long, Boolean> recentWriters;
+
+    public ReadYourWritesInterceptor(long pinAfterWriteMillis) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(pinAfterWriteMillis))
+                .maximumSize(1_000_000)
+                .build();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Long userId = currentUserId();
+        if (userId == null) return true;
+
+        if (isRead(request)) {
+            if (recentWriters.getIfPresent(userId) != null) ReplicaRoutingDataSource.pin();
+        } else {
+            recentWriters.put(userId, Boolean.TRUE); // before the write runs: a read racing it is pinned too
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        ReplicaRoutingDataSource.unpin();
+        Long userId = currentUserId();
+        if (userId != null && !isRead(request)) recentWriters.put(userId, Boolean.TRUE); // window starts at commit
+    }
+
+    private static boolean isRead(HttpServletRequest request) {
+        return "GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod());
+    }
+
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getPrincipal() instanceof Long userId ? userId : null;
+    }
+}
@@ -0,0 +1,188 @@
+package com.deepika.ticketvelo.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Where read-only connections go once read replicas are configured (see ReadReplicaConfig).
+ *
+ * Each read takes the next replica, round robin, among those that are currently fresh: probed
+ * within the last few lag-check intervals and at most max-lag-ms behind the primary. With none
+ * fresh (all lagging, down, or not probed yet) the read goes to the primary instead. A replica
+ * that fails to hand out a connection counts as down until its next successful probe.
+ *
+ * Lag is measured against the primary's WAL position at probe time: a replica that has replayed
+ * up to it is 0 behind, otherwise it is as far behind as its last replayed transaction is old.
+ * The probe has its own thread, so a busy @Scheduled pool can't make every replica look stale.
+ *
+ * Reads that must see the caller's own writes run inside onPrimary(...).
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private static final String LAG_QUERY = """
+            select case
+                when not pg_is_in_recovery() then 0
+                when pg_last_wal_replay_lsn() >= cast(? as pg_lsn) then 0
+                else extract(epoch from now() - pg_last_xact_replay_timestamp()) * 1000
+            end
+            """;
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final long maxLagMillis;
+    private final long staleAfterMillis;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter pinnedReads;
+    private final Counter fallbackReads;
+    private final ScheduledExecutorService prober = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "replica-lag-probe");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicaPools, long maxLagMillis,
+                                    long lagCheckIntervalMillis, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.maxLagMillis = maxLagMillis;
+        this.staleAfterMillis = 3 * lagCheckIntervalMillis;
+        this.pinnedReads = readCounter(meterRegistry, "primary", "pinned");
+        this.fallbackReads = readCounter(meterRegistry, "primary", "fallback");
+
+        for (HikariDataSource pool : replicaPools) {
+            Replica replica = new Replica(pool, readCounter(meterRegistry, pool.getPoolName(), "replica"));
+            Gauge.builder("ticketvelo.datasource.replica.lag", replica, r -> r.lagMillis < 0 ? Double.NaN : r.lagMillis / 1000.0)
+                    .tag("target", pool.getPoolName()).baseUnit("seconds")
+                    .description("How far the replica was behind the primary at its last probe").register(meterRegistry);
+            Gauge.builder("ticketvelo.datasource.replica.fresh", replica, r -> r.isFresh(System.currentTimeMillis()) ? 1 : 0)
+                    .tag("target", pool.getPoolName())
+                    .description("1 while the replica is taking reads, 0 while they fall back to the primary").register(meterRegistry);
+            replicas.add(replica);
+        }
+        prober.scheduleWithFixedDelay(this::probeReplicas, 0, lagCheckIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private static Counter readCounter(MeterRegistry meterRegistry, String target, String reason) {
+        return Counter.builder("ticketvelo.datasource.reads").tag("target", target).tag("reason", reason)
+                .description("Read-only connections handed out, by target and why it was chosen").register(meterRegistry);
+    }
+
+    // Run reads that must see this thread's (or this user's recent) writes against the primary
+    public static <T> T onPrimary(Supplier<T> reads) {
+        if (Boolean.TRUE.equals(PINNED.get())) return reads.get();
+        PINNED.set(Boolean.TRUE);
+        try {
+            return reads.get();
+        } finally {
+            PINNED.remove();
+        }
+    }
+
+    // For ReadYourWritesInterceptor: the pin spans a whole request
+    static void pin() {
+        PINNED.set(Boolean.TRUE);
+    }
+
+    static void unpin() {
+        PINNED.remove();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (Boolean.TRUE.equals(PINNED.get())) {
+            pinnedReads.increment();
+            return primary.getConnection();
+        }
+
+        long now = System.currentTimeMillis();
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (!replica.isFresh(now)) continue;
+            try {
+                Connection connection = replica.pool.getConnection();
+                replica.reads.increment();
+                return connection;
+            } catch (SQLException e) {
+                replica.down = true; // until the next successful probe
+                System.out.println("Replica " + replica.pool.getPoolName() + " unavailable, reading from the primary: " + e.getMessage());
+            }
+        }
+        fallbackReads.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Replica routing uses the configured credentials");
+    }
+
+    // Called by Spring on shutdown (inferred destroy method)
+    public void close() {
+        prober.shutdownNow();
+        for (Replica replica : replicas) replica.pool.close();
+    }
+
+    void probeReplicas() {
+        String primaryLsn = null;
+        try (Connection connection = primary.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("select pg_current_wal_lsn()::text")) {
+            if (result.next()) primaryLsn = result.getString(1);
+        } catch (SQLException e) {
+            // Primary unreachable: replicas are judged by replay age alone
+        }
+
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.pool.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(LAG_QUERY)) {
+                statement.setString(1, primaryLsn);
+                try (ResultSet result = statement.executeQuery()) {
+                    result.next();
+                    double lag = result.getDouble(1);
+                    replica.lagMillis = result.wasNull() ? -1 : (long) lag; // null: nothing replayed yet
+                }
+                replica.probedAt = System.currentTimeMillis();
+                replica.down = false;
+            } catch (SQLException | RuntimeException e) { // never let an exception end the probe schedule
+                replica.down = true;
+            }
+        }
+    }
+
+    private final class Replica {
+        final HikariDataSource pool;
+        final Counter reads;
+        volatile long lagMillis = -1;
+        volatile long probedAt;
+        volatile boolean down;
+
+        Replica(HikariDataSource pool, Counter reads) {
+            this.pool = pool;
+            this.reads = reads;
+        }
+
+        boolean isFresh(long now) {
+            return !down && now - probedAt <= staleAfterMillis && lagMillis >= 0 && lagMillis <= maxLagMillis;
+        }
+    }
+}
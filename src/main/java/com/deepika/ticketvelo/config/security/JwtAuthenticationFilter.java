@@ -10,7 +10,6 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Collections;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -30,11 +29,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String token = authHeader.substring(7);
             try {
-                Long userId = jwtUtil.validateTokenAndGetUserId(token);
-
-                // Create an Authentication Object (Standard Spring Security)
-                UsernamePasswordAuthenticationToken authToken =
-                        new UsernamePasswordAuthenticationToken(userId, null, Collections.emptyList());
+                // Authentication Object (Standard Spring Security): a fresh one per request, only the verification is cached
+                UsernamePasswordAuthenticationToken authToken = jwtUtil.verify(token).authentication();
 
                 // Set the User in the Context (So Controllers can see it)
                 SecurityContextHolder.getContext().setAuthentication(authToken);
@@ -1,16 +1,29 @@
 package com.deepika.ticketvelo.config.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.stereotype.Component;
 
 import jakarta.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Collections;
 import java.util.Date;
-import java.util.Base64;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtUtil {
@@ -21,7 +34,26 @@ public class JwtUtil {
     @Value("${jwt.expiration}")
     private long expirationTime;
 
+    @Value("${ticketvelo.auth.token-cache-max-entries:100000}")
+    private long tokenCacheMaxEntries;
+
+    private final MeterRegistry meterRegistry;
+    private final Timer validTokens;
+    private final Timer invalidTokens;
+
     private Key key;
+    private JwtParser parser; // immutable and thread-safe: built once, not per request
+    private Cache<String, VerifiedToken> verifiedTokens;
+
+    public JwtUtil(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.validTokens = Timer.builder("ticketvelo.auth.jwt.validation").tag("result", "valid")
+                .description("Full JWT verification (signature + claims) on a token cache miss")
+                .register(meterRegistry);
+        this.invalidTokens = Timer.builder("ticketvelo.auth.jwt.validation").tag("result", "invalid")
+                .description("Full JWT verification (signature + claims) on a token cache miss")
+                .register(meterRegistry);
+    }
 
     // 2. Initialize the Key AFTER injection happens
     @PostConstruct
@@ -29,6 +61,16 @@ public class JwtUtil {
         // We decode the hex/base64 string or just use bytes
         byte[] keyBytes = secretString.getBytes();
         this.key = Keys.hmacShaKeyFor(keyBytes);
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
+
+        // Verified tokens, keyed by their SHA-256 and dropped exactly when the token expires
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(tokenCacheMaxEntries)
+                .expireAfter(Expiry.<String, VerifiedToken>creating(
+                        (hash, verified) -> Duration.ofMillis(Math.max(0, verified.expiresAtMillis() - System.currentTimeMillis()))))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwt");
     }
 
     public String generateToken(Long userId) {
@@ -41,15 +83,51 @@ public class JwtUtil {
     }
 
     public Long validateTokenAndGetUserId(String token) {
+        return verify(token).userId();
+    }
+
+    // Cache hit: one digest + one map lookup, no HMAC, no JSON parsing. Invalid tokens are never cached.
+    public VerifiedToken verify(String token) {
+        String hash = sha256(token);
+        VerifiedToken cached = verifiedTokens.getIfPresent(hash);
+        if (cached != null) return cached;
+
+        VerifiedToken verified = parse(token);
+        verifiedTokens.put(hash, verified);
+        return verified;
+    }
+
+    VerifiedToken parse(String token) {
+        long start = System.nanoTime();
         try {
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(key)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-            return Long.parseLong(claims.getSubject());
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            Long userId = Long.parseLong(claims.getSubject());
+            long expiresAt = claims.getExpiration() == null
+                    ? System.currentTimeMillis() + expirationTime
+                    : claims.getExpiration().getTime();
+            validTokens.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return new VerifiedToken(userId, expiresAt);
         } catch (Exception e) {
+            invalidTokens.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
             throw new RuntimeException("Invalid Token");
         }
     }
-}
\ No newline at end of file
+
+    // Cache key: the raw token never sits in memory longer than the request
+    private static String sha256(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return new String(digest, StandardCharsets.ISO_8859_1); // 32 Latin-1 chars, compact string
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Only immutable facts are cached and shared across requests; each request builds its own Authentication
+    public record VerifiedToken(Long userId, long expiresAtMillis) {
+
+        public UsernamePasswordAuthenticationToken authentication() {
+            return new UsernamePasswordAuthenticationToken(userId, null, Collections.emptyList());
+        }
+    }
+}
@@ -1,12 +1,28 @@
 package com.deepika.ticketvelo.modules.booking.controller;
 
-import com.deepika.ticketvelo.modules.booking.model.Ticket;
-import com.deepika.ticketvelo.modules.booking.repository.TicketRepository;
+import com.deepika.ticketvelo.common.idempotency.IdempotencyStore;
+import com.deepika.ticketvelo.modules.booking.model.CancellationView;
+import com.deepika.ticketvelo.modules.booking.model.SeatLayoutView;
+import com.deepika.ticketvelo.modules.booking.model.SeatHoldView;
+import com.deepika.ticketvelo.modules.booking.model.SeatMapView;
+import com.deepika.ticketvelo.modules.booking.model.TicketView;
+import com.deepika.ticketvelo.modules.booking.model.WaitlistEntryView;
 import com.deepika.ticketvelo.modules.booking.service.BookingService;
-import org.springframework.beans.factory.annotation.Autowired;
+import com.deepika.ticketvelo.modules.booking.service.CancellationService;
+import com.deepika.ticketvelo.modules.booking.service.SeatHoldService;
+import com.deepika.ticketvelo.modules.booking.service.SeatUpdateStream;
+import com.deepika.ticketvelo.modules.booking.service.WaitingRoom;
+import com.deepika.ticketvelo.modules.booking.service.WaitlistService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.Duration;
 import java.util.List;
 
 @RestController
@@ -14,23 +30,144 @@ import java.util.List;
 public class BookingController {
 
     private final BookingService bookingService;
-    @Autowired
-    private TicketRepository ticketRepository;
+    private final SeatUpdateStream seatUpdateStream;
+    private final SeatHoldService seatHoldService;
+    private final WaitingRoom waitingRoom;
+    private final IdempotencyStore idempotencyStore;
+    private final CancellationService cancellationService;
+    private final WaitlistService waitlistService;
 
-    public BookingController(BookingService bookingService) {
+    public BookingController(BookingService bookingService, SeatUpdateStream seatUpdateStream, SeatHoldService seatHoldService,
+                             WaitingRoom waitingRoom, IdempotencyStore idempotencyStore, CancellationService cancellationService,
+                             WaitlistService waitlistService) {
         this.bookingService = bookingService;
+        this.seatUpdateStream = seatUpdateStream;
+        this.seatHoldService = seatHoldService;
+        this.waitingRoom = waitingRoom;
+        this.idempotencyStore = idempotencyStore;
+        this.cancellationService = cancellationService;
+        this.waitlistService = waitlistService;
     }
 
+    // Booking entry points: a retry with the same Idempotency-Key replays the first answer;
+    // otherwise the waiting room comes first (over capacity = 429 + queue ticket)
     @PostMapping
-    public List<Ticket> bookTickets(@RequestBody BookingRequest request, @AuthenticationPrincipal Long userId) {
-        return bookingService.bookTickets(request.eventId(), request.seatIds(), userId );
+    public ResponseEntity<?> bookTickets(@RequestBody BookingRequest request, @AuthenticationPrincipal Long userId,
+                                         @RequestHeader(name = WaitingRoom.TICKET_HEADER, required = false) String queueTicket,
+                                         @RequestHeader(name = IdempotencyStore.KEY_HEADER, required = false) String idempotencyKey) {
+        return idempotencyStore.execute("bookings:" + userId, idempotencyKey, request,
+                () -> waitingRoom.run(request.eventId(), userId, queueTicket,
+                        () -> bookingService.bookTickets(request.eventId(), request.seatIds(), userId)));
     }
 
     // DTO: Simple container for the JSON data
     public record BookingRequest(Long eventId, List<Long> seatIds) {}
 
+    // "Give me N adjacent seats": the server picks the best available block
+    @PostMapping("/best-available")
+    public ResponseEntity<?> bookBestAvailable(@RequestBody BestAvailableRequest request, @AuthenticationPrincipal Long userId,
+                                               @RequestHeader(name = WaitingRoom.TICKET_HEADER, required = false) String queueTicket,
+                                               @RequestHeader(name = IdempotencyStore.KEY_HEADER, required = false) String idempotencyKey) {
+        return idempotencyStore.execute("best-available:" + userId, idempotencyKey, request,
+                () -> waitingRoom.run(request.eventId(), userId, queueTicket,
+                        () -> bookingService.bookBestAvailable(request.eventId(), request.section(), request.quantity(), userId)));
+    }
+
+    public record BestAvailableRequest(Long eventId, String section, int quantity) {}
+
+    // Hold seats while the user pays; confirm or release before the hold expires
+    @PostMapping("/holds")
+    public ResponseEntity<?> holdSeats(@RequestBody BookingRequest request, @AuthenticationPrincipal Long userId,
+                                       @RequestHeader(name = WaitingRoom.TICKET_HEADER, required = false) String queueTicket,
+                                       @RequestHeader(name = IdempotencyStore.KEY_HEADER, required = false) String idempotencyKey) {
+        return idempotencyStore.execute("holds:" + userId, idempotencyKey, request,
+                () -> waitingRoom.run(request.eventId(), userId, queueTicket,
+                        () -> seatHoldService.hold(request.eventId(), request.seatIds(), userId)));
+    }
+
+    @PostMapping("/holds/{holdId}/confirm")
+    public ResponseEntity<?> confirmHold(@PathVariable String holdId, @AuthenticationPrincipal Long userId,
+                                         @RequestHeader(name = IdempotencyStore.KEY_HEADER, required = false) String idempotencyKey) {
+        return idempotencyStore.execute("confirm:" + userId, idempotencyKey, holdId,
+                () -> seatHoldService.confirm(holdId, userId));
+    }
+
+    @DeleteMapping("/holds/{holdId}")
+    public ResponseEntity<Void> releaseHold(@PathVariable String holdId, @AuthenticationPrincipal Long userId) {
+        seatHoldService.release(holdId, userId);
+        return ResponseEntity.noContent().build();
+    }
+
+    // Your order for an event = every ticket you have booked for it
+    @GetMapping("/orders/{eventId}")
+    public List<TicketView> getOrder(@PathVariable Long eventId, @AuthenticationPrincipal Long userId) {
+        return cancellationService.getOrder(eventId, userId);
+    }
+
+    // Cancel the whole order, or one ticket of it. Freed seats go to the event's waitlist first.
+    @DeleteMapping("/orders/{eventId}")
+    public CancellationView cancelOrder(@PathVariable Long eventId, @AuthenticationPrincipal Long userId) {
+        return cancellationService.cancelOrder(eventId, userId);
+    }
+
+    @DeleteMapping("/orders/{eventId}/tickets/{ticketId}")
+    public CancellationView cancelTicket(@PathVariable Long eventId, @PathVariable Long ticketId, @AuthenticationPrincipal Long userId) {
+        return cancellationService.cancelTicket(eventId, ticketId, userId);
+    }
+
+    // Wait for seats of a sold-out event: cancelled seats are booked to waiting users in arrival order
+    @PostMapping("/waitlist")
+    public WaitlistEntryView joinWaitlist(@RequestBody WaitlistRequest request, @AuthenticationPrincipal Long userId) {
+        return waitlistService.join(request.eventId(), request.quantity(), request.section(), userId);
+    }
+
+    public record WaitlistRequest(Long eventId, int quantity, String section) {}
+
+    @GetMapping("/waitlist/{entryId}")
+    public WaitlistEntryView getWaitlistEntry(@PathVariable Long entryId, @AuthenticationPrincipal Long userId) {
+        return waitlistService.get(entryId, userId);
+    }
+
+    @DeleteMapping("/waitlist/{entryId}")
+    public ResponseEntity<Void> leaveWaitlist(@PathVariable Long entryId, @AuthenticationPrincipal Long userId) {
+        waitlistService.leave(entryId, userId);
+        return ResponseEntity.noContent().build();
+    }
+
     @GetMapping("/event/{eventId}")
-    public List<Ticket> getTicketsForEvent(@PathVariable Long eventId) {
-        return ticketRepository.findByEventId(eventId);
+    public List<TicketView> getTicketsForEvent(@PathVariable Long eventId) {
+        return bookingService.getTicketsForEvent(eventId);
+    }
+
+    // Compact seat statuses. Poll with ?sinceVersion=<last version> to get only what changed.
+    @GetMapping("/event/{eventId}/seatmap")
+    public ResponseEntity<SeatMapView> getSeatMap(@PathVariable Long eventId,
+                                                  @RequestParam(required = false) Long sinceVersion,
+                                                  WebRequest request) {
+        SeatMapView seatMap = bookingService.getSeatMap(eventId, sinceVersion);
+        String etag = "\"" + eventId + "-" + seatMap.version() + (seatMap.full() ? "" : "-since-" + sinceVersion) + "\"";
+
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(seatMap);
+    }
+
+    // Static layout (ordinal -> seat). Doesn't change for the life of an event, so let clients keep it.
+    @GetMapping("/event/{eventId}/layout")
+    public ResponseEntity<SeatLayoutView> getSeatLayout(@PathVariable Long eventId, WebRequest request) {
+        SeatLayoutView layout = bookingService.getSeatLayout(eventId);
+        String etag = "\"layout-" + eventId + "-" + layout.seatIds().length + "\"";
+
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.maxAge(Duration.ofHours(1))).body(layout);
+    }
+
+    // Live seat-map updates (SSE): a full map first, then coalesced deltas as seats change
+    @GetMapping(path = "/event/{eventId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamSeatMap(@PathVariable Long eventId) {
+        return seatUpdateStream.subscribe(eventId);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,35 @@
+package com.deepika.ticketvelo.modules.booking.event;
+
+import java.time.Instant;
+import java.util.List;
+
+// One message on ticket-updates: what happened to which tickets of one event (one message per booking, not per seat)
+public record TicketEvent(Type type, long eventId, Long userId, String holdId, Instant occurredAt,
+                          List<Long> ticketIds, List<Long> seatIds) {
+
+    public enum Type {
+        BOOKED(1),   // seats sold (directly, or by confirming a hold)
+        HELD(2),     // seats reserved by a hold until it is confirmed, released or expires
+        RELEASED(3), // seats back on sale: a hold given back by its user, or cancelled seats nobody on the waitlist took
+        CANCELLED(4); // booked seats cancelled (back on sale, or held for the waitlist when holdId is set)
+
+        final int code; // on the wire; never reuse a code
+
+        Type(int code) {
+            this.code = code;
+        }
+
+        static Type of(int code) {
+            for (Type type : values()) {
+                if (type.code == code) return type;
+            }
+            return null;
+        }
+    }
+
+    public TicketEvent {
+        if (ticketIds.size() != seatIds.size()) {
+            throw new IllegalArgumentException("ticketIds and seatIds must be parallel lists");
+        }
+    }
+}
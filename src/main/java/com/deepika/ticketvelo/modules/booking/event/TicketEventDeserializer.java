@@ -0,0 +1,13 @@
+package com.deepika.ticketvelo.modules.booking.event;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+// Kafka value deserializer for ticket-updates; throws SerializationException on anything that isn't a TicketEvent
+public class TicketEventDeserializer implements Deserializer<TicketEvent> {
+
+    @Override
+    public TicketEvent deserialize(String topic, byte[] data) throws SerializationException {
+        return data == null ? null : TicketEventCodec.decode(data);
+    }
+}
@@ -0,0 +1,12 @@
+package com.deepika.ticketvelo.modules.booking.event;
+
+import org.apache.kafka.common.serialization.Serializer;
+
+// Kafka value serializer for ticket-updates (format: TicketEventCodec)
+public class TicketEventSerializer implements Serializer<TicketEvent> {
+
+    @Override
+    public byte[] serialize(String topic, TicketEvent event) {
+        return event == null ? null : TicketEventCodec.encode(event);
+    }
+}
@@ -0,0 +1,6 @@
+package com.deepika.ticketvelo.modules.booking.model;
+
+import java.util.List;
+
+// Tickets a cancellation gave back; waitlisted = offered to the event's waitlist first rather than put straight on sale
+public record CancellationView(Long eventId, List<Long> ticketIds, List<Long> seatIds, boolean waitlisted) {}
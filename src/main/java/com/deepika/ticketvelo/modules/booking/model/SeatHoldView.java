@@ -0,0 +1,8 @@
+package com.deepika.ticketvelo.modules.booking.model;
+
+import java.time.Instant;
+import java.util.List;
+
+// A live hold: confirm it with POST /api/bookings/holds/{holdId}/confirm before expiresAt
+public record SeatHoldView(String holdId, Long eventId, Instant expiresAt, List<TicketView> tickets) {
+}
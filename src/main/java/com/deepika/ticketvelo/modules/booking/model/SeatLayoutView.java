@@ -0,0 +1,6 @@
+package com.deepika.ticketvelo.modules.booking.model;
+
+// Static part of the seat map, column-oriented and indexed by seat ordinal. Fetched once per event.
+public record SeatLayoutView(Long eventId, long[] seatIds, long[] ticketIds, String[] rowNumbers,
+                             int[] seatNumbers, String[] sections) {
+}
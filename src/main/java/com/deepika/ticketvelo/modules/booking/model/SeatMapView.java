@@ -0,0 +1,15 @@
+package com.deepika.ticketvelo.modules.booking.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Compact seat map. Seats are addressed by ordinal (index into SeatLayoutView).
+ * Status codes: 0 = AVAILABLE, 1 = BOOKED, 2 = HELD (LOCKED by a live seat hold).
+ *
+ * full = true : `statuses` is base64 of 2 bits per seat (seat i -> byte i/4, bits (i%4)*2).
+ * full = false: `changes` is a flat [ordinal, status, ordinal, status, ...] list since `sinceVersion`.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record SeatMapView(Long eventId, long version, boolean full, int seatCount,
+                          Long sinceVersion, String statuses, int[] changes) {
+}
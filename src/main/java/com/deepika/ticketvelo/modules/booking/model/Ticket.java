@@ -5,14 +5,18 @@ import com.deepika.ticketvelo.modules.catalog.model.Seat;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.PartitionKey;
 
+import java.time.Instant;
+
+// Partitioned by event_id, one partition per event; schema and indexes live in db/migration
 @Entity
 @Table(name = "tickets")
 @Getter @Setter
 public class Ticket {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.IDENTITY) // tickets_id_seq, the column default
     private Long id;
 
     // Which Event is this for?
@@ -20,6 +24,11 @@ public class Ticket {
     @JoinColumn(name = "event_id")
     private Event event;
 
+    // Read-only view of the same column: Hibernate adds it to entity UPDATE/DELETE so they hit one partition
+    @PartitionKey
+    @Column(name = "event_id", insertable = false, updatable = false)
+    private Long eventId;
+
     // Which Physical Seat?
     @ManyToOne
     @JoinColumn(name = "seat_id")
@@ -31,6 +40,10 @@ public class Ticket {
     // Who owns it?
     private Long userId;
 
+    // Set while LOCKED: which hold reserved it, and until when
+    private String holdId;
+    private Instant heldUntil;
+
     @Version // <--- OPTIMISTIC LOCKING
     private Integer version;
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.deepika.ticketvelo.modules.booking.model;
+
+import java.time.Instant;
+
+// Flat projection of a Ticket joined with its Seat.
+// Used to load an event's inventory without pulling the Event -> Venue graph per row.
+// holdId / heldUntil are only set for LOCKED (held) tickets.
+public record TicketSeatRow(Long ticketId, Long seatId, String rowNumber, Integer seatNumber,
+                            String section, String status, Long userId, String holdId, Instant heldUntil) {
+
+    public TicketSeatRow(Long ticketId, Long seatId, String rowNumber, Integer seatNumber,
+                         String section, String status, Long userId) {
+        this(ticketId, seatId, rowNumber, seatNumber, section, status, userId, null, null);
+    }
+}
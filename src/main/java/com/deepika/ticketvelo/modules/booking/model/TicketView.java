@@ -0,0 +1,12 @@
+package com.deepika.ticketvelo.modules.booking.model;
+
+// Lightweight read model for the seat map (same JSON shape the frontend already consumes)
+public record TicketView(Long id, String status, Long userId, SeatView seat) {
+
+    public record SeatView(Long id, String rowNumber, int seatNumber, String section) {}
+
+    public static TicketView of(TicketSeatRow row) {
+        return new TicketView(row.ticketId(), row.status(), row.userId(),
+                new SeatView(row.seatId(), row.rowNumber(), row.seatNumber() == null ? 0 : row.seatNumber(), row.section()));
+    }
+}
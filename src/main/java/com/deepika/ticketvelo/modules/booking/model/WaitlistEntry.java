@@ -0,0 +1,31 @@
+package com.deepika.ticketvelo.modules.booking.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+// One user waiting for `quantity` seats of an event; matched FIFO to seats freed by cancellations
+@Entity
+@Table(name = "waitlist_entries")
+@Getter @Setter
+public class WaitlistEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long eventId;
+    private Long userId;
+    private int quantity;
+
+    // Only seats from this section (null = any)
+    private String section;
+
+    // Status: WAITING, FULFILLED, CANCELLED
+    private String status;
+
+    private Instant createdAt;
+    private Instant fulfilledAt;
+}
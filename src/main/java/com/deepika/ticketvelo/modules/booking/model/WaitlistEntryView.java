@@ -0,0 +1,13 @@
+package com.deepika.ticketvelo.modules.booking.model;
+
+import java.time.Instant;
+
+// A waitlist entry as its user sees it; position is 1-based among the event's waiting entries (null once matched or left)
+public record WaitlistEntryView(Long id, Long eventId, int quantity, String section, String status, Long position,
+                                Instant createdAt, Instant fulfilledAt) {
+
+    public static WaitlistEntryView of(WaitlistEntry entry, Long position) {
+        return new WaitlistEntryView(entry.getId(), entry.getEventId(), entry.getQuantity(), entry.getSection(),
+                entry.getStatus(), position, entry.getCreatedAt(), entry.getFulfilledAt());
+    }
+}
@@ -1,12 +1,22 @@
 package com.deepika.ticketvelo.modules.booking.repository;
 
 import com.deepika.ticketvelo.modules.booking.model.Ticket;
+import com.deepika.ticketvelo.modules.booking.model.TicketSeatRow;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+// tickets is partitioned by event_id: every query on the booking path filters on the event so
+// Postgres prunes to that event's partition (the expired-hold sweep is the one deliberate exception)
 @Repository
 public interface TicketRepository extends JpaRepository<Ticket, Long> {
 
@@ -16,4 +26,191 @@ public interface TicketRepository extends JpaRepository<Ticket, Long> {
 
     //Query: Find all tickets for a particular event
     List<Ticket> findByEventId(Long eventId);
-}
\ No newline at end of file
+
+    // Query: Flat seat rows for an event, ordered by seat id (used to build the in-memory inventory)
+    @Query("""
+            select new com.deepika.ticketvelo.modules.booking.model.TicketSeatRow(
+                t.id, s.id, s.rowNumber, s.seatNumber, s.section, t.status, t.userId, t.holdId, t.heldUntil)
+            from Ticket t join t.seat s
+            where t.event.id = :eventId
+            order by s.id
+            """)
+    List<TicketSeatRow> findSeatRowsByEventId(@Param("eventId") Long eventId);
+
+    // Same projection, restricted to a set of seats (e.g. the ones just booked)
+    @Query("""
+            select new com.deepika.ticketvelo.modules.booking.model.TicketSeatRow(
+                t.id, s.id, s.rowNumber, s.seatNumber, s.section, t.status, t.userId, t.holdId, t.heldUntil)
+            from Ticket t join t.seat s
+            where t.event.id = :eventId and s.id in :seatIds
+            order by s.id
+            """)
+    List<TicketSeatRow> findSeatRowsByEventIdAndSeatIds(@Param("eventId") Long eventId,
+                                                        @Param("seatIds") Collection<Long> seatIds);
+
+    // Same projection for the tickets reserved by one hold
+    @Query("""
+            select new com.deepika.ticketvelo.modules.booking.model.TicketSeatRow(
+                t.id, s.id, s.rowNumber, s.seatNumber, s.section, t.status, t.userId, t.holdId, t.heldUntil)
+            from Ticket t join t.seat s
+            where t.event.id = :eventId and t.holdId = :holdId
+            order by s.id
+            """)
+    List<TicketSeatRow> findSeatRowsByEventIdAndHoldId(@Param("eventId") Long eventId, @Param("holdId") String holdId);
+
+    // Set-based claim: books every requested seat that is still AVAILABLE (or whose hold has expired
+    // but not been swept yet) in ONE statement.
+    // Returns the number of rows updated; callers compare it with the number of seats requested
+    // and roll back on a mismatch so the booking is all-or-nothing.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update Ticket t set t.status = 'BOOKED', t.userId = :userId, t.holdId = null, t.heldUntil = null,
+                t.version = t.version + 1
+            where t.event.id = :eventId and t.seat.id in :seatIds
+              and (t.status = 'AVAILABLE' or (t.status = 'LOCKED' and t.heldUntil <= :now))
+            """)
+    int claimSeats(@Param("eventId") Long eventId, @Param("seatIds") Collection<Long> seatIds,
+                   @Param("userId") Long userId, @Param("now") Instant now);
+
+    default int claimSeats(Long eventId, Collection<Long> seatIds, Long userId) {
+        return claimSeats(eventId, seatIds, userId, Instant.now());
+    }
+
+    // Optimistic strategy: the tickets as managed entities (seat and event fetched with them).
+    // Changes to them are checked against @Version when flushed.
+    @Query("""
+            select t from Ticket t join fetch t.seat s join fetch t.event
+            where t.event.id = :eventId and s.id in :seatIds
+            order by s.id
+            """)
+    List<Ticket> findTicketsByEventIdAndSeatIds(@Param("eventId") Long eventId, @Param("seatIds") Collection<Long> seatIds);
+
+    // SKIP LOCKED strategy: row-locks those of the seats that are bookable and not locked by another
+    // transaction at this moment, without waiting for any. Returns the locked tickets' ids.
+    @Query(value = """
+            select t.id from tickets t
+            where t.event_id = :eventId and t.seat_id in (:seatIds)
+              and (t.status = 'AVAILABLE' or (t.status = 'LOCKED' and t.held_until <= :now))
+            order by t.seat_id
+            for update skip locked
+            """, nativeQuery = true)
+    List<Long> lockBookableSeats(@Param("eventId") Long eventId, @Param("seatIds") Collection<Long> seatIds,
+                                 @Param("now") Instant now);
+
+    // Hold: same conditional UPDATE, but the seats become LOCKED until heldUntil
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update Ticket t set t.status = 'LOCKED', t.userId = :userId, t.holdId = :holdId, t.heldUntil = :heldUntil,
+                t.version = t.version + 1
+            where t.event.id = :eventId and t.seat.id in :seatIds
+              and (t.status = 'AVAILABLE' or (t.status = 'LOCKED' and t.heldUntil <= :now))
+            """)
+    int holdSeats(@Param("eventId") Long eventId, @Param("seatIds") Collection<Long> seatIds,
+                  @Param("userId") Long userId, @Param("holdId") String holdId,
+                  @Param("heldUntil") Instant heldUntil, @Param("now") Instant now);
+
+    // Confirm: only while the hold is still live; 0 rows means it expired or isn't this user's
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update Ticket t set t.status = 'BOOKED', t.heldUntil = null, t.version = t.version + 1
+            where t.event.id = :eventId and t.holdId = :holdId and t.userId = :userId
+              and t.status = 'LOCKED' and t.heldUntil > :now
+            """)
+    int confirmHold(@Param("eventId") Long eventId, @Param("holdId") String holdId, @Param("userId") Long userId,
+                    @Param("now") Instant now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update Ticket t set t.status = 'AVAILABLE', t.userId = null, t.holdId = null, t.heldUntil = null,
+                t.version = t.version + 1
+            where t.event.id = :eventId and t.holdId = :holdId and t.userId = :userId and t.status = 'LOCKED'
+            """)
+    int releaseHold(@Param("eventId") Long eventId, @Param("holdId") String holdId, @Param("userId") Long userId);
+
+    // Bulk expiry, step 1: row-locks the seats releaseExpiredHolds is about to free, so the RELEASED
+    // update names exactly those (a claim can't take one of them in between)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+            select new com.deepika.ticketvelo.modules.booking.model.TicketSeatRow(
+                t.id, s.id, s.rowNumber, s.seatNumber, s.section, t.status, t.userId, t.holdId, t.heldUntil)
+            from Ticket t join t.seat s
+            where t.event.id = :eventId and t.holdId in :holdIds and t.status = 'LOCKED' and t.heldUntil <= :now
+            order by s.id
+            """)
+    List<TicketSeatRow> lockExpiredHolds(@Param("eventId") Long eventId, @Param("holdIds") Collection<String> holdIds,
+                                         @Param("now") Instant now);
+
+    // Bulk expiry: every seat of every given hold (all of one event) that is still LOCKED past its deadline
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update Ticket t set t.status = 'AVAILABLE', t.userId = null, t.holdId = null, t.heldUntil = null,
+                t.version = t.version + 1
+            where t.event.id = :eventId and t.holdId in :holdIds and t.status = 'LOCKED' and t.heldUntil <= :now
+            """)
+    int releaseExpiredHolds(@Param("eventId") Long eventId, @Param("holdIds") Collection<String> holdIds,
+                            @Param("now") Instant now);
+
+    // A user's booked tickets for an event (their order), optionally just one of them
+    @Query("""
+            select new com.deepika.ticketvelo.modules.booking.model.TicketSeatRow(
+                t.id, s.id, s.rowNumber, s.seatNumber, s.section, t.status, t.userId, t.holdId, t.heldUntil)
+            from Ticket t join t.seat s
+            where t.event.id = :eventId and t.userId = :userId and t.status = 'BOOKED'
+              and (:ticketId is null or t.id = :ticketId)
+            order by s.id
+            """)
+    List<TicketSeatRow> findBookedRowsByEventIdAndUserId(@Param("eventId") Long eventId, @Param("userId") Long userId,
+                                                         @Param("ticketId") Long ticketId);
+
+    // Every booked ticket in one section of an event
+    @Query("""
+            select new com.deepika.ticketvelo.modules.booking.model.TicketSeatRow(
+                t.id, s.id, s.rowNumber, s.seatNumber, s.section, t.status, t.userId, t.holdId, t.heldUntil)
+            from Ticket t join t.seat s
+            where t.event.id = :eventId and s.section = :section and t.status = 'BOOKED'
+            order by s.id
+            """)
+    List<TicketSeatRow> findBookedRowsByEventIdAndSection(@Param("eventId") Long eventId, @Param("section") String section);
+
+    // Cancel: booked tickets go back on sale (AVAILABLE), or are held for the waitlist under a release
+    // hold (LOCKED, user_id null) until heldUntil. Only still-BOOKED rows change; callers compare the count.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update Ticket t set t.status = :status, t.userId = null, t.holdId = :holdId, t.heldUntil = :heldUntil,
+                t.version = t.version + 1
+            where t.event.id = :eventId and t.id in :ticketIds and t.status = 'BOOKED'
+            """)
+    int cancelTickets(@Param("eventId") Long eventId, @Param("ticketIds") Collection<Long> ticketIds,
+                      @Param("status") String status, @Param("holdId") String holdId, @Param("heldUntil") Instant heldUntil);
+
+    // Waitlist match: released seats go to the waiting user, only while their release hold is still live
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update Ticket t set t.status = 'BOOKED', t.userId = :userId, t.holdId = null, t.heldUntil = null,
+                t.version = t.version + 1
+            where t.event.id = :eventId and t.id in :ticketIds and t.holdId in :holdIds
+              and t.status = 'LOCKED' and t.heldUntil > :now
+            """)
+    int assignReleasedSeats(@Param("eventId") Long eventId, @Param("ticketIds") Collection<Long> ticketIds,
+                            @Param("holdIds") Collection<String> holdIds, @Param("userId") Long userId,
+                            @Param("now") Instant now);
+
+    // Released seats nobody on the waitlist could take: on sale
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update Ticket t set t.status = 'AVAILABLE', t.holdId = null, t.heldUntil = null, t.version = t.version + 1
+            where t.event.id = :eventId and t.id in :ticketIds and t.holdId in :holdIds and t.status = 'LOCKED'
+            """)
+    int freeReleasedSeats(@Param("eventId") Long eventId, @Param("ticketIds") Collection<Long> ticketIds,
+                          @Param("holdIds") Collection<String> holdIds);
+
+    // Backstop for holds nobody is tracking (e.g. the node that created them died). Spans every
+    // attached partition, i.e. every event not yet archived, through the partial held_until index
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update Ticket t set t.status = 'AVAILABLE', t.userId = null, t.holdId = null, t.heldUntil = null,
+                t.version = t.version + 1
+            where t.status = 'LOCKED' and t.heldUntil <= :now
+            """)
+    int releaseAllExpiredHolds(@Param("now") Instant now);
+}
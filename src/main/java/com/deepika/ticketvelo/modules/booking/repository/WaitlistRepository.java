@@ -0,0 +1,37 @@
+package com.deepika.ticketvelo.modules.booking.repository;
+
+import com.deepika.ticketvelo.modules.booking.model.WaitlistEntry;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface WaitlistRepository extends JpaRepository<WaitlistEntry, Long> {
+
+    boolean existsByEventIdAndStatus(Long eventId, String status);
+
+    // An event's waiting entries in arrival order, one keyset page at a time (partial index idx_waitlist_waiting)
+    List<WaitlistEntry> findByEventIdAndStatusAndIdGreaterThanOrderByIdAsc(Long eventId, String status, Long afterId, Limit limit);
+
+    // Locks one entry for a match; empty if it is no longer waiting or another node is matching it right now
+    @Query(value = "select * from waitlist_entries where id = :id and status = 'WAITING' for update skip locked",
+            nativeQuery = true)
+    Optional<WaitlistEntry> lockWaiting(@Param("id") Long id);
+
+    // Leaving: only while still waiting (a match in flight holds the row lock and wins)
+    @Modifying
+    @Transactional
+    @Query("update WaitlistEntry w set w.status = 'CANCELLED' where w.id = :id and w.userId = :userId and w.status = 'WAITING'")
+    int cancelWaiting(@Param("id") Long id, @Param("userId") Long userId);
+
+    // 1-based place in the queue
+    @Query("select count(w) + 1 from WaitlistEntry w where w.eventId = :eventId and w.status = 'WAITING' and w.id < :id")
+    long positionOf(@Param("eventId") Long eventId, @Param("id") Long id);
+}
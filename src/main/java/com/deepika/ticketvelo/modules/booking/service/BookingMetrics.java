@@ -0,0 +1,238 @@
+package com.deepika.ticketvelo.modules.booking.service;
+
+import com.deepika.ticketvelo.common.exception.SeatBookedException;
+import com.deepika.ticketvelo.common.exception.TicketVeloException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Stage-level metrics for the booking pipeline, so a p99 spike can be pinned on one stage.
+ *
+ * Every tag is drawn from a fixed set (stage, outcome, reason). Per-event contention is the only
+ * per-event signal, and it is published for the top N most contended events of the last window
+ * only, so the series count stays bounded however many events exist.
+ */
+@Component
+public class BookingMetrics {
+
+    public enum Stage {
+        TOTAL("total", null),                      // whole BookingService call (wraps the others: never counts a rejection)
+        INVENTORY("inventory", "status_conflict"), // in-memory CAS claim: the seat's status is no longer AVAILABLE
+        LOCK("lock", "lock_conflict"),             // Redis multi-seat lock
+        PERSIST("persist", "optimistic_lock"),     // waiting for the write-behind batch (queue + commit)
+        QUEUE("writebehind_queue", null),          // time a claim sat in the write-behind queue
+        COMMIT("db_commit", "optimistic_lock");    // one Postgres transaction (conditional UPDATE + outbox)
+
+        private final String tag;
+        private final String conflictReason; // what a SeatBookedException in this stage means
+
+        Stage(String tag, String conflictReason) {
+            this.tag = tag;
+            this.conflictReason = conflictReason;
+        }
+    }
+
+    private static final String[] OUTCOMES = {"success", "rejected", "error"};
+    private static final String[] REASONS = {"status_conflict", "lock_conflict", "optimistic_lock"};
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Stage, Timer[]> timers = new EnumMap<>(Stage.class); // by outcome index
+    private final Map<String, Counter> rejections = new ConcurrentHashMap<>();
+    // Rejections already counted by an inner stage (Throwable equality is identity; weak: no leak)
+    private final Set<Throwable> counted = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+    private final DistributionSummary seatsPerRequest;
+    private final DistributionSummary batchSize;
+    private final MultiGauge contention;
+
+    // Contention window: attempts / conflicts per event since the last publish
+    private final Map<Long, LongAdder[]> window = new ConcurrentHashMap<>();
+    private volatile int contendedEvents;
+
+    @Value("${ticketvelo.metrics.contention-top-events:10}")
+    private int topEvents;
+
+    public BookingMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        for (Stage stage : Stage.values()) {
+            Timer[] byOutcome = new Timer[OUTCOMES.length];
+            for (int o = 0; o < OUTCOMES.length; o++) {
+                byOutcome[o] = Timer.builder("ticketvelo.booking.stage")
+                        .description("Time spent in one stage of the booking pipeline")
+                        .tags("stage", stage.tag, "outcome", OUTCOMES[o])
+                        .publishPercentileHistogram()
+                        .minimumExpectedValue(Duration.ofMillis(1))  // bounds the bucket count
+                        .maximumExpectedValue(Duration.ofSeconds(10))
+                        .register(meterRegistry);
+            }
+            timers.put(stage, byOutcome);
+        }
+        for (String reason : REASONS) {
+            rejections.put(reason, Counter.builder("ticketvelo.booking.rejected")
+                    .description("Bookings rejected, by the check that rejected them")
+                    .tag("reason", reason)
+                    .register(meterRegistry));
+        }
+        this.seatsPerRequest = DistributionSummary.builder("ticketvelo.booking.seats.per.request")
+                .description("Seats asked for per booking request")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1.0)
+                .maximumExpectedValue(64.0)
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("ticketvelo.booking.writebehind.batch.size")
+                .description("Claims committed per write-behind transaction")
+                .register(meterRegistry);
+        this.contention = MultiGauge.builder("ticketvelo.booking.contention")
+                .description("Share of booking attempts rejected by a conflict, top contended events of the last window")
+                .register(meterRegistry);
+        Gauge.builder("ticketvelo.booking.contended.events", this, metrics -> metrics.contendedEvents)
+                .description("Events with at least one conflict in the last window")
+                .register(meterRegistry);
+    }
+
+    public void requested(Long eventId, int seats) {
+        seatsPerRequest.record(seats);
+        tally(eventId)[0].increment();
+    }
+
+    // Times one stage; a SeatBookedException is counted as that stage's kind of conflict. Stages nest
+    // (TOTAL around the rest, PERSIST around the sequencer's INVENTORY), so a rejection is counted
+    // once, by the innermost stage that has a reason for it.
+    public <T> T time(Stage stage, Long eventId, Supplier<T> work) {
+        long start = System.nanoTime();
+        int outcome = 2;
+        try {
+            T result = work.get();
+            outcome = 0;
+            return result;
+        } catch (SeatBookedException | OptimisticLockingFailureException e) {
+            outcome = 1;
+            String reason = stage.conflictReason == null ? null
+                    : e instanceof OptimisticLockingFailureException ? "optimistic_lock" : stage.conflictReason;
+            if (reason != null && counted.add(e)) {
+                rejections.get(reason).increment();
+                if (eventId != null) tally(eventId)[1].increment();
+            }
+            throw e;
+        } catch (TicketVeloException e) {
+            if (e.getStatus().is4xxClientError()) outcome = 1;
+            throw e;
+        } finally {
+            timers.get(stage)[outcome].record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void record(Stage stage, boolean success, long nanos) {
+        timers.get(stage)[success ? 0 : 2].record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    // Meters for one BookingStrategy, tagged strategy=<name>; each strategy asks once, at construction
+    public StrategyMeters strategy(String name) {
+        return new StrategyMeters(name);
+    }
+
+    public void batchCommitted(int claims) {
+        batchSize.record(claims);
+    }
+
+    private LongAdder[] tally(Long eventId) {
+        return window.computeIfAbsent(eventId, id -> new LongAdder[]{new LongAdder(), new LongAdder()});
+    }
+
+    // Publish the top contended events of the window that just ended, then start a new one
+    @Scheduled(fixedDelayString = "${ticketvelo.metrics.contention-window-ms:10000}")
+    public void publishContention() {
+        List<Map.Entry<Long, double[]>> contended = new ArrayList<>();
+        for (Long eventId : window.keySet()) {
+            LongAdder[] counts = window.remove(eventId);
+            long attempts = counts[0].sum();
+            long conflicts = counts[1].sum();
+            if (conflicts > 0) contended.add(Map.entry(eventId, new double[]{conflicts, Math.max(attempts, conflicts)}));
+        }
+        contendedEvents = contended.size();
+
+        contended.sort(Comparator.comparingDouble((Map.Entry<Long, double[]> e) -> e.getValue()[0]).reversed());
+        List<MultiGauge.Row<?>> rows = new ArrayList<>();
+        for (Map.Entry<Long, double[]> entry : contended.subList(0, Math.min(topEvents, contended.size()))) {
+            double ratio = entry.getValue()[0] / entry.getValue()[1];
+            rows.add(MultiGauge.Row.of(Tags.of("event", String.valueOf(entry.getKey())), ratio));
+        }
+        contention.register(rows, true); // overwrite: events that dropped out of the top N disappear
+    }
+
+    /**
+     * Per-strategy latency (whole strategy call, by outcome), conflicts and retries, so strategies
+     * can be compared on measured contention. Per-event contention stays with the stage timers.
+     */
+    public final class StrategyMeters {
+
+        private final Timer[] timers = new Timer[OUTCOMES.length];
+        private final Counter conflicts;
+        private final Counter retries;
+
+        private StrategyMeters(String strategy) {
+            for (int o = 0; o < OUTCOMES.length; o++) {
+                timers[o] = Timer.builder("ticketvelo.booking.strategy.duration")
+                        .description("Time a booking strategy took to claim a booking's seats in Postgres")
+                        .tags("strategy", strategy, "outcome", OUTCOMES[o])
+                        .publishPercentileHistogram()
+                        .minimumExpectedValue(Duration.ofMillis(1))
+                        .maximumExpectedValue(Duration.ofSeconds(10))
+                        .register(meterRegistry);
+            }
+            this.conflicts = Counter.builder("ticketvelo.booking.strategy.conflicts")
+                    .description("Bookings a strategy rejected because a seat was taken or changed concurrently")
+                    .tag("strategy", strategy)
+                    .register(meterRegistry);
+            this.retries = Counter.builder("ticketvelo.booking.strategy.retries")
+                    .description("Attempts a strategy retried after losing a race it could recover from")
+                    .tag("strategy", strategy)
+                    .register(meterRegistry);
+        }
+
+        public <T> T time(Supplier<T> work) {
+            long start = System.nanoTime();
+            int outcome = 2;
+            try {
+                T result = work.get();
+                outcome = 0;
+                return result;
+            } catch (SeatBookedException | OptimisticLockingFailureException e) {
+                outcome = 1;
+                conflicts.increment();
+                throw e;
+            } catch (TicketVeloException e) {
+                if (e.getStatus().is4xxClientError()) outcome = 1;
+                throw e;
+            } finally {
+                timers[outcome].record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        public void retried() {
+            retries.increment();
+        }
+    }
+}
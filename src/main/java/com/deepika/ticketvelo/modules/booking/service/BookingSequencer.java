@@ -0,0 +1,204 @@
+package com.deepika.ticketvelo.modules.booking.service;
+
+import com.deepika.ticketvelo.common.exception.TicketVeloException;
+import com.deepika.ticketvelo.modules.booking.model.TicketView;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Optional single-writer booking mode (ticketvelo.sequencer.enabled=true).
+ *
+ * Events are hashed onto a fixed set of partitions. Each partition has a bounded ring buffer and
+ * ONE writer thread, so all bookings for an event are decided sequentially in memory (no Redis
+ * locks, no optimistic retries) and every drained batch is committed in a single transaction.
+ * HTTP threads just enqueue and wait for their completion.
+ *
+ * A request whose caller stops waiting (await-timeout-ms) before its writer got to it is withdrawn
+ * and answered with a retryable 503: nothing was booked. Once a writer has taken it, the caller
+ * waits for the outcome, so a timed-out request can never commit behind the client's back.
+ *
+ * Correctness does not depend on routing: the conditional UPDATE in Postgres still rejects a seat
+ * that another node booked, and the writer then resyncs that event's inventory.
+ */
+@Component
+@ConditionalOnProperty(name = "ticketvelo.sequencer.enabled", havingValue = "true")
+public class BookingSequencer {
+
+    private final SeatInventory seatInventory;
+    private final TicketWriteBehind ticketWriteBehind;
+    private final BookingMetrics metrics;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${ticketvelo.sequencer.partitions:8}")
+    private int partitionCount;
+
+    @Value("${ticketvelo.sequencer.queue-capacity:4096}")
+    private int queueCapacity;
+
+    @Value("${ticketvelo.sequencer.max-batch:512}")
+    private int maxBatch;
+
+    @Value("${ticketvelo.sequencer.await-timeout-ms:10000}")
+    private long awaitTimeoutMillis;
+
+    private Partition[] partitions;
+    private DistributionSummary batchSizes;
+
+    public BookingSequencer(SeatInventory seatInventory, TicketWriteBehind ticketWriteBehind, BookingMetrics metrics,
+                            MeterRegistry meterRegistry) {
+        this.seatInventory = seatInventory;
+        this.ticketWriteBehind = ticketWriteBehind;
+        this.metrics = metrics;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void start() {
+        batchSizes = DistributionSummary.builder("ticketvelo.sequencer.batch.size")
+                .description("Bookings committed per transaction by a partition writer")
+                .register(meterRegistry);
+
+        partitions = new Partition[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            Partition partition = new Partition(new ArrayBlockingQueue<>(queueCapacity));
+            Gauge.builder("ticketvelo.sequencer.queue.depth", partition.queue, BlockingQueue::size)
+                    .description("Bookings waiting in a partition's ring buffer")
+                    .tag("partition", String.valueOf(i))
+                    .register(meterRegistry);
+
+            partition.writer = new Thread(() -> runWriter(partition), "booking-sequencer-" + i);
+            partition.writer.setDaemon(true);
+            partition.writer.start();
+            partitions[i] = partition;
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        for (Partition partition : partitions) partition.writer.interrupt();
+    }
+
+    // Called on the HTTP thread: enqueue, then wait for the partition writer's verdict
+    public List<TicketView> book(Long eventId, List<Long> sortedSeatIds, Long userId) {
+        Request request = new Request(eventId, sortedSeatIds, userId, new AtomicBoolean(), new CompletableFuture<>());
+        Partition partition = partitions[Math.floorMod(Long.hashCode(eventId), partitions.length)];
+
+        if (!partition.queue.offer(request)) {
+            throw new TicketVeloException("Booking queue is full, please retry.", HttpStatus.SERVICE_UNAVAILABLE);
+        }
+
+        try {
+            return await(request);
+        } catch (TimeoutException e) {
+            // Still queued: withdraw it, so the writer skips it and the client's retry isn't up against its own booking
+            if (request.taken().compareAndSet(false, true)) {
+                throw new TicketVeloException("Booking timed out in the queue; nothing was booked, please retry.",
+                        HttpStatus.SERVICE_UNAVAILABLE);
+            }
+        }
+        // A writer already has it: its transaction decides (and always completes the future), so wait for that
+        try {
+            return request.result().get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw new CompletionException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TicketVeloException("Booking interrupted.", HttpStatus.SERVICE_UNAVAILABLE);
+        }
+    }
+
+    private List<TicketView> await(Request request) throws TimeoutException {
+        try {
+            return request.result().get(awaitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw new CompletionException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TicketVeloException("Booking interrupted.", HttpStatus.SERVICE_UNAVAILABLE);
+        }
+    }
+
+    private void runWriter(Partition partition) {
+        List<Request> drained = new ArrayList<>(maxBatch);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                drained.add(partition.queue.take()); // Block for the first one...
+                partition.queue.drainTo(drained, maxBatch - 1); // ...then grab whatever piled up meanwhile
+                process(drained);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                // Never let one bad batch kill the partition
+                drained.forEach(request -> request.result().completeExceptionally(e));
+            } finally {
+                drained.clear();
+            }
+        }
+    }
+
+    private void process(List<Request> drained) {
+        // 1. Decide conflicts in memory (single writer per event, so this never contends)
+        List<TicketWriteBehind.PendingClaim> accepted = new ArrayList<>(drained.size());
+        for (Request request : drained) {
+            if (!request.taken().compareAndSet(false, true)) continue; // withdrawn by its caller (timed out)
+            SeatInventory.Claim claim;
+            try {
+                claim = metrics.time(BookingMetrics.Stage.INVENTORY, request.eventId(),
+                        () -> seatInventory.claim(request.eventId(), request.seatIds(), request.userId()));
+            } catch (RuntimeException rejected) {
+                request.result().completeExceptionally(rejected);
+                continue;
+            }
+
+            CompletableFuture<Void> committed = new CompletableFuture<>();
+            committed.whenComplete((ignored, failure) -> {
+                if (failure == null) {
+                    request.result().complete(claim.toTicketViews(request.userId()));
+                } else {
+                    seatInventory.release(claim);
+                    request.result().completeExceptionally(failure);
+                }
+            });
+            accepted.add(new TicketWriteBehind.PendingClaim(claim, request.userId(), committed));
+        }
+
+        // 2. Group commit: every accepted booking in one transaction
+        if (!accepted.isEmpty()) {
+            batchSizes.record(accepted.size());
+            ticketWriteBehind.writeBatch(accepted);
+        }
+    }
+
+    // taken: set once, by the writer that processes it or by the caller withdrawing it
+    private record Request(Long eventId, List<Long> seatIds, Long userId, AtomicBoolean taken,
+                           CompletableFuture<List<TicketView>> result) {}
+
+    private static final class Partition {
+        final BlockingQueue<Request> queue; // ArrayBlockingQueue: a bounded ring buffer
+        Thread writer;
+
+        Partition(BlockingQueue<Request> queue) {
+            this.queue = queue;
+        }
+    }
+}
@@ -1,114 +1,119 @@
 package com.deepika.ticketvelo.modules.booking.service;
 
-import com.deepika.ticketvelo.modules.booking.model.Ticket;
+import com.deepika.ticketvelo.common.concurrency.ConcurrencyLimits;
+import com.deepika.ticketvelo.common.exception.TicketVeloException;
+import com.deepika.ticketvelo.modules.booking.model.SeatLayoutView;
+import com.deepika.ticketvelo.modules.booking.model.SeatMapView;
+import com.deepika.ticketvelo.modules.booking.model.TicketView;
 import com.deepika.ticketvelo.modules.booking.repository.TicketRepository;
-import org.springframework.data.redis.core.StringRedisTemplate;
+import com.deepika.ticketvelo.modules.booking.service.BookingMetrics.Stage;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-import org.springframework.kafka.core.KafkaTemplate;
-import com.deepika.ticketvelo.common.exception.SeatBookedException;
-import com.deepika.ticketvelo.common.exception.ResourceNotFoundException;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
 
 @Service
 public class BookingService {
 
     private final TicketRepository ticketRepository;
-    private final StringRedisTemplate redisTemplate; // Native Redis Tool
-    private final KafkaTemplate<String, String> kafkaTemplate; // 1. Inject Kafka
-
-    public BookingService(TicketRepository ticketRepository, StringRedisTemplate redisTemplate, KafkaTemplate<String, String> kafkaTemplate) {
+    private final SeatInventory seatInventory;
+    private final BookingStrategies bookingStrategies;
+    private final TransactionTemplate readOnlyTransaction; // may be served by a read replica
+    private final BookingSequencer bookingSequencer; // null unless ticketvelo.sequencer.enabled
+    private final ConcurrencyLimits concurrencyLimits;
+    private final BookingMetrics metrics;
+
+    @Value("${ticketvelo.inventory.enabled:true}")
+    private boolean inventoryEnabled;
+
+    public BookingService(TicketRepository ticketRepository, SeatInventory seatInventory, BookingStrategies bookingStrategies,
+                          TransactionTemplate transactionTemplate, ObjectProvider<BookingSequencer> bookingSequencer,
+                          ConcurrencyLimits concurrencyLimits, BookingMetrics metrics) {
         this.ticketRepository = ticketRepository;
-        this.redisTemplate = redisTemplate;
-        this.kafkaTemplate = kafkaTemplate;
+        this.seatInventory = seatInventory;
+        this.bookingStrategies = bookingStrategies;
+        this.readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransaction.setReadOnly(true);
+        this.bookingSequencer = bookingSequencer.getIfAvailable();
+        this.concurrencyLimits = concurrencyLimits;
+        this.metrics = metrics;
     }
 
-    public List<Ticket> bookTickets(Long eventId, List<Long> seatIds, Long userId) {
-        List<Long> sortedSeatIds = new ArrayList<>(seatIds);
-        Collections.sort(sortedSeatIds);
-        List<String> acquiredLocks = new ArrayList<>();
-
-        try {
-            // 1. Try to Lock ALL seats first
-            for (Long seatId : sortedSeatIds) {
-                String lockKey = "lock:event:" + eventId + ":seat:" + seatId;
+    public List<TicketView> bookTickets(Long eventId, List<Long> seatIds, Long userId) {
+        metrics.requested(eventId, seatIds.size());
+        return metrics.time(Stage.TOTAL, eventId, () -> {
+            List<Long> sortedSeatIds = new ArrayList<>(seatIds);
+            Collections.sort(sortedSeatIds);
 
-                Boolean lockAcquired = redisTemplate.opsForValue()
-                        .setIfAbsent(lockKey, "LOCKED", Duration.ofSeconds(5)); // 5s lock
+            // No inventory: the event's strategy goes straight to the database
+            if (!inventoryEnabled) return bookingStrategies.forEvent(eventId).book(eventId, sortedSeatIds, userId, null);
 
-                if (Boolean.FALSE.equals(lockAcquired)) {
-                    throw new SeatBookedException("Seat " + seatId + " is currently selected by another user.");
-                }
-                acquiredLocks.add(lockKey);
+            // Sequencer mode: hand off to the event's single writer (no Redis locks at all)
+            if (bookingSequencer != null) {
+                return metrics.time(Stage.PERSIST, eventId, () -> bookingSequencer.book(eventId, sortedSeatIds, userId));
             }
 
-            // 2. All locks acquired! Proceed to DB transaction
-            return processBookingBatch(eventId, seatIds, userId);
+            // 0. Reject taken seats from memory, before any Redis or DB work
+            SeatInventory.Claim claim = metrics.time(Stage.INVENTORY, eventId,
+                    () -> seatInventory.claim(eventId, sortedSeatIds, userId));
+            return confirmClaim(claim, userId);
+        });
+    }
+
+    // Best available: the server picks `quantity` adjacent seats (in `section`, or anywhere if null)
+    public List<TicketView> bookBestAvailable(Long eventId, String section, int quantity, Long userId) {
+        requireInventory();
+        if (quantity < 1) throw new TicketVeloException("Quantity must be at least 1", HttpStatus.BAD_REQUEST);
+        metrics.requested(eventId, quantity);
+        return metrics.time(Stage.TOTAL, eventId, () -> {
+            SeatInventory.Claim claim = metrics.time(Stage.INVENTORY, eventId,
+                    () -> seatInventory.claimBestAvailable(eventId, section, quantity, userId));
+            return confirmClaim(claim, userId);
+        });
+    }
 
+    // Persists the in-memory claim with the event's booking strategy; gives the claim back if that fails
+    private List<TicketView> confirmClaim(SeatInventory.Claim claim, Long userId) {
+        Long eventId = claim.getEventId();
+        boolean confirmed = false;
+        try {
+            // Other nodes have their own inventory: the strategy settles races between them
+            List<TicketView> booked = bookingStrategies.forEvent(eventId)
+                    .book(eventId, claim.getSeatIds(), userId, claim); // ordinal order = seat-id order
+            confirmed = true;
+            return booked;
         } finally {
-            // 3. Always cleanup locks
-            for (String key : acquiredLocks) {
-                redisTemplate.delete(key);
-            }
+            if (!confirmed) seatInventory.release(claim);
         }
     }
 
-    @Transactional
-    protected List<Ticket> processBookingBatch(Long eventId, List<Long> seatIds, Long userId) {
-        List<Ticket> bookedTickets = new ArrayList<>();
-
-        for (Long seatId : seatIds) {
-            Optional<Ticket> ticketOptional = ticketRepository.findByEventIdAndSeatId(eventId, seatId);
-
-            if (ticketOptional.isEmpty()) throw new ResourceNotFoundException("Ticket not found: " + seatId);
-
-            Ticket ticket = ticketOptional.get();
-            if (!"AVAILABLE".equals(ticket.getStatus())) {
-                throw new SeatBookedException("One of the seats is already taken!");
-            }
+    // Seat map for an event (served from memory when the inventory is on)
+    public List<TicketView> getTicketsForEvent(Long eventId) {
+        if (inventoryEnabled) return seatInventory.getTickets(eventId);
 
-            ticket.setStatus("BOOKED");
-            ticket.setUserId(userId);
-            bookedTickets.add(ticketRepository.save(ticket));
-
-            // Send Kafka Event (Simulated)
-            String message = "Ticket Confirmed: " + ticket.getId() + " for User " + userId;
-            kafkaTemplate.send("ticket-updates", message);
-        }
-
-        return bookedTickets;
+        return concurrencyLimits.withDatabase(() -> readOnlyTransaction.execute(status -> ticketRepository.findSeatRowsByEventId(eventId)))
+                .stream().map(TicketView::of).toList();
     }
 
-    @Transactional
-    protected Ticket processBooking(Long eventId, Long seatId, Long userId) {
-        Optional<Ticket> ticketOptional = ticketRepository.findByEventIdAndSeatId(eventId, seatId);
-
-        if (ticketOptional.isEmpty()) {
-            throw new RuntimeException("Ticket not found!");
-        }
+    // Compact, versioned seat map (needs the in-memory inventory)
+    public SeatMapView getSeatMap(Long eventId, Long sinceVersion) {
+        requireInventory();
+        return seatInventory.getSeatMap(eventId, sinceVersion);
+    }
 
-        Ticket ticket = ticketOptional.get();
+    public SeatLayoutView getSeatLayout(Long eventId) {
+        requireInventory();
+        return seatInventory.getLayout(eventId);
+    }
 
-        if (!"AVAILABLE".equals(ticket.getStatus())) {
-            throw new RuntimeException("Ticket is already booked!");
+    private void requireInventory() {
+        if (!inventoryEnabled) {
+            throw new TicketVeloException("This endpoint requires ticketvelo.inventory.enabled", HttpStatus.NOT_IMPLEMENTED);
         }
-
-        ticket.setStatus("BOOKED");
-        ticket.setUserId(userId);
-
-        Ticket savedTicket = ticketRepository.save(ticket);
-
-        // 2. Fire an event to Kafka
-        // Message Format: "TicketID:UserEmail"
-        String message = "Ticket Confirmed: " + savedTicket.getId() + " for User " + userId;
-        kafkaTemplate.send("ticket-updates", message);
-        System.out.println("Event published to Kafka: " + message);
-
-        return savedTicket;
     }
-}
\ No newline at end of file
+}
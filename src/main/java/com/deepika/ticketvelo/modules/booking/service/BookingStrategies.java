@@ -0,0 +1,59 @@
+package com.deepika.ticketvelo.modules.booking.service;
+
+import com.deepika.ticketvelo.common.exception.TicketVeloException;
+import com.deepika.ticketvelo.modules.catalog.model.Event;
+import com.deepika.ticketvelo.modules.catalog.repository.EventRepository;
+import com.deepika.ticketvelo.modules.catalog.service.CatalogCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Picks the BookingStrategy for an event: events.booking_strategy if set, otherwise
+ * ticketvelo.booking.default-strategy. The event is read through the catalog cache, so the lookup
+ * costs nothing on the booking path, and a change made through the admin API (which invalidates
+ * the catalog) reaches every node within the catalog's generation poll.
+ */
+@Component
+public class BookingStrategies {
+
+    private final Map<String, BookingStrategy> byName = new LinkedHashMap<>();
+    private final BookingStrategy defaultStrategy;
+    private final CatalogCache catalogCache;
+    private final EventRepository eventRepository;
+
+    public BookingStrategies(List<BookingStrategy> strategies, CatalogCache catalogCache, EventRepository eventRepository,
+                             @Value("${ticketvelo.booking.default-strategy:" + RedisLockBookingStrategy.NAME + "}") String defaultName) {
+        for (BookingStrategy strategy : strategies) byName.put(strategy.name(), strategy);
+        this.catalogCache = catalogCache;
+        this.eventRepository = eventRepository;
+        this.defaultStrategy = byName.get(defaultName);
+        if (defaultStrategy == null) {
+            throw new IllegalStateException("Unknown ticketvelo.booking.default-strategy '" + defaultName + "', expected one of " + names());
+        }
+    }
+
+    public BookingStrategy forEvent(Long eventId) {
+        Event event = catalogCache.get("event:" + eventId, Event.class, () -> eventRepository.findById(eventId).orElse(null));
+        if (event == null || event.getBookingStrategy() == null) return defaultStrategy;
+        BookingStrategy strategy = byName.get(event.getBookingStrategy());
+        return strategy == null ? defaultStrategy : strategy; // e.g. a name written straight into the table
+    }
+
+    // Validates a name from an API request; null means "use the default"
+    public String require(String name) {
+        if (name != null && !byName.containsKey(name)) {
+            throw new TicketVeloException("Unknown booking strategy '" + name + "', expected one of " + names(), HttpStatus.BAD_REQUEST);
+        }
+        return name;
+    }
+
+    public Set<String> names() {
+        return byName.keySet();
+    }
+}
@@ -0,0 +1,25 @@
+package com.deepika.ticketvelo.modules.booking.service;
+
+import com.deepika.ticketvelo.modules.booking.model.TicketView;
+
+import java.util.List;
+
+/**
+ * How a booking's seats are claimed in Postgres, once the in-memory inventory (when on) has
+ * accepted them. Chosen per event (events.booking_strategy, else ticketvelo.booking.default-strategy)
+ * by BookingStrategies; the sequencer, when enabled, replaces this step for every event.
+ *
+ * Implementations book every seat or none, and signal a lost race with SeatBookedException.
+ */
+public interface BookingStrategy {
+
+    // The value stored in events.booking_strategy, e.g. "redis-lock"
+    String name();
+
+    /**
+     * Books the seats (sorted by seat id) for the user and returns the booked tickets.
+     * {@code claim} is the in-memory claim already held for these seats, or null when the
+     * inventory is off; the caller releases it if this throws.
+     */
+    List<TicketView> book(Long eventId, List<Long> sortedSeatIds, Long userId, SeatInventory.Claim claim);
+}
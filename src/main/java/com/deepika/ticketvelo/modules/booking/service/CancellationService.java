@@ -0,0 +1,128 @@
+package com.deepika.ticketvelo.modules.booking.service;
+
+import com.deepika.ticketvelo.common.concurrency.ConcurrencyLimits;
+import com.deepika.ticketvelo.common.exception.ResourceNotFoundException;
+import com.deepika.ticketvelo.common.exception.SeatBookedException;
+import com.deepika.ticketvelo.modules.booking.model.CancellationView;
+import com.deepika.ticketvelo.modules.booking.model.TicketSeatRow;
+import com.deepika.ticketvelo.modules.booking.model.TicketView;
+import com.deepika.ticketvelo.modules.booking.repository.TicketRepository;
+import com.deepika.ticketvelo.modules.booking.repository.WaitlistRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Cancelling booked tickets: one ticket, a user's whole order for an event (every ticket they
+ * booked for it), or every booked seat of a section (admin).
+ *
+ * If the event has anyone on its waitlist, the seats don't go back on sale: they are held under a
+ * release hold ("<eventId>-release-<uuid>", LOCKED with no owner) for release-hold-ms and handed
+ * to WaitlistMatcher, which gives them to waiting users in arrival order and puts the rest on sale.
+ * Should the matcher not get to them in time, the hold simply expires like any other.
+ */
+@Service
+public class CancellationService {
+
+    private static final String WAITING = "WAITING";
+
+    private final TicketRepository ticketRepository;
+    private final WaitlistRepository waitlistRepository;
+    private final SeatInventory seatInventory;
+    private final WaitlistMatcher waitlistMatcher;
+    private final TicketUpdatePublisher ticketUpdatePublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ConcurrencyLimits concurrencyLimits;
+    private final Counter ticketCancels;
+    private final Counter orderCancels;
+    private final Counter sectionReleases;
+
+    @Value("${ticketvelo.waitlist.release-hold-ms:30000}")
+    private long releaseHoldMillis;
+
+    @Value("${ticketvelo.cancellation.batch-size:1000}")
+    private int batchSize;
+
+    public CancellationService(TicketRepository ticketRepository, WaitlistRepository waitlistRepository, SeatInventory seatInventory,
+                               WaitlistMatcher waitlistMatcher, TicketUpdatePublisher ticketUpdatePublisher,
+                               TransactionTemplate transactionTemplate, ConcurrencyLimits concurrencyLimits,
+                               MeterRegistry meterRegistry) {
+        this.ticketRepository = ticketRepository;
+        this.waitlistRepository = waitlistRepository;
+        this.seatInventory = seatInventory;
+        this.waitlistMatcher = waitlistMatcher;
+        this.ticketUpdatePublisher = ticketUpdatePublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.concurrencyLimits = concurrencyLimits;
+        this.ticketCancels = cancelledTickets(meterRegistry, "ticket");
+        this.orderCancels = cancelledTickets(meterRegistry, "order");
+        this.sectionReleases = cancelledTickets(meterRegistry, "section");
+    }
+
+    private static Counter cancelledTickets(MeterRegistry meterRegistry, String scope) {
+        return Counter.builder("ticketvelo.cancellation.tickets").tag("scope", scope)
+                .description("Booked tickets cancelled, by what was cancelled").register(meterRegistry);
+    }
+
+    // The user's order for an event: every ticket they have booked for it
+    public List<TicketView> getOrder(Long eventId, Long userId) {
+        return concurrencyLimits.withDatabase(() -> ticketRepository.findBookedRowsByEventIdAndUserId(eventId, userId, null))
+                .stream().map(TicketView::of).toList();
+    }
+
+    public CancellationView cancelTicket(Long eventId, Long ticketId, Long userId) {
+        return cancel(eventId, userId, ticketCancels, () -> ticketRepository.findBookedRowsByEventIdAndUserId(eventId, userId, ticketId));
+    }
+
+    public CancellationView cancelOrder(Long eventId, Long userId) {
+        return cancel(eventId, userId, orderCancels, () -> ticketRepository.findBookedRowsByEventIdAndUserId(eventId, userId, null));
+    }
+
+    public CancellationView releaseSection(Long eventId, String section) {
+        return cancel(eventId, null, sectionReleases, () -> ticketRepository.findBookedRowsByEventIdAndSection(eventId, section));
+    }
+
+    // One transaction: find the booked tickets in scope, cancel them all (or none), outbox
+    private CancellationView cancel(Long eventId, Long userId, Counter cancelledTickets, Supplier<List<TicketSeatRow>> bookedTickets) {
+        Cancelled cancelled = concurrencyLimits.withDatabase(() -> transactionTemplate.execute(status -> {
+            List<TicketSeatRow> rows = bookedTickets.get();
+            if (rows.isEmpty()) throw new ResourceNotFoundException("No booked tickets to cancel for event " + eventId);
+
+            boolean waitlisted = waitlistRepository.existsByEventIdAndStatus(eventId, WAITING);
+            String holdId = waitlisted ? eventId + "-release-" + UUID.randomUUID() : null;
+            Instant heldUntil = waitlisted ? Instant.now().plusMillis(releaseHoldMillis) : null;
+            List<Long> ticketIds = rows.stream().map(TicketSeatRow::ticketId).toList();
+
+            int count = 0;
+            for (int from = 0; from < ticketIds.size(); from += batchSize) { // bounded IN lists for big sections
+                count += ticketRepository.cancelTickets(eventId, ticketIds.subList(from, Math.min(from + batchSize, ticketIds.size())),
+                        waitlisted ? "LOCKED" : "AVAILABLE", holdId, heldUntil);
+            }
+            if (count != rows.size()) {
+                // Someone else cancelled one of them first: roll back, so the caller can simply retry
+                throw new SeatBookedException("The tickets changed while cancelling, please try again.");
+            }
+            ticketUpdatePublisher.ticketsCancelled(eventId, userId, holdId, ticketIds, rows.stream().map(TicketSeatRow::seatId).toList());
+            return new Cancelled(rows, holdId, heldUntil);
+        }));
+
+        // Committed: update memory (ours, and through SeatInventorySync every other node's), then offer the seats to the waitlist
+        List<Long> seatIds = cancelled.rows().stream().map(TicketSeatRow::seatId).toList();
+        long heldUntilMillis = cancelled.heldUntil() == null ? 0L : cancelled.heldUntil().toEpochMilli();
+        seatInventory.returnSeats(eventId, seatIds, cancelled.holdId(), heldUntilMillis);
+        if (cancelled.holdId() != null) waitlistMatcher.offer(eventId, cancelled.holdId(), heldUntilMillis, cancelled.rows());
+
+        cancelledTickets.increment(cancelled.rows().size());
+        return new CancellationView(eventId, cancelled.rows().stream().map(TicketSeatRow::ticketId).toList(), seatIds,
+                cancelled.holdId() != null);
+    }
+
+    private record Cancelled(List<TicketSeatRow> rows, String holdId, Instant heldUntil) {}
+}
@@ -0,0 +1,34 @@
+package com.deepika.ticketvelo.modules.booking.service;
+
+import com.deepika.ticketvelo.common.exception.TicketVeloException;
+import org.springframework.http.HttpStatus;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+// Retry delay with "full jitter": uniform in [0, min(max, base * 2^retry)], so clients that lost
+// the same race don't all come back at the same instant and collide again
+final class JitteredBackoff {
+
+    private final long baseMillis;
+    private final long maxMillis;
+
+    JitteredBackoff(long baseMillis, long maxMillis) {
+        this.baseMillis = baseMillis;
+        this.maxMillis = maxMillis;
+    }
+
+    // retry = 0 before the first retry
+    long delayMillis(int retry) {
+        long cap = Math.min(maxMillis, baseMillis << Math.min(retry, 20));
+        return ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+
+    void pause(int retry) {
+        try {
+            Thread.sleep(delayMillis(retry));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TicketVeloException("Interrupted while retrying the booking", HttpStatus.SERVICE_UNAVAILABLE);
+        }
+    }
+}
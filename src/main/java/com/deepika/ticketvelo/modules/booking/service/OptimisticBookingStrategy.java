@@ -0,0 +1,117 @@
+package com.deepika.ticketvelo.modules.booking.service;
+
+import com.deepika.ticketvelo.common.concurrency.ConcurrencyLimits;
+import com.deepika.ticketvelo.common.exception.ResourceNotFoundException;
+import com.deepika.ticketvelo.common.exception.SeatBookedException;
+import com.deepika.ticketvelo.modules.booking.model.Ticket;
+import com.deepika.ticketvelo.modules.booking.model.TicketView;
+import com.deepika.ticketvelo.modules.booking.repository.TicketRepository;
+import com.deepika.ticketvelo.modules.booking.service.BookingMetrics.Stage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * "optimistic": no Redis at all. Reads the tickets, checks they are bookable and writes them back;
+ * Ticket's @Version turns each write into UPDATE ... WHERE version = ?, so a concurrent change
+ * (another booking, a hold) makes the flush fail and the whole transaction roll back. The booking
+ * is then re-read and retried, up to ticketvelo.booking.max-attempts, after a jittered backoff.
+ *
+ * Cheapest when seats are rarely contended (one round trip fewer than redis-lock, no Redis to run);
+ * under a hot-seat rush most of the work ends in retries.
+ */
+@Component
+public class OptimisticBookingStrategy implements BookingStrategy {
+
+    public static final String NAME = "optimistic";
+
+    private final TicketRepository ticketRepository;
+    private final TicketUpdatePublisher ticketUpdatePublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ConcurrencyLimits concurrencyLimits;
+    private final BookingMetrics metrics;
+    private final BookingMetrics.StrategyMeters meters;
+    private final JitteredBackoff backoff;
+
+    @Value("${ticketvelo.booking.max-attempts:4}")
+    private int maxAttempts;
+
+    public OptimisticBookingStrategy(TicketRepository ticketRepository, TicketUpdatePublisher ticketUpdatePublisher,
+                                     TransactionTemplate transactionTemplate, ConcurrencyLimits concurrencyLimits,
+                                     BookingMetrics metrics,
+                                     @Value("${ticketvelo.booking.retry-base-ms:5}") long retryBaseMillis,
+                                     @Value("${ticketvelo.booking.retry-max-ms:100}") long retryMaxMillis) {
+        this.ticketRepository = ticketRepository;
+        this.ticketUpdatePublisher = ticketUpdatePublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.concurrencyLimits = concurrencyLimits;
+        this.metrics = metrics;
+        this.meters = metrics.strategy(NAME);
+        this.backoff = new JitteredBackoff(retryBaseMillis, retryMaxMillis);
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public List<TicketView> book(Long eventId, List<Long> sortedSeatIds, Long userId, SeatInventory.Claim claim) {
+        return meters.time(() -> {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    return metrics.time(Stage.COMMIT, eventId, () -> attempt(eventId, sortedSeatIds, userId));
+                } catch (OptimisticLockingFailureException e) {
+                    // A seat changed between our read and our write: back off, re-read and decide again
+                    if (attempt >= maxAttempts) {
+                        throw new SeatBookedException("The seats changed while booking, please try again.");
+                    }
+                    meters.retried();
+                    backoff.pause(attempt - 1);
+                }
+            }
+        });
+    }
+
+    // One transaction: read, check, write back under the version check, outbox
+    private List<TicketView> attempt(Long eventId, List<Long> seatIds, Long userId) {
+        return concurrencyLimits.withDatabase(() -> transactionTemplate.execute(status -> {
+            List<Ticket> tickets = ticketRepository.findTicketsByEventIdAndSeatIds(eventId, seatIds);
+            if (tickets.size() < new HashSet<>(seatIds).size()) {
+                throw new ResourceNotFoundException("Ticket not found for one of seats: " + seatIds);
+            }
+
+            Instant now = Instant.now();
+            for (Ticket ticket : tickets) {
+                boolean bookable = "AVAILABLE".equals(ticket.getStatus())
+                        || ("LOCKED".equals(ticket.getStatus()) && !ticket.getHeldUntil().isAfter(now)); // expired hold
+                if (!bookable) throw new SeatBookedException("Seat " + ticket.getSeat().getId() + " is already taken!");
+            }
+            if (tickets.size() != seatIds.size()) throw new SeatBookedException("One of the seats is already taken!"); // duplicates
+
+            for (Ticket ticket : tickets) {
+                ticket.setStatus("BOOKED");
+                ticket.setUserId(userId);
+                ticket.setHoldId(null);
+                ticket.setHeldUntil(null);
+            }
+            ticketRepository.flush(); // the version check: 0 rows updated = someone got there first
+
+            List<TicketView> bookedTickets = tickets.stream()
+                    .map(ticket -> new TicketView(ticket.getId(), ticket.getStatus(), userId, new TicketView.SeatView(
+                            ticket.getSeat().getId(), ticket.getSeat().getRowNumber(), ticket.getSeat().getSeatNumber(),
+                            ticket.getSeat().getSection())))
+                    .toList();
+
+            // Kafka Event goes to the outbox, inside this transaction
+            ticketUpdatePublisher.ticketsBooked(eventId, userId, null, bookedTickets.stream().map(TicketView::id).toList(),
+                    bookedTickets.stream().map(ticket -> ticket.seat().id()).toList());
+            return bookedTickets;
+        }));
+    }
+}
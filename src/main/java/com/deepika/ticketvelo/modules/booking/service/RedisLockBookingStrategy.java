@@ -0,0 +1,111 @@
+package com.deepika.ticketvelo.modules.booking.service;
+
+import com.deepika.ticketvelo.common.concurrency.ConcurrencyLimits;
+import com.deepika.ticketvelo.common.exception.ResourceNotFoundException;
+import com.deepika.ticketvelo.common.exception.SeatBookedException;
+import com.deepika.ticketvelo.modules.booking.model.TicketSeatRow;
+import com.deepika.ticketvelo.modules.booking.model.TicketView;
+import com.deepika.ticketvelo.modules.booking.repository.TicketRepository;
+import com.deepika.ticketvelo.modules.booking.service.BookingMetrics.Stage;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * "redis-lock" (the default): lock every seat in Redis first, then write. With the inventory on,
+ * the write goes through the batched write-behind; without it, one conditional UPDATE per booking.
+ * The Redis lock serializes each seat across nodes, so the database rarely sees a conflict.
+ */
+@Component
+public class RedisLockBookingStrategy implements BookingStrategy {
+
+    public static final String NAME = "redis-lock";
+
+    private final SeatLockManager seatLockManager;
+    private final TicketWriteBehind ticketWriteBehind;
+    private final TicketRepository ticketRepository;
+    private final TicketUpdatePublisher ticketUpdatePublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ConcurrencyLimits concurrencyLimits;
+    private final BookingMetrics metrics;
+    private final BookingMetrics.StrategyMeters meters;
+
+    public RedisLockBookingStrategy(SeatLockManager seatLockManager, TicketWriteBehind ticketWriteBehind,
+                                    TicketRepository ticketRepository, TicketUpdatePublisher ticketUpdatePublisher,
+                                    TransactionTemplate transactionTemplate, ConcurrencyLimits concurrencyLimits,
+                                    BookingMetrics metrics) {
+        this.seatLockManager = seatLockManager;
+        this.ticketWriteBehind = ticketWriteBehind;
+        this.ticketRepository = ticketRepository;
+        this.ticketUpdatePublisher = ticketUpdatePublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.concurrencyLimits = concurrencyLimits;
+        this.metrics = metrics;
+        this.meters = metrics.strategy(NAME);
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public List<TicketView> book(Long eventId, List<Long> sortedSeatIds, Long userId, SeatInventory.Claim claim) {
+        return meters.time(() -> {
+            // 1. Lock ALL seats first (single atomic Redis call; other nodes have their own inventory)
+            SeatLockManager.SeatLock lock = metrics.time(Stage.LOCK, eventId, () -> seatLockManager.acquire(eventId, sortedSeatIds));
+            try {
+                if (claim == null) {
+                    // 2. All locks acquired! Proceed to DB transaction
+                    return metrics.time(Stage.COMMIT, eventId, () -> processBookingBatch(eventId, sortedSeatIds, userId));
+                }
+                // 2. Persist through the batched writer and wait for our batch to commit
+                // (the Kafka confirmations are written to the outbox in that same transaction)
+                metrics.time(Stage.PERSIST, eventId, () -> await(ticketWriteBehind.submit(claim, userId)));
+                return claim.toTicketViews(userId);
+
+            } finally {
+                // 3. Always cleanup locks (only the ones we still own)
+                seatLockManager.release(lock);
+            }
+        });
+    }
+
+    // Unwrap the batch writer's failure so the original exception type reaches the controller advice
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+
+    // Claims all seats with ONE conditional UPDATE; a short row count rolls the whole booking back.
+    // (Runs through TransactionTemplate: a self-invoked @Transactional method would get no transaction.)
+    protected List<TicketView> processBookingBatch(Long eventId, List<Long> seatIds, Long userId) {
+        return concurrencyLimits.withDatabase(() -> transactionTemplate.execute(status -> {
+            int claimed = ticketRepository.claimSeats(eventId, seatIds, userId);
+            List<TicketSeatRow> rows = ticketRepository.findSeatRowsByEventIdAndSeatIds(eventId, seatIds);
+
+            if (claimed != seatIds.size()) {
+                // Work out whether a seat is missing or just taken
+                if (rows.size() < new HashSet<>(seatIds).size()) {
+                    throw new ResourceNotFoundException("Ticket not found for one of seats: " + seatIds);
+                }
+                throw new SeatBookedException("One of the seats is already taken!");
+            }
+
+            List<TicketView> bookedTickets = rows.stream().map(TicketView::of).toList();
+
+            // Kafka Event goes to the outbox, inside this transaction
+            ticketUpdatePublisher.ticketsBooked(eventId, userId, null, bookedTickets.stream().map(TicketView::id).toList(),
+                    bookedTickets.stream().map(ticket -> ticket.seat().id()).toList());
+            return bookedTickets;
+        }));
+    }
+}
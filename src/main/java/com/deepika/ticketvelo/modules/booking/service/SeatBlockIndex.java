@@ -0,0 +1,262 @@
+package com.deepika.ticketvelo.modules.booking.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per-event index of free contiguous seats, for "N adjacent seats in section X".
+ *
+ * Every row keeps a segment tree over its seat positions (free prefix / suffix / longest free run
+ * per node) and every section keeps a max-tree over its rows' longest runs, with the rows laid out
+ * in preference order. Picking the most preferred row that fits N is one descent of the section
+ * tree and placing the block in it one or two descents of the row tree: O(log rows + log seats).
+ *
+ * This is only a hint, kept in sync by EventSeats.stamp(). The CAS claim in SeatInventory stays
+ * the authority, so a stale answer costs a retry, never a double booking.
+ */
+final class SeatBlockIndex {
+
+    enum RowOrder { FRONT, MIDDLE }   // front rows first, or the middle rows of the section first
+    enum SeatOrder { CENTER, AISLE }  // block closest to the row's centre, or leftmost
+
+    private final Map<String, Section> sections = new LinkedHashMap<>();
+    private final Row[] rowOf;       // by ordinal
+    private final int[] positionOf;  // by ordinal: position in its row
+    private final SeatOrder seatOrder;
+
+    SeatBlockIndex(SeatInventory.EventSeats seats, RowOrder rowOrder, SeatOrder seatOrder) {
+        int n = seats.size();
+        this.rowOf = new Row[n];
+        this.positionOf = new int[n];
+        this.seatOrder = seatOrder;
+
+        // Group ordinals by section, then by row label
+        Map<String, Map<String, List<Integer>>> layout = new LinkedHashMap<>();
+        for (int i = 0; i < n; i++) {
+            layout.computeIfAbsent(String.valueOf(seats.sections[i]), s -> new LinkedHashMap<>())
+                    .computeIfAbsent(String.valueOf(seats.rowNumbers[i]), r -> new ArrayList<>())
+                    .add(i);
+        }
+
+        layout.forEach((sectionName, rowsByLabel) -> {
+            // Natural row order: A..Z, AA.. (shorter labels first), then apply the preference
+            List<String> labels = new ArrayList<>(rowsByLabel.keySet());
+            labels.sort(Comparator.comparingInt(String::length).thenComparing(Comparator.naturalOrder()));
+            if (rowOrder == RowOrder.MIDDLE) {
+                double middle = (labels.size() - 1) / 2.0;
+                List<String> natural = List.copyOf(labels);
+                labels.sort(Comparator.comparingDouble(label -> Math.abs(natural.indexOf(label) - middle)));
+            }
+
+            Row[] rows = new Row[labels.size()];
+            for (int r = 0; r < rows.length; r++) rows[r] = new Row(seats, rowsByLabel.get(labels.get(r)), r);
+            Section section = new Section(rows);
+            sections.put(sectionName, section);
+            for (Row row : rows) {
+                row.section = section;
+                for (int p = 0; p < row.ordinalAt.length; p++) {
+                    if (row.ordinalAt[p] >= 0) {
+                        rowOf[row.ordinalAt[p]] = row;
+                        positionOf[row.ordinalAt[p]] = p;
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Ordinals of the most preferred block of `count` adjacent free seats, or null if there is none.
+     * A null section searches every section in layout order.
+     */
+    int[] find(String section, int count) {
+        if (count <= 0) return null;
+        if (section != null) {
+            Section target = sections.get(section);
+            return target == null ? null : target.find(count, seatOrder);
+        }
+        for (Section candidate : sections.values()) {
+            int[] block = candidate.find(count, seatOrder);
+            if (block != null) return block;
+        }
+        return null;
+    }
+
+    boolean hasSection(String section) {
+        return sections.containsKey(section);
+    }
+
+    void refresh(int ordinal, boolean free) {
+        Row row = rowOf[ordinal];
+        row.section.lock.lock(); // not synchronized: keeps virtual threads unpinned
+        try {
+            row.set(positionOf[ordinal], free);
+            row.section.updateRow(row.rank, row.best[1]);
+        } finally {
+            row.section.lock.unlock();
+        }
+    }
+
+    // One section: max-tree over its rows' longest free runs, leaves in preference order
+    private static final class Section {
+        final ReentrantLock lock = new ReentrantLock();
+        final Row[] rows;
+        final int size;
+        final int[] max;
+
+        Section(Row[] rows) {
+            this.rows = rows;
+            this.size = Integer.highestOneBit(Math.max(1, rows.length - 1)) << 1;
+            this.max = new int[2 * size];
+            for (int r = 0; r < rows.length; r++) max[size + r] = rows[r].best[1];
+            for (int i = size - 1; i >= 1; i--) max[i] = Math.max(max[2 * i], max[2 * i + 1]);
+        }
+
+        void updateRow(int rank, int best) {
+            int i = size + rank;
+            max[i] = best;
+            for (i >>= 1; i >= 1; i >>= 1) max[i] = Math.max(max[2 * i], max[2 * i + 1]);
+        }
+
+        int[] find(int count, SeatOrder seatOrder) {
+            lock.lock();
+            try {
+                if (max[1] < count) return null;
+                int i = 1;
+                while (i < size) i = max[2 * i] >= count ? 2 * i : 2 * i + 1; // leftmost = most preferred
+                return rows[i - size].place(count, seatOrder);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // One row: segment tree over seat positions (gaps in the seat numbering are never free)
+    private static final class Row {
+        final int[] ordinalAt; // by position, -1 for a gap
+        final int rank;        // index in the section's preference order
+        final int size;
+        final int[] pre;       // free run at the start of the node
+        final int[] suf;       // free run at the end of the node
+        final int[] best;      // longest free run inside the node
+        Section section;
+        private int run;       // scratch for the fit searches (only used under the section lock)
+
+        Row(SeatInventory.EventSeats seats, List<Integer> ordinals, int rank) {
+            this.rank = rank;
+            int min = Integer.MAX_VALUE;
+            int max = Integer.MIN_VALUE;
+            for (int ordinal : ordinals) {
+                min = Math.min(min, seats.seatNumbers[ordinal]);
+                max = Math.max(max, seats.seatNumbers[ordinal]);
+            }
+            int length = max - min + 1;
+            int[] byPosition = new int[Math.min(length, 4 * ordinals.size() + 1)];
+            Arrays.fill(byPosition, -1);
+            boolean duplicates = false;
+            for (int ordinal : ordinals) {
+                if (length > byPosition.length) break;
+                int p = seats.seatNumbers[ordinal] - min;
+                if (byPosition[p] >= 0) duplicates = true;
+                byPosition[p] = ordinal;
+            }
+            // Bad or very sparse numbering: fall back to seat-id order
+            boolean sparse = length > 4 * ordinals.size();
+            this.ordinalAt = duplicates || sparse ? ordinals.stream().mapToInt(Integer::intValue).toArray() : byPosition;
+
+            this.size = Integer.highestOneBit(Math.max(1, ordinalAt.length - 1)) << 1;
+            this.pre = new int[2 * size];
+            this.suf = new int[2 * size];
+            this.best = new int[2 * size];
+            for (int p = 0; p < ordinalAt.length; p++) {
+                int free = ordinalAt[p] >= 0 && !seats.isSet(ordinalAt[p]) ? 1 : 0;
+                pre[size + p] = suf[size + p] = best[size + p] = free;
+            }
+            for (int i = size - 1; i >= 1; i--) combine(i);
+        }
+
+        void set(int position, boolean free) {
+            int i = size + position;
+            int value = free && ordinalAt[position] >= 0 ? 1 : 0;
+            pre[i] = suf[i] = best[i] = value;
+            for (i >>= 1; i >= 1; i >>= 1) combine(i);
+        }
+
+        int[] place(int count, SeatOrder seatOrder) {
+            int start;
+            if (seatOrder == SeatOrder.AISLE) {
+                start = firstFit(0, count);
+            } else {
+                int ideal = Math.max(0, (ordinalAt.length - count) / 2);
+                int right = firstFit(ideal, count);               // starts at or after the ideal spot
+                int left = lastFit(ideal + count - 1, count);     // starts at or before it
+                if (right < 0) start = left;
+                else if (left < 0) start = right;
+                else start = ideal - left <= right - ideal ? left : right;
+            }
+            if (start < 0) return null;
+
+            int[] block = new int[count];
+            System.arraycopy(ordinalAt, start, block, 0, count);
+            return block;
+        }
+
+        private void combine(int i) {
+            int l = 2 * i;
+            int r = l + 1;
+            int half = nodeLength(l);
+            pre[i] = pre[l] == half ? half + pre[r] : pre[l];
+            suf[i] = suf[r] == half ? half + suf[l] : suf[r];
+            best[i] = Math.max(Math.max(best[l], best[r]), suf[l] + pre[r]);
+        }
+
+        private int nodeLength(int i) {
+            return size / Integer.highestOneBit(i);
+        }
+
+        // Leftmost start >= lo of `count` free seats, or -1
+        private int firstFit(int lo, int count) {
+            run = 0;
+            return firstFit(1, 0, size, lo, count);
+        }
+
+        private int firstFit(int node, int nodeLo, int length, int lo, int count) {
+            if (nodeLo + length <= lo) return -1;
+            if (nodeLo >= lo) {
+                if (run + pre[node] >= count) return nodeLo - run;
+                if (best[node] < count) {
+                    run = pre[node] == length ? run + length : suf[node];
+                    return -1;
+                }
+            }
+            int half = length / 2;
+            int found = firstFit(2 * node, nodeLo, half, lo, count);
+            return found >= 0 ? found : firstFit(2 * node + 1, nodeLo + half, half, lo, count);
+        }
+
+        // Rightmost start whose block ends at or before hi, or -1
+        private int lastFit(int hi, int count) {
+            run = 0;
+            return lastFit(1, 0, size, hi, count);
+        }
+
+        private int lastFit(int node, int nodeLo, int length, int hi, int count) {
+            int nodeHi = nodeLo + length - 1;
+            if (nodeLo > hi) return -1;
+            if (nodeHi <= hi) {
+                if (run + suf[node] >= count) return nodeHi + run - count + 1;
+                if (best[node] < count) {
+                    run = suf[node] == length ? run + length : pre[node];
+                    return -1;
+                }
+            }
+            int half = length / 2;
+            int found = lastFit(2 * node + 1, nodeLo + half, half, hi, count);
+            return found >= 0 ? found : lastFit(2 * node, nodeLo, half, hi, count);
+        }
+    }
+}
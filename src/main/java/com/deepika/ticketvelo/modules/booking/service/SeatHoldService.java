@@ -0,0 +1,225 @@
+package com.deepika.ticketvelo.modules.booking.service;
+
+import com.deepika.ticketvelo.common.concurrency.ConcurrencyLimits;
+import com.deepika.ticketvelo.common.exception.HoldExpiredException;
+import com.deepika.ticketvelo.common.exception.ResourceNotFoundException;
+import com.deepika.ticketvelo.common.exception.SeatBookedException;
+import com.deepika.ticketvelo.common.exception.TicketVeloException;
+import com.deepika.ticketvelo.modules.booking.model.SeatHoldView;
+import com.deepika.ticketvelo.modules.booking.model.TicketSeatRow;
+import com.deepika.ticketvelo.modules.booking.model.TicketView;
+import com.deepika.ticketvelo.modules.booking.repository.TicketRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Hold -> confirm / release. A hold reserves seats (status LOCKED) for ttl-ms so the user can pay
+ * without racing anyone; confirming turns them into a normal booking.
+ *
+ * Expiry is driven by SeatInventory's timing wheel: every tick, all holds that ran out are freed
+ * in memory and released in Postgres with one UPDATE per batch, not one timer or query per seat.
+ * Postgres enforces the deadline on its own (confirm requires held_until > now, and claims accept
+ * expired holds), so a late tick never lets an expired hold be confirmed.
+ *
+ * Hold ids start with the event id ("<eventId>-<uuid>"), so every hold query can name its event
+ * and stay inside that event's tickets partition.
+ */
+@Service
+public class SeatHoldService {
+
+    private final TicketRepository ticketRepository;
+    private final SeatInventory seatInventory;
+    private final SeatLockManager seatLockManager;
+    private final TicketUpdatePublisher ticketUpdatePublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ConcurrencyLimits concurrencyLimits;
+    private final Counter created;
+    private final Counter confirmed;
+    private final Counter released;
+    private final Counter expired;
+    private final Counter swept;
+
+    @Value("${ticketvelo.inventory.enabled:true}")
+    private boolean inventoryEnabled;
+
+    @Value("${ticketvelo.hold.ttl-ms:600000}")
+    private long ttlMillis;
+
+    @Value("${ticketvelo.hold.release-batch-size:1000}")
+    private int releaseBatchSize;
+
+    public SeatHoldService(TicketRepository ticketRepository, SeatInventory seatInventory, SeatLockManager seatLockManager,
+                           TicketUpdatePublisher ticketUpdatePublisher, TransactionTemplate transactionTemplate,
+                           ConcurrencyLimits concurrencyLimits, MeterRegistry meterRegistry) {
+        this.ticketRepository = ticketRepository;
+        this.seatInventory = seatInventory;
+        this.seatLockManager = seatLockManager;
+        this.ticketUpdatePublisher = ticketUpdatePublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.concurrencyLimits = concurrencyLimits;
+        this.created = Counter.builder("ticketvelo.hold.created").description("Holds placed").register(meterRegistry);
+        this.confirmed = Counter.builder("ticketvelo.hold.confirmed").description("Holds turned into bookings").register(meterRegistry);
+        this.released = releasedSeats(meterRegistry, "user");
+        this.expired = releasedSeats(meterRegistry, "expired");
+        this.swept = releasedSeats(meterRegistry, "sweep");
+        Gauge.builder("ticketvelo.hold.pending", seatInventory, SeatInventory::pendingHoldExpiries)
+                .description("Holds waiting in the expiry wheel").register(meterRegistry);
+    }
+
+    private static Counter releasedSeats(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("ticketvelo.hold.released").tag("reason", reason)
+                .description("Seats given back from holds").register(meterRegistry);
+    }
+
+    public SeatHoldView hold(Long eventId, List<Long> seatIds, Long userId) {
+        requireInventory();
+        List<Long> sortedSeatIds = new ArrayList<>(seatIds);
+        Collections.sort(sortedSeatIds);
+
+        String holdId = eventId + "-" + UUID.randomUUID();
+        Instant heldUntil = Instant.now().plusMillis(ttlMillis);
+
+        // 0. Reserve in memory first (rejects taken seats without any I/O), then mirror in Postgres
+        SeatInventory.Claim claim = seatInventory.hold(eventId, sortedSeatIds, userId, holdId, heldUntil.toEpochMilli());
+        SeatLockManager.SeatLock lock = null;
+        boolean held = false;
+        try {
+            lock = seatLockManager.acquire(eventId, sortedSeatIds);
+            concurrencyLimits.withDatabase(() -> transactionTemplate.execute(status -> {
+                int count = ticketRepository.holdSeats(eventId, sortedSeatIds, userId, holdId, heldUntil, Instant.now());
+                if (count != sortedSeatIds.size()) {
+                    seatInventory.evict(eventId); // Postgres disagreed with our memory: resync
+                    throw new SeatBookedException("One of the seats is already taken!");
+                }
+                ticketUpdatePublisher.seatsHeld(eventId, userId, holdId, claim.getTicketIds(), claim.getSeatIds());
+                return count;
+            }));
+            held = true;
+            created.increment();
+            return new SeatHoldView(holdId, eventId, heldUntil, claim.toTicketViews(userId, "LOCKED"));
+        } finally {
+            if (!held) seatInventory.release(claim);
+            if (lock != null) seatLockManager.release(lock);
+        }
+    }
+
+    public List<TicketView> confirm(String holdId, Long userId) {
+        Long eventId = eventIdOf(holdId);
+        HoldRows hold = concurrencyLimits.withDatabase(() -> transactionTemplate.execute(status -> {
+            if (eventId == null || ticketRepository.confirmHold(eventId, holdId, userId, Instant.now()) == 0) {
+                throw new HoldExpiredException("Hold " + holdId + " has expired or does not exist.");
+            }
+            HoldRows booked = new HoldRows(eventId, ticketRepository.findSeatRowsByEventIdAndHoldId(eventId, holdId));
+
+            // Same transaction: the confirmation messages commit with the booking or not at all
+            ticketUpdatePublisher.ticketsBooked(eventId, userId, holdId, booked.ticketIds(), booked.seatIds());
+            return booked;
+        }));
+
+        // Committed: now it's safe to show the seats as booked
+        seatInventory.confirmHold(hold.eventId(), hold.seatIds(), userId);
+        confirmed.increment();
+        return hold.rows().stream().map(TicketView::of).toList();
+    }
+
+    public void release(String holdId, Long userId) {
+        Long eventId = eventIdOf(holdId);
+        HoldRows hold = concurrencyLimits.withDatabase(() -> transactionTemplate.execute(status -> {
+            // Read before the UPDATE clears hold_id (we need the seats and the deadline)
+            List<TicketSeatRow> rows = eventId == null ? List.of() : ticketRepository.findSeatRowsByEventIdAndHoldId(eventId, holdId);
+            if (rows.isEmpty() || ticketRepository.releaseHold(eventId, holdId, userId) == 0) {
+                throw new ResourceNotFoundException("Hold not found: " + holdId);
+            }
+            HoldRows released = new HoldRows(eventId, rows);
+            ticketUpdatePublisher.seatsReleased(eventId, userId, holdId, released.ticketIds(), released.seatIds());
+            return released;
+        }));
+
+        seatInventory.releaseHold(hold.eventId(), hold.seatIds(), hold.rows().get(0).heldUntil().toEpochMilli());
+        released.increment(hold.rows().size());
+    }
+
+    // Timing-wheel tick: free every hold that ran out since the last tick, in bulk (one UPDATE per event and batch)
+    @Scheduled(fixedDelayString = "${ticketvelo.hold.wheel-tick-ms:100}")
+    public void expireHolds() {
+        Map<Long, List<String>> byEvent = new HashMap<>();
+        for (String holdId : seatInventory.expireHolds(System.currentTimeMillis())) {
+            Long eventId = eventIdOf(holdId);
+            if (eventId != null) byEvent.computeIfAbsent(eventId, id -> new ArrayList<>()).add(holdId);
+        }
+        byEvent.forEach((eventId, holdIds) -> {
+            for (int from = 0; from < holdIds.size(); from += releaseBatchSize) {
+                List<String> batch = holdIds.subList(from, Math.min(from + releaseBatchSize, holdIds.size()));
+                try {
+                    Integer seats = transactionTemplate.execute(status -> {
+                        Instant now = Instant.now();
+                        HoldRows expiring = new HoldRows(eventId, ticketRepository.lockExpiredHolds(eventId, batch, now));
+                        if (expiring.rows().isEmpty()) return 0;
+                        int count = ticketRepository.releaseExpiredHolds(eventId, batch, now);
+                        // One RELEASED event per batch (it spans several holds and users)
+                        ticketUpdatePublisher.seatsReleased(eventId, null, null, expiring.ticketIds(), expiring.seatIds());
+                        return count;
+                    });
+                    if (seats != null) expired.increment(seats);
+                } catch (RuntimeException e) {
+                    // Already free in memory and claimable in Postgres (claims accept expired holds); the sweep tidies up
+                    System.out.println("Releasing expired holds failed, leaving them to the sweep: " + e.getMessage());
+                }
+            }
+        });
+    }
+
+    // Backstop for holds no live node is tracking (e.g. created by a node that has since died).
+    // Publishes no RELEASED events: it spans every event's partition in one UPDATE, so consumers
+    // only learn of these seats when they are next booked or held (or from a fresh seat map).
+    @Scheduled(fixedDelayString = "${ticketvelo.hold.sweep-interval-ms:60000}")
+    public void sweepExpiredHolds() {
+        try {
+            Integer seats = transactionTemplate.execute(status -> ticketRepository.releaseAllExpiredHolds(Instant.now()));
+            if (seats != null) swept.increment(seats);
+        } catch (RuntimeException e) {
+            System.out.println("Expired-hold sweep failed, will retry: " + e.getMessage());
+        }
+    }
+
+    // "<eventId>-<uuid>" -> eventId; null for anything else (e.g. a made-up id), which then finds no hold
+    static Long eventIdOf(String holdId) {
+        int dash = holdId.indexOf('-');
+        if (dash <= 0) return null;
+        try {
+            return Long.parseLong(holdId, 0, dash, 10);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private record HoldRows(Long eventId, List<TicketSeatRow> rows) {
+        List<Long> seatIds() {
+            return rows.stream().map(TicketSeatRow::seatId).toList();
+        }
+
+        List<Long> ticketIds() {
+            return rows.stream().map(TicketSeatRow::ticketId).toList();
+        }
+    }
+
+    private void requireInventory() {
+        if (!inventoryEnabled) {
+            throw new TicketVeloException("Seat holds require ticketvelo.inventory.enabled", HttpStatus.NOT_IMPLEMENTED);
+        }
+    }
+}
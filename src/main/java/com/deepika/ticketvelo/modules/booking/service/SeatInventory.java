@@ -0,0 +1,579 @@
+package com.deepika.ticketvelo.modules.booking.service;
+
+import com.deepika.ticketvelo.common.concurrency.ConcurrencyLimits;
+import com.deepika.ticketvelo.common.concurrency.TimingWheel;
+import com.deepika.ticketvelo.common.exception.ResourceNotFoundException;
+import com.deepika.ticketvelo.common.exception.SeatBookedException;
+import com.deepika.ticketvelo.modules.booking.model.SeatLayoutView;
+import com.deepika.ticketvelo.modules.booking.model.SeatMapView;
+import com.deepika.ticketvelo.modules.booking.model.TicketSeatRow;
+import com.deepika.ticketvelo.modules.booking.model.TicketView;
+import com.deepika.ticketvelo.modules.booking.repository.TicketRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory availability for every event that has been touched since startup.
+ *
+ * Each event is one compact structure: seats are addressed by ordinal (their position in
+ * the seat-id sorted ticket list) and availability is a bitset claimed with CAS, so a
+ * request for an already-taken seat is rejected without a Redis or Postgres round-trip.
+ * Postgres stays the source of truth: an event is loaded from the tickets table on first
+ * access and can be evicted at any time to force a reload.
+ *
+ * Every change also stamps the affected seats with a new per-event version, which is what the
+ * seat-map endpoint uses for ETags and `sinceVersion` deltas.
+ *
+ * A held seat is taken like a booked one, plus a deadline. Past its deadline it counts as free
+ * straight away (the next claim takes it over), and the timing wheel releases it for real in bulk.
+ *
+ * Every node has its own inventory. A seat another node books is simply rejected by Postgres when
+ * this node's memory still has it free, but the other way round memory would reject it for good:
+ * so changes that give seats back (or turn a hold into a booking) go to the change listeners,
+ * which pass them on to the other nodes (SeatInventorySync), where they are applied with apply().
+ */
+@Component
+public class SeatInventory {
+
+    private static final String[] STATUS_NAMES = {"AVAILABLE", "BOOKED", "LOCKED"}; // by seat-map status code
+    private static final int MAX_BEST_AVAILABLE_ATTEMPTS = 8;
+
+    private final TicketRepository ticketRepository;
+    private final ConcurrencyLimits concurrencyLimits;
+    private final ConcurrentHashMap<Long, EventSeats> events = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, CompletableFuture<EventSeats>> loading = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Long> lastVersions = new ConcurrentHashMap<>(); // keeps versions monotonic across reloads
+    private final TimingWheel<HeldSeats> holdExpiries;
+    private final List<ChangeListener> changeListeners = new CopyOnWriteArrayList<>();
+
+    @Value("${ticketvelo.allocator.row-order:FRONT}")
+    private SeatBlockIndex.RowOrder rowOrder = SeatBlockIndex.RowOrder.FRONT;
+
+    @Value("${ticketvelo.allocator.seat-order:CENTER}")
+    private SeatBlockIndex.SeatOrder seatOrder = SeatBlockIndex.SeatOrder.CENTER;
+
+    public SeatInventory(TicketRepository ticketRepository, ConcurrencyLimits concurrencyLimits,
+                         @Value("${ticketvelo.hold.wheel-tick-ms:100}") long wheelTickMillis,
+                         @Value("${ticketvelo.hold.wheel-size:8192}") int wheelSize) {
+        this.ticketRepository = ticketRepository;
+        this.concurrencyLimits = concurrencyLimits;
+        this.holdExpiries = new TimingWheel<>(wheelTickMillis, wheelSize, System.currentTimeMillis());
+    }
+
+    /**
+     * Claims all requested seats or none of them.
+     * Throws SeatBookedException if any seat is already taken.
+     */
+    public Claim claim(Long eventId, List<Long> seatIds, Long userId) {
+        return take(eventId, seatIds, userId, null, 0L);
+    }
+
+    /**
+     * Holds all requested seats (or none) until heldUntilMillis. The hold is registered with the
+     * expiry wheel, so {@link #expireHolds} gives it back if it is neither confirmed nor released.
+     */
+    public Claim hold(Long eventId, List<Long> seatIds, Long userId, String holdId, long heldUntilMillis) {
+        return take(eventId, seatIds, userId, holdId, heldUntilMillis);
+    }
+
+    private Claim take(Long eventId, List<Long> seatIds, Long userId, String holdId, long heldUntilMillis) {
+        EventSeats seats = load(eventId);
+        if (seats == null) throw new ResourceNotFoundException("No tickets found for event: " + eventId);
+
+        int[] ordinals = seats.ordinalsOf(seatIds);
+        Arrays.sort(ordinals); // Same global order for every caller
+
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < ordinals.length; i++) {
+            int ordinal = ordinals[i];
+            if (!seats.trySet(ordinal) && !(seats.reclaimExpiredHold(ordinal, now) && seats.trySet(ordinal))) {
+                // Roll back what we already took, and stamp it: a full read may already have seen those
+                // seats taken, so a later delta has to report them free again
+                for (int j = 0; j < i; j++) seats.clear(ordinals[j]);
+                if (i > 0) seats.stamp(Arrays.copyOf(ordinals, i));
+                throw new SeatBookedException("Seat " + seats.seatIds[ordinal] + " is already taken!");
+            }
+        }
+        for (int ordinal : ordinals) {
+            seats.owners.set(ordinal, userId);
+            if (holdId != null) seats.heldUntil.set(ordinal, heldUntilMillis);
+        }
+        seats.stamp(ordinals);
+
+        if (holdId != null) holdExpiries.schedule(new HeldSeats(eventId, holdId, seats, ordinals, heldUntilMillis), heldUntilMillis);
+        return new Claim(eventId, seats, ordinals);
+    }
+
+    /**
+     * Best available: claims the most preferred block of `count` adjacent free seats in a section
+     * (any section if null), found through the event's SeatBlockIndex.
+     */
+    public Claim claimBestAvailable(Long eventId, String section, int count, Long userId) {
+        EventSeats seats = load(eventId);
+        if (seats == null) throw new ResourceNotFoundException("No tickets found for event: " + eventId);
+        SeatBlockIndex index = seats.blockIndex(rowOrder, seatOrder);
+        if (section != null && !index.hasSection(section)) throw new ResourceNotFoundException("No section " + section + " for event: " + eventId);
+
+        // The index is a hint: if someone beat us to a block, resync those seats and look again
+        for (int attempt = 0; attempt < MAX_BEST_AVAILABLE_ATTEMPTS; attempt++) {
+            int[] block = index.find(section, count);
+            if (block == null) break;
+
+            List<Long> seatIds = new ArrayList<>(block.length);
+            for (int ordinal : block) seatIds.add(seats.seatIds[ordinal]);
+            try {
+                return take(eventId, seatIds, userId, null, 0L);
+            } catch (SeatBookedException lostRace) {
+                for (int ordinal : block) index.refresh(ordinal, !seats.isSet(ordinal));
+            }
+        }
+        throw new SeatBookedException("No " + count + " adjacent seats available" + (section == null ? "" : " in section " + section) + ".");
+    }
+
+    // Gives claimed seats back (booking or hold failed after the in-memory claim)
+    public void release(Claim claim) {
+        for (int ordinal : claim.ordinals) {
+            claim.seats.heldUntil.set(ordinal, 0L);
+            claim.seats.owners.set(ordinal, 0L);
+            claim.seats.clear(ordinal);
+        }
+        claim.seats.stamp(claim.ordinals);
+    }
+
+    // A hold was confirmed in Postgres: its seats become plain bookings, here and on the other nodes
+    public void confirmHold(Long eventId, List<Long> seatIds, Long userId) {
+        publish(new SeatChange(SeatChange.Kind.CONFIRM_HOLD, eventId, seatIds, userId, null, 0L));
+    }
+
+    // A hold was released in Postgres: free its seats, unless they've been taken again meanwhile
+    public void releaseHold(Long eventId, List<Long> seatIds, long heldUntilMillis) {
+        publish(new SeatChange(SeatChange.Kind.RELEASE_HOLD, eventId, seatIds, null, null, heldUntilMillis));
+    }
+
+    /**
+     * Booked seats were cancelled in Postgres: free them, or (holdId set) keep them held under that
+     * release hold until heldUntilMillis for the waitlist. The expiry wheel frees a release hold the
+     * waitlist didn't use in time, like any other hold.
+     */
+    public void returnSeats(Long eventId, List<Long> seatIds, String holdId, long heldUntilMillis) {
+        publish(new SeatChange(SeatChange.Kind.RETURN_SEATS, eventId, seatIds, null, holdId, heldUntilMillis));
+    }
+
+    /** For cross-node sync: listeners run on the caller's thread, so they must not block for long. */
+    public void onChange(ChangeListener listener) {
+        changeListeners.add(listener);
+    }
+
+    /**
+     * Applies a change to this node's memory only (changes from other nodes arrive here).
+     * False if the event isn't loaded here: the next load reads the new state from Postgres.
+     */
+    public boolean apply(SeatChange change) {
+        EventSeats seats = events.get(change.eventId());
+        if (seats == null) return false;
+
+        int[] ordinals = seats.ordinalsOf(change.seatIds());
+        switch (change.kind()) {
+            case CONFIRM_HOLD -> {
+                for (int ordinal : ordinals) {
+                    seats.trySet(ordinal); // no-op if we already had it as held
+                    seats.owners.set(ordinal, change.userId());
+                    seats.heldUntil.set(ordinal, 0L);
+                }
+                seats.stamp(ordinals);
+            }
+            case RELEASE_HOLD -> seats.releaseHeld(ordinals, change.heldUntilMillis());
+            case RETURN_SEATS -> {
+                for (int ordinal : ordinals) {
+                    seats.owners.set(ordinal, 0L);
+                    if (change.holdId() != null) {
+                        seats.trySet(ordinal); // no-op: it was booked
+                        seats.heldUntil.set(ordinal, change.heldUntilMillis());
+                    } else {
+                        seats.heldUntil.set(ordinal, 0L);
+                        seats.clear(ordinal);
+                    }
+                }
+                seats.stamp(ordinals);
+                if (change.holdId() != null) {
+                    holdExpiries.schedule(new HeldSeats(change.eventId(), change.holdId(), seats, ordinals, change.heldUntilMillis()),
+                            change.heldUntilMillis());
+                }
+            }
+        }
+        return true;
+    }
+
+    private void publish(SeatChange change) {
+        boolean applied = apply(change);
+        for (ChangeListener listener : changeListeners) listener.changed(change, applied);
+    }
+
+    /**
+     * Advances the expiry wheel and frees every hold that is past its deadline and still held.
+     * Returns the ids of those holds so the caller can release them in Postgres in one statement.
+     */
+    public List<String> expireHolds(long nowMillis) {
+        List<String> expired = new ArrayList<>();
+        for (HeldSeats held : holdExpiries.advance(nowMillis)) {
+            // Already confirmed / released / taken over: nothing changes
+            if (held.seats().releaseHeld(held.ordinals(), held.heldUntilMillis())) expired.add(held.holdId());
+        }
+        return expired;
+    }
+
+    // Holds waiting in the expiry wheel (including ones already confirmed or released)
+    public int pendingHoldExpiries() {
+        return holdExpiries.size();
+    }
+
+    // Drop an event so the next access reloads it from Postgres (e.g. another node booked a seat)
+    public void evict(Long eventId) {
+        EventSeats evicted = events.remove(eventId);
+        if (evicted != null) lastVersions.merge(eventId, evicted.version.get(), Math::max);
+    }
+
+    /**
+     * Full map (sinceVersion == null, or older than this inventory's load) or only the seats
+     * that changed after sinceVersion. A delta may repeat a change; it never misses one.
+     */
+    public SeatMapView getSeatMap(Long eventId, Long sinceVersion) {
+        EventSeats seats = load(eventId);
+        if (seats == null) throw new ResourceNotFoundException("No tickets found for event: " + eventId);
+
+        long version = seats.version.get(); // read BEFORE scanning (see stamp())
+        int n = seats.size();
+        long now = System.currentTimeMillis();
+
+        if (sinceVersion == null || sinceVersion < seats.baseVersion) {
+            byte[] packed = new byte[(n + 3) >>> 2];
+            for (int i = 0; i < n; i++) packed[i >>> 2] |= (byte) (seats.status(i, now) << ((i & 3) << 1));
+            return new SeatMapView(eventId, version, true, n, null, Base64.getEncoder().encodeToString(packed), null);
+        }
+
+        int[] changes = new int[16];
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            if (seats.seatVersions.get(i) > sinceVersion) {
+                if (count + 2 > changes.length) changes = Arrays.copyOf(changes, changes.length * 2);
+                changes[count++] = i;
+                changes[count++] = seats.status(i, now);
+            }
+        }
+        return new SeatMapView(eventId, version, false, n, sinceVersion, null, Arrays.copyOf(changes, count));
+    }
+
+    // Latest version of a loaded event, or -1 if it isn't in memory (never triggers a load)
+    public long currentVersion(Long eventId) {
+        EventSeats seats = events.get(eventId);
+        return seats == null ? -1 : seats.version.get();
+    }
+
+    public SeatLayoutView getLayout(Long eventId) {
+        EventSeats seats = load(eventId);
+        if (seats == null) throw new ResourceNotFoundException("No tickets found for event: " + eventId);
+        return new SeatLayoutView(eventId, seats.seatIds, seats.ticketIds, seats.rowNumbers, seats.seatNumbers, seats.sections);
+    }
+
+    // Serve the seat map straight from memory
+    public List<TicketView> getTickets(Long eventId) {
+        EventSeats seats = load(eventId);
+        if (seats == null) return Collections.emptyList();
+
+        List<TicketView> views = new ArrayList<>(seats.size());
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < seats.size(); i++) {
+            int status = seats.status(i, now);
+            long owner = seats.owners.get(i);
+            views.add(seats.view(i, STATUS_NAMES[status], status != 0 && owner != 0L ? owner : null));
+        }
+        return views;
+    }
+
+    private EventSeats load(Long eventId) {
+        EventSeats seats = events.get(eventId);
+        if (seats != null) return seats;
+
+        // Concurrent first accesses share one query. Deliberately not computeIfAbsent: that would run
+        // the query inside a map-bin monitor and pin virtual threads for the whole round-trip.
+        CompletableFuture<EventSeats> mine = new CompletableFuture<>();
+        CompletableFuture<EventSeats> inFlight = loading.putIfAbsent(eventId, mine);
+        if (inFlight != null) return inFlight.join();
+
+        try {
+            // A load that finished between our miss above and our putIfAbsent has already published
+            seats = events.get(eventId);
+            if (seats != null) {
+                mine.complete(seats);
+                return seats;
+            }
+
+            for (ChangeListener listener : changeListeners) listener.beforeLoad(eventId);
+            List<TicketSeatRow> rows = concurrencyLimits.withDatabase(() -> ticketRepository.findSeatRowsByEventId(eventId));
+            // Events without tickets are not cached, so they are retried next time
+            seats = rows.isEmpty() ? null : new EventSeats(rows, initialVersion(eventId));
+            if (seats != null) {
+                // Never replace a published instance: claims and wheel entries already point at it
+                EventSeats published = events.putIfAbsent(eventId, seats);
+                if (published != null) seats = published;
+                else scheduleLoadedHolds(eventId, seats, rows);
+            }
+            mine.complete(seats);
+            return seats;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(eventId, mine);
+        }
+    }
+
+    // Holds made elsewhere (another node, before a restart) expire through our wheel too
+    private void scheduleLoadedHolds(Long eventId, EventSeats seats, List<TicketSeatRow> rows) {
+        Map<String, List<Integer>> byHold = new LinkedHashMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            if (seats.heldUntil.get(i) != 0L) byHold.computeIfAbsent(rows.get(i).holdId(), id -> new ArrayList<>()).add(i);
+        }
+        byHold.forEach((holdId, ordinals) -> {
+            long deadline = seats.heldUntil.get(ordinals.get(0));
+            int[] held = ordinals.stream().mapToInt(Integer::intValue).toArray();
+            holdExpiries.schedule(new HeldSeats(eventId, holdId, seats, held, deadline), deadline);
+        });
+    }
+
+    // Wall-clock based so versions keep increasing across restarts too (1000 changes per ms of headroom)
+    private long initialVersion(Long eventId) {
+        long previous = lastVersions.getOrDefault(eventId, 0L);
+        return Math.max(System.currentTimeMillis() * 1000, previous + 1);
+    }
+
+    /**
+     * Result of a successful claim. Holds on to the exact inventory instance it was taken
+     * from, so releasing after an evict/reload can never clear someone else's claim.
+     */
+    public static final class Claim {
+        private final Long eventId;
+        private final EventSeats seats;
+        private final int[] ordinals;
+
+        private Claim(Long eventId, EventSeats seats, int[] ordinals) {
+            this.eventId = eventId;
+            this.seats = seats;
+            this.ordinals = ordinals;
+        }
+
+        public Long getEventId() {
+            return eventId;
+        }
+
+        public List<Long> getTicketIds() {
+            List<Long> ids = new ArrayList<>(ordinals.length);
+            for (int ordinal : ordinals) ids.add(seats.ticketIds[ordinal]);
+            return ids;
+        }
+
+        public List<Long> getSeatIds() {
+            List<Long> ids = new ArrayList<>(ordinals.length);
+            for (int ordinal : ordinals) ids.add(seats.seatIds[ordinal]);
+            return ids;
+        }
+
+        // Response for the caller, built from memory (no read-back from Postgres)
+        public List<TicketView> toTicketViews(Long userId) {
+            return toTicketViews(userId, "BOOKED");
+        }
+
+        public List<TicketView> toTicketViews(Long userId, String status) {
+            List<TicketView> views = new ArrayList<>(ordinals.length);
+            for (int ordinal : ordinals) views.add(seats.view(ordinal, status, userId));
+            return views;
+        }
+    }
+
+    /** A change other nodes' memory must see too: seats back on sale, still held for the waitlist, or a hold now booked. */
+    public record SeatChange(Kind kind, Long eventId, List<Long> seatIds, Long userId, String holdId, long heldUntilMillis) {
+        public enum Kind { CONFIRM_HOLD, RELEASE_HOLD, RETURN_SEATS }
+    }
+
+    public interface ChangeListener {
+        // An event is about to be read from Postgres (changes from here on must reach its new instance)
+        void beforeLoad(Long eventId);
+
+        // A change made on this node; applied = false if the event wasn't loaded here
+        void changed(SeatChange change, boolean applied);
+    }
+
+    // One hold waiting in the expiry wheel (pinned to the inventory instance it was made in, like Claim)
+    record HeldSeats(Long eventId, String holdId, EventSeats seats, int[] ordinals, long heldUntilMillis) {}
+
+    // One event's seats. Static layout in plain arrays, mutable state in atomic arrays.
+    static final class EventSeats {
+        final long[] seatIds;     // sorted, so seatId -> ordinal is a binary search
+        final long[] ticketIds;
+        final String[] rowNumbers;
+        final int[] seatNumbers;
+        final String[] sections;
+        final AtomicLongArray taken;   // 1 bit per seat
+        final AtomicLongArray owners;  // userId per seat (0 = nobody)
+        final AtomicLongArray heldUntil; // hold deadline per seat, epoch millis (0 = not a hold)
+        final long baseVersion;               // version at load time
+        final AtomicLong version;             // latest published version
+        final AtomicLongArray seatVersions;   // version of each seat's last change
+        private final ReentrantLock stampLock = new ReentrantLock();
+        private final ReentrantLock indexLock = new ReentrantLock();
+        private volatile SeatBlockIndex blockIndex; // built on the first best-available request
+
+        EventSeats(List<TicketSeatRow> rows, long baseVersion) {
+            int n = rows.size();
+            seatIds = new long[n];
+            ticketIds = new long[n];
+            rowNumbers = new String[n];
+            seatNumbers = new int[n];
+            sections = new String[n];
+            taken = new AtomicLongArray((n + 63) >>> 6);
+            owners = new AtomicLongArray(n);
+            heldUntil = new AtomicLongArray(n);
+            this.baseVersion = baseVersion;
+            version = new AtomicLong(baseVersion);
+            seatVersions = new AtomicLongArray(n);
+
+            for (int i = 0; i < n; i++) {
+                TicketSeatRow row = rows.get(i);
+                seatIds[i] = row.seatId();
+                ticketIds[i] = row.ticketId();
+                rowNumbers[i] = row.rowNumber();
+                seatNumbers[i] = row.seatNumber() == null ? 0 : row.seatNumber();
+                sections[i] = row.section();
+                if (!"AVAILABLE".equals(row.status())) {
+                    trySet(i);
+                    if (row.userId() != null) owners.set(i, row.userId());
+                    if ("LOCKED".equals(row.status()) && row.heldUntil() != null) heldUntil.set(i, row.heldUntil().toEpochMilli());
+                }
+            }
+        }
+
+        int size() {
+            return seatIds.length;
+        }
+
+        // Seat-map status code: 0 = AVAILABLE, 1 = BOOKED, 2 = HELD (an expired hold counts as available)
+        int status(int ordinal, long now) {
+            if (!isSet(ordinal)) return 0;
+            long deadline = heldUntil.get(ordinal);
+            if (deadline == 0L) return 1;
+            return deadline > now ? 2 : 0;
+        }
+
+        // Frees a seat whose hold has passed its deadline; only one caller can win the CAS
+        boolean reclaimExpiredHold(int ordinal, long now) {
+            long deadline = heldUntil.get(ordinal);
+            if (deadline == 0L || deadline > now || !heldUntil.compareAndSet(ordinal, deadline, 0L)) return false;
+            owners.set(ordinal, 0L);
+            clear(ordinal);
+            return true;
+        }
+
+        // Frees the seats still held with exactly this deadline; true if any were
+        boolean releaseHeld(int[] ordinals, long deadline) {
+            int released = 0;
+            int[] changed = new int[ordinals.length];
+            for (int ordinal : ordinals) {
+                if (heldUntil.compareAndSet(ordinal, deadline, 0L)) {
+                    owners.set(ordinal, 0L);
+                    clear(ordinal);
+                    changed[released++] = ordinal;
+                }
+            }
+            if (released > 0) stamp(Arrays.copyOf(changed, released));
+            return released > 0;
+        }
+
+        // Stamp first, publish the version last: a reader that saw version V has seen every stamp <= V
+        void stamp(int[] ordinals) {
+            stampLock.lock(); // not synchronized: keeps virtual threads unpinned
+            try {
+                long next = version.get() + 1;
+                for (int ordinal : ordinals) seatVersions.set(ordinal, next);
+                version.set(next);
+            } finally {
+                stampLock.unlock();
+            }
+
+            // Every change goes through here, so this keeps the block index in step with the bitset
+            SeatBlockIndex index = blockIndex;
+            if (index != null) for (int ordinal : ordinals) index.refresh(ordinal, !isSet(ordinal));
+        }
+
+        SeatBlockIndex blockIndex(SeatBlockIndex.RowOrder rowOrder, SeatBlockIndex.SeatOrder seatOrder) {
+            SeatBlockIndex index = blockIndex;
+            if (index != null) return index;
+
+            indexLock.lock();
+            try {
+                if (blockIndex == null) {
+                    index = new SeatBlockIndex(this, rowOrder, seatOrder);
+                    blockIndex = index;
+                    // Catch changes made while it was being built (stamps only refresh once it's published)
+                    for (int i = 0; i < size(); i++) index.refresh(i, !isSet(i));
+                }
+                return blockIndex;
+            } finally {
+                indexLock.unlock();
+            }
+        }
+
+        TicketView view(int ordinal, String status, Long userId) {
+            return new TicketView(ticketIds[ordinal], status, userId,
+                    new TicketView.SeatView(seatIds[ordinal], rowNumbers[ordinal], seatNumbers[ordinal], sections[ordinal]));
+        }
+
+        int[] ordinalsOf(List<Long> requestedSeatIds) {
+            int[] ordinals = new int[requestedSeatIds.size()];
+            for (int i = 0; i < ordinals.length; i++) {
+                Long seatId = requestedSeatIds.get(i);
+                int ordinal = seatId == null ? -1 : Arrays.binarySearch(seatIds, seatId);
+                if (ordinal < 0) throw new ResourceNotFoundException("Ticket not found: " + seatId);
+                ordinals[i] = ordinal;
+            }
+            return ordinals;
+        }
+
+        boolean isSet(int ordinal) {
+            return (taken.get(ordinal >>> 6) & (1L << ordinal)) != 0;
+        }
+
+        boolean trySet(int ordinal) {
+            int word = ordinal >>> 6;
+            long mask = 1L << ordinal; // shift uses the low 6 bits only
+            while (true) {
+                long current = taken.get(word);
+                if ((current & mask) != 0) return false;
+                if (taken.compareAndSet(word, current, current | mask)) return true;
+            }
+        }
+
+        void clear(int ordinal) {
+            int word = ordinal >>> 6;
+            long mask = 1L << ordinal;
+            while (true) {
+                long current = taken.get(word);
+                if ((current & mask) == 0) return;
+                if (taken.compareAndSet(word, current, current & ~mask)) return;
+            }
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.deepika.ticketvelo.modules.booking.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the SeatInventory of every node in step with changes made on the others.
+ *
+ * A change that gives seats back (cancellation, released hold, waitlist leftovers) or confirms a
+ * hold is numbered with a per-event sequence in Redis and published on {@link #CHANNEL}; the other
+ * nodes apply it to their own memory. Pub/sub is fire-and-forget, so each node also counts the
+ * changes it applied since it loaded the event, and re-polls the sequence on a timer: an event
+ * still behind on two polls in a row is evicted and reloaded from Postgres.
+ *
+ * Without Redis, changes stay on the node that made them: other nodes keep rejecting those seats
+ * until the event is evicted there (e.g. by archiving) or the node restarts.
+ */
+@Component
+public class SeatInventorySync implements MessageListener, SeatInventory.ChangeListener {
+
+    public static final String CHANNEL = "inventory:changes";
+    private static final String SEQUENCE_KEY = "inventory:seq:";
+
+    private final SeatInventory seatInventory;
+    private final StringRedisTemplate redisTemplate;
+    private final JsonMapper jsonMapper;
+    private final String origin = UUID.randomUUID().toString(); // our own messages come back to us too
+    private final Map<Long, Tracker> trackers = new ConcurrentHashMap<>();
+    private final Set<Long> behind = ConcurrentHashMap.newKeySet();
+    private final Counter published;
+    private final Counter applied;
+    private final Counter resynced;
+
+    public SeatInventorySync(SeatInventory seatInventory, StringRedisTemplate redisTemplate, JsonMapper jsonMapper,
+                             MeterRegistry meterRegistry) {
+        this.seatInventory = seatInventory;
+        this.redisTemplate = redisTemplate;
+        this.jsonMapper = jsonMapper;
+        this.published = Counter.builder("ticketvelo.inventory.sync.published")
+                .description("Inventory changes sent to the other nodes").register(meterRegistry);
+        this.applied = Counter.builder("ticketvelo.inventory.sync.applied")
+                .description("Inventory changes from other nodes applied to this node's memory").register(meterRegistry);
+        this.resynced = Counter.builder("ticketvelo.inventory.sync.resynced")
+                .description("Events reloaded from Postgres after missing a change from another node").register(meterRegistry);
+        seatInventory.onChange(this);
+    }
+
+    @Override
+    public void beforeLoad(Long eventId) {
+        // Everything up to the current sequence is already in Postgres, so in what we are about to load
+        try {
+            String current = redisTemplate.opsForValue().get(SEQUENCE_KEY + eventId);
+            trackers.put(eventId, new Tracker(current == null ? 0L : Long.parseLong(current)));
+        } catch (RuntimeException e) {
+            trackers.remove(eventId); // Redis down: loaded untracked
+        }
+    }
+
+    @Override
+    public void changed(SeatInventory.SeatChange change, boolean appliedHere) {
+        try {
+            Long sequence = redisTemplate.opsForValue().increment(SEQUENCE_KEY + change.eventId());
+            if (appliedHere) count(change.eventId(), sequence);
+            redisTemplate.convertAndSend(CHANNEL, jsonMapper.writeValueAsString(new SyncMessage(origin, sequence, change)));
+            published.increment();
+        } catch (RuntimeException e) {
+            System.out.println("Could not publish inventory change for event " + change.eventId() + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        SyncMessage received = jsonMapper.readValue(message.getBody(), SyncMessage.class);
+        if (origin.equals(received.origin())) return;
+
+        Tracker tracker = trackers.get(received.change().eventId());
+        if (tracker != null && received.sequence() <= tracker.base) return; // already in what we loaded
+        // Not loaded here (or still loading): not counted, so if a load missed it the poll catches that
+        if (seatInventory.apply(received.change())) {
+            count(received.change().eventId(), received.sequence());
+            applied.increment();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ticketvelo.inventory.sync-poll-ms:5000}")
+    public void checkForMissedChanges() {
+        trackers.forEach((eventId, tracker) -> {
+            if (seatInventory.currentVersion(eventId) < 0) { // evicted: the next load starts a new tracker
+                trackers.remove(eventId, tracker);
+                behind.remove(eventId);
+                return;
+            }
+            String current;
+            try {
+                current = redisTemplate.opsForValue().get(SEQUENCE_KEY + eventId);
+            } catch (RuntimeException e) {
+                return; // Redis down: keep what we have
+            }
+            if (current == null || Long.parseLong(current) <= tracker.base + tracker.seen.get()) {
+                behind.remove(eventId);
+            } else if (!behind.add(eventId)) {
+                // Behind on two polls in a row: that message is not just in flight, it's lost
+                trackers.remove(eventId, tracker);
+                behind.remove(eventId);
+                seatInventory.evict(eventId);
+                resynced.increment();
+                System.out.println("   -> Reloading seats of event " + eventId + ": missed a change from another node");
+            }
+        });
+    }
+
+    private void count(Long eventId, Long sequence) {
+        Tracker tracker = trackers.get(eventId);
+        if (tracker != null && sequence != null && sequence > tracker.base) tracker.seen.incrementAndGet();
+    }
+
+    // Sequence at load time, and how many changes after it this node's memory has applied
+    private static final class Tracker {
+        final long base;
+        final AtomicLong seen = new AtomicLong();
+
+        Tracker(long base) {
+            this.base = base;
+        }
+    }
+
+    record SyncMessage(String origin, Long sequence, SeatInventory.SeatChange change) {}
+}
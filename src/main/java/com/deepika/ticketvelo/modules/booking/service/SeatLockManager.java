@@ -0,0 +1,111 @@
+package com.deepika.ticketvelo.modules.booking.service;
+
+import com.deepika.ticketvelo.common.concurrency.ConcurrencyLimits;
+import com.deepika.ticketvelo.common.exception.SeatBookedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Multi-seat Redis lock: all of a request's seat keys are taken (or none) in ONE script call,
+ * and released in ONE script call that only deletes keys still holding our owner token.
+ *
+ * Keys share the {event:ID} hash tag so a multi-key script stays valid on Redis Cluster.
+ */
+@Component
+public class SeatLockManager {
+
+    // Returns 0 when every key was set, otherwise the 1-based index of the first key already held
+    static final RedisScript<Long> ACQUIRE_SCRIPT = new DefaultRedisScript<>("""
+            for i, key in ipairs(KEYS) do
+              if redis.call('EXISTS', key) == 1 then return i end
+            end
+            for _, key in ipairs(KEYS) do
+              redis.call('SET', key, ARGV[1], 'PX', ARGV[2])
+            end
+            return 0
+            """, Long.class);
+
+    // Deletes only the keys we still own (the TTL may have expired and someone else re-locked)
+    static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>("""
+            local released = 0
+            for _, key in ipairs(KEYS) do
+              if redis.call('GET', key) == ARGV[1] then
+                redis.call('DEL', key)
+                released = released + 1
+              end
+            end
+            return released
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ConcurrencyLimits concurrencyLimits;
+    private final Counter attempts;
+    private final Counter conflicts;
+    private final Counter lostLocks;
+    private final Timer holdTime;
+
+    @Value("${ticketvelo.lock.ttl-ms:5000}")
+    private long ttlMillis;
+
+    public SeatLockManager(StringRedisTemplate redisTemplate, ConcurrencyLimits concurrencyLimits, MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.concurrencyLimits = concurrencyLimits;
+        this.attempts = Counter.builder("ticketvelo.lock.attempts")
+                .description("Multi-seat lock acquisition attempts").register(meterRegistry);
+        this.conflicts = Counter.builder("ticketvelo.lock.conflicts")
+                .description("Lock attempts rejected because a seat was already locked").register(meterRegistry);
+        this.lostLocks = Counter.builder("ticketvelo.lock.lost")
+                .description("Seat keys that had expired or changed owner before release").register(meterRegistry);
+        this.holdTime = Timer.builder("ticketvelo.lock.hold")
+                .description("Time between acquiring and releasing a multi-seat lock")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Locks every seat (sorted seat ids) or none of them.
+     * Throws SeatBookedException naming the first seat that is already locked.
+     */
+    public SeatLock acquire(Long eventId, List<Long> sortedSeatIds) {
+        List<String> keys = new ArrayList<>(sortedSeatIds.size());
+        for (Long seatId : sortedSeatIds) keys.add(lockKey(eventId, seatId));
+
+        String token = UUID.randomUUID().toString();
+        attempts.increment();
+
+        Long result = concurrencyLimits.withRedis(
+                () -> redisTemplate.execute(ACQUIRE_SCRIPT, keys, token, String.valueOf(ttlMillis)));
+        if (result == null || result != 0L) {
+            conflicts.increment();
+            Object seat = result == null ? "?" : sortedSeatIds.get(result.intValue() - 1);
+            throw new SeatBookedException("Seat " + seat + " is currently selected by another user.");
+        }
+        return new SeatLock(keys, token, System.nanoTime());
+    }
+
+    public void release(SeatLock lock) {
+        Long released = concurrencyLimits.withRedis(
+                () -> redisTemplate.execute(RELEASE_SCRIPT, lock.keys(), lock.token()));
+        holdTime.record(System.nanoTime() - lock.acquiredAtNanos(), TimeUnit.NANOSECONDS);
+
+        long lost = lock.keys().size() - (released == null ? 0 : released);
+        if (lost > 0) lostLocks.increment(lost);
+    }
+
+    static String lockKey(Long eventId, Long seatId) {
+        return "lock:{event:" + eventId + "}:seat:" + seatId;
+    }
+
+    public record SeatLock(List<String> keys, String token, long acquiredAtNanos) {}
+}
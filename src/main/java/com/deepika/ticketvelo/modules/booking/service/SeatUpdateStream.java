@@ -0,0 +1,187 @@
+package com.deepika.ticketvelo.modules.booking.service;
+
+import com.deepika.ticketvelo.modules.booking.model.SeatMapView;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Live seat availability over Server-Sent Events.
+ *
+ * Nothing is pushed per booking. Every tick, each watched event's inventory version is compared
+ * with what was last broadcast; if it moved, ONE delta (SeatInventory.getSeatMap sinceVersion) is
+ * built and serialized, and that same payload goes to every subscriber that is up to date. So
+ * updates are coalesced by time (the tick) and by size (large deltas become a full map).
+ *
+ * Each subscriber has at most one send in flight. A subscriber that is still busy is skipped for
+ * the tick (it catches up with a merged delta next time); one that stays busy past max-stall-ms
+ * is dropped. A slow client therefore never backs up the publisher or other subscribers.
+ */
+@Component
+public class SeatUpdateStream {
+
+    private final SeatInventory seatInventory;
+    private final JsonMapper jsonMapper;
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final Timer fanOutLatency;
+    private final Counter skipped;
+    private final Counter dropped;
+
+    @Value("${ticketvelo.stream.max-delta-seats:512}")
+    private int maxDeltaSeats;
+
+    @Value("${ticketvelo.stream.max-stall-ms:10000}")
+    private long maxStallMillis;
+
+    @Value("${ticketvelo.stream.emitter-timeout-ms:1800000}")
+    private long emitterTimeoutMillis;
+
+    public SeatUpdateStream(SeatInventory seatInventory, JsonMapper jsonMapper, MeterRegistry meterRegistry) {
+        this.seatInventory = seatInventory;
+        this.jsonMapper = jsonMapper;
+        Gauge.builder("ticketvelo.stream.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Open seat-update SSE connections").register(meterRegistry);
+        this.fanOutLatency = Timer.builder("ticketvelo.stream.fanout.latency")
+                .description("Time from a tick detecting a change to the update being written to a subscriber")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.skipped = Counter.builder("ticketvelo.stream.skipped")
+                .description("Ticks skipped for a subscriber still busy with a previous send").register(meterRegistry);
+        this.dropped = Counter.builder("ticketvelo.stream.dropped")
+                .description("Subscribers disconnected for being too slow").register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(Long eventId) {
+        SeatMapView initial = seatInventory.getSeatMap(eventId, null); // 404s for unknown events
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        Subscriber subscriber = new Subscriber(eventId, emitter);
+
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(error -> remove(subscriber));
+
+        // compute(): add and the last-one-out removal below can't interleave
+        subscribers.compute(eventId, (id, watchers) -> {
+            Set<Subscriber> set = watchers != null ? watchers : ConcurrentHashMap.<Subscriber>newKeySet();
+            set.add(subscriber);
+            return set;
+        });
+        subscriberCount.incrementAndGet();
+
+        deliver(subscriber, initial, serialize(initial), System.nanoTime());
+        return emitter;
+    }
+
+    @Scheduled(fixedDelayString = "${ticketvelo.stream.flush-interval-ms:250}")
+    public void publish() {
+        for (Map.Entry<Long, Set<Subscriber>> entry : subscribers.entrySet()) {
+            Long eventId = entry.getKey();
+            Set<Subscriber> watchers = entry.getValue();
+            if (watchers.isEmpty()) continue;
+
+            long current = seatInventory.currentVersion(eventId);
+            if (current < 0) continue;
+
+            long tickStart = System.nanoTime();
+            // Subscribers usually share a version, so usually there is exactly one payload per event per tick
+            Map<Long, Payload> payloads = new HashMap<>();
+            for (Subscriber subscriber : watchers) {
+                if (subscriber.sending.get()) {
+                    if (System.nanoTime() - subscriber.sendStartedNanos > TimeUnit.MILLISECONDS.toNanos(maxStallMillis)) {
+                        dropped.increment();
+                        subscriber.emitter.complete();
+                        remove(subscriber);
+                    } else {
+                        skipped.increment();
+                    }
+                    continue;
+                }
+                if (subscriber.deliveredVersion >= current) continue;
+
+                Payload payload = payloads.computeIfAbsent(subscriber.deliveredVersion, since -> buildPayload(eventId, since));
+                deliver(subscriber, payload.seatMap(), payload.json(), tickStart);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+    }
+
+    private Payload buildPayload(Long eventId, long since) {
+        SeatMapView seatMap = seatInventory.getSeatMap(eventId, since);
+        if (!seatMap.full() && seatMap.changes().length / 2 > maxDeltaSeats) {
+            seatMap = seatInventory.getSeatMap(eventId, null); // big delta: a full map is smaller
+        }
+        return new Payload(seatMap, serialize(seatMap));
+    }
+
+    private String serialize(SeatMapView seatMap) {
+        return jsonMapper.writeValueAsString(seatMap);
+    }
+
+    private void deliver(Subscriber subscriber, SeatMapView seatMap, String json, long tickStartNanos) {
+        if (!subscriber.sending.compareAndSet(false, true)) return;
+        subscriber.sendStartedNanos = System.nanoTime();
+
+        senders.execute(() -> {
+            try {
+                subscriber.emitter.send(SseEmitter.event()
+                        .name("seatmap")
+                        .id(String.valueOf(seatMap.version()))
+                        .data(json, MediaType.APPLICATION_JSON));
+                subscriber.deliveredVersion = seatMap.version();
+                fanOutLatency.record(System.nanoTime() - tickStartNanos, TimeUnit.NANOSECONDS);
+            } catch (IOException | IllegalStateException e) {
+                remove(subscriber); // client went away
+            } finally {
+                subscriber.sending.set(false);
+            }
+        });
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.eventId, (id, watchers) -> {
+            if (watchers.remove(subscriber)) subscriberCount.decrementAndGet();
+            // Last one out: forget the event so the tick loop doesn't keep checking it
+            return watchers.isEmpty() ? null : watchers;
+        });
+    }
+
+    private record Payload(SeatMapView seatMap, String json) {}
+
+    private static final class Subscriber {
+        final Long eventId;
+        final SseEmitter emitter;
+        final AtomicBoolean sending = new AtomicBoolean();
+        volatile long sendStartedNanos;
+        volatile long deliveredVersion = -1;
+
+        Subscriber(Long eventId, SseEmitter emitter) {
+            this.eventId = eventId;
+            this.emitter = emitter;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.deepika.ticketvelo.modules.booking.service;
+
+import com.deepika.ticketvelo.common.concurrency.ConcurrencyLimits;
+import com.deepika.ticketvelo.common.exception.ResourceNotFoundException;
+import com.deepika.ticketvelo.common.exception.SeatBookedException;
+import com.deepika.ticketvelo.modules.booking.model.TicketSeatRow;
+import com.deepika.ticketvelo.modules.booking.model.TicketView;
+import com.deepika.ticketvelo.modules.booking.repository.TicketRepository;
+import com.deepika.ticketvelo.modules.booking.service.BookingMetrics.Stage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * "skip-locked": no Redis. Row-locks the requested seats with SELECT ... FOR UPDATE SKIP LOCKED,
+ * so a request never queues behind another transaction's row locks: if it didn't get every seat
+ * it gives up at once. A seat that is taken is a conflict; a seat that was only skipped (still
+ * bookable, locked by a booking in flight that may yet roll back) is retried after a jittered
+ * backoff, up to ticketvelo.booking.max-attempts.
+ */
+@Component
+public class SkipLockedBookingStrategy implements BookingStrategy {
+
+    public static final String NAME = "skip-locked";
+
+    private final TicketRepository ticketRepository;
+    private final TicketUpdatePublisher ticketUpdatePublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ConcurrencyLimits concurrencyLimits;
+    private final BookingMetrics metrics;
+    private final BookingMetrics.StrategyMeters meters;
+    private final JitteredBackoff backoff;
+
+    @Value("${ticketvelo.booking.max-attempts:4}")
+    private int maxAttempts;
+
+    public SkipLockedBookingStrategy(TicketRepository ticketRepository, TicketUpdatePublisher ticketUpdatePublisher,
+                                     TransactionTemplate transactionTemplate, ConcurrencyLimits concurrencyLimits,
+                                     BookingMetrics metrics,
+                                     @Value("${ticketvelo.booking.retry-base-ms:5}") long retryBaseMillis,
+                                     @Value("${ticketvelo.booking.retry-max-ms:100}") long retryMaxMillis) {
+        this.ticketRepository = ticketRepository;
+        this.ticketUpdatePublisher = ticketUpdatePublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.concurrencyLimits = concurrencyLimits;
+        this.metrics = metrics;
+        this.meters = metrics.strategy(NAME);
+        this.backoff = new JitteredBackoff(retryBaseMillis, retryMaxMillis);
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public List<TicketView> book(Long eventId, List<Long> sortedSeatIds, Long userId, SeatInventory.Claim claim) {
+        return meters.time(() -> {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    return metrics.time(Stage.COMMIT, eventId, () -> attempt(eventId, sortedSeatIds, userId));
+                } catch (SeatsInFlightException e) {
+                    if (attempt >= maxAttempts) throw e;
+                    meters.retried();
+                    backoff.pause(attempt - 1);
+                }
+            }
+        });
+    }
+
+    // One transaction: lock what we can, give up unless it is every seat, claim, outbox
+    private List<TicketView> attempt(Long eventId, List<Long> seatIds, Long userId) {
+        return concurrencyLimits.withDatabase(() -> transactionTemplate.execute(status -> {
+            Instant now = Instant.now();
+            List<Long> locked = ticketRepository.lockBookableSeats(eventId, seatIds, now);
+
+            if (locked.size() != seatIds.size()) {
+                // Work out whether a seat is missing, taken, or just locked by a booking in flight
+                List<TicketSeatRow> rows = ticketRepository.findSeatRowsByEventIdAndSeatIds(eventId, seatIds);
+                if (rows.size() < new HashSet<>(seatIds).size()) {
+                    throw new ResourceNotFoundException("Ticket not found for one of seats: " + seatIds);
+                }
+                for (TicketSeatRow row : rows) {
+                    boolean bookable = "AVAILABLE".equals(row.status())
+                            || ("LOCKED".equals(row.status()) && !row.heldUntil().isAfter(now));
+                    if (!bookable) throw new SeatBookedException("Seat " + row.seatId() + " is already taken!");
+                }
+                if (rows.size() != seatIds.size()) throw new SeatBookedException("One of the seats is already taken!"); // duplicates
+                throw new SeatsInFlightException();
+            }
+
+            // Every seat is row-locked by us and bookable: the conditional UPDATE can't come up short
+            ticketRepository.claimSeats(eventId, seatIds, userId, now);
+            List<TicketView> bookedTickets = ticketRepository.findSeatRowsByEventIdAndSeatIds(eventId, seatIds).stream()
+                    .map(TicketView::of).toList();
+
+            // Kafka Event goes to the outbox, inside this transaction
+            ticketUpdatePublisher.ticketsBooked(eventId, userId, null, bookedTickets.stream().map(TicketView::id).toList(),
+                    bookedTickets.stream().map(ticket -> ticket.seat().id()).toList());
+            return bookedTickets;
+        }));
+    }
+
+    // A 409 if the retries run out: the other booking most likely committed
+    private static final class SeatsInFlightException extends SeatBookedException {
+        SeatsInFlightException() {
+            super("One of the seats is being booked by someone else.");
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.deepika.ticketvelo.modules.booking.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lifecycle of the per-event partitions of `tickets` (see db/migration/V2).
+ *
+ * Hot: an event's tickets are bulk loaded into a standalone table, which is then attached as the
+ * event's partition. ATTACH only takes a SHARE UPDATE EXCLUSIVE lock on `tickets`, so bookings for
+ * other events carry on, and the CHECK constraint added first spares it a validation scan.
+ *
+ * Cold: once an event is archive-after-hours past its start, its partition is detached with
+ * DETACH ... CONCURRENTLY (no exclusive lock on `tickets` either) and moved to the ticket_archive
+ * schema. The rows stay queryable there, but the live table and its indexes only ever hold events
+ * that can still be booked, however many past events pile up.
+ */
+@Service
+public class TicketPartitionManager {
+
+    public static final String ARCHIVE_SCHEMA = "ticket_archive";
+
+    private static final long ARCHIVE_LOCK_KEY = 0x7469636B6574L; // pg advisory lock: one archiver across all nodes
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SeatInventory seatInventory;
+    private final Counter archived;
+
+    @Value("${ticketvelo.partitions.archive-after-hours:48}")
+    private long archiveAfterHours;
+
+    @Value("${ticketvelo.partitions.archive-batch-size:20}")
+    private int archiveBatchSize;
+
+    public TicketPartitionManager(JdbcTemplate jdbcTemplate, SeatInventory seatInventory, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.seatInventory = seatInventory;
+        this.archived = Counter.builder("ticketvelo.partitions.archived")
+                .description("Ticket partitions of finished events moved to the archive").register(meterRegistry);
+    }
+
+    public static String partitionName(Long eventId) {
+        return "tickets_e" + eventId;
+    }
+
+    // One AVAILABLE ticket per seat of the event's venue, loaded off to the side and then attached.
+    // Runs in the caller's transaction (the event row must already be inserted there).
+    public int loadAvailableTickets(Long eventId) {
+        String partition = partitionName(eventId);
+        jdbcTemplate.execute("create table " + partition + " (like tickets including defaults including constraints)");
+        // One set-based statement: the rows never travel through the JVM; ids come from tickets_id_seq
+        int tickets = jdbcTemplate.update("insert into " + partition + " (event_id, seat_id, status, version) "
+                + "select e.id, s.id, 'AVAILABLE', 0 from events e join seats s on s.venue_id = e.venue_id "
+                + "where e.id = ? order by s.id", eventId);
+        jdbcTemplate.execute("alter table " + partition + " add constraint " + partition + "_event check (event_id = " + eventId + ")");
+        jdbcTemplate.execute("alter table tickets attach partition " + partition + " for values in (" + eventId + ")");
+        return tickets;
+    }
+
+    // An empty partition for tickets that will be inserted one by one (briefly locks `tickets` exclusively)
+    public void createPartition(Long eventId) {
+        jdbcTemplate.execute("create table if not exists " + partitionName(eventId)
+                + " partition of tickets for values in (" + eventId + ")");
+    }
+
+    // Detach and archive the partitions of events that finished a while ago; returns how many were archived
+    @Scheduled(fixedDelayString = "${ticketvelo.partitions.archive-interval-ms:3600000}",
+            initialDelayString = "${ticketvelo.partitions.archive-interval-ms:3600000}")
+    public int archiveFinishedEvents() {
+        try {
+            // DETACH CONCURRENTLY can't run inside a transaction: a plain autocommit connection
+            Integer count = jdbcTemplate.execute((ConnectionCallback<Integer>) this::archiveFinishedEvents);
+            return count == null ? 0 : count;
+        } catch (RuntimeException e) {
+            System.out.println("Archiving ticket partitions failed, will retry: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    private int archiveFinishedEvents(Connection connection) throws SQLException {
+        if (!advisoryLock(connection, "pg_try_advisory_lock")) return 0; // another node is on it
+        try {
+            int count = 0;
+            for (FinishedPartition finished : findFinished(connection)) {
+                String partition = partitionName(finished.eventId());
+                try (Statement statement = connection.createStatement()) {
+                    // A detach interrupted half way leaves the partition "pending": finish that one instead
+                    statement.execute("alter table tickets detach partition " + partition
+                            + (finished.detachPending() ? " finalize" : " concurrently"));
+                    statement.execute("alter table " + partition + " set schema " + ARCHIVE_SCHEMA);
+                }
+                seatInventory.evict(finished.eventId());
+                archived.increment();
+                count++;
+                System.out.println("   -> Archived tickets of finished event " + finished.eventId() + " to "
+                        + ARCHIVE_SCHEMA + "." + partition);
+            }
+            return count;
+        } finally {
+            advisoryLock(connection, "pg_advisory_unlock");
+        }
+    }
+
+    private List<FinishedPartition> findFinished(Connection connection) throws SQLException {
+        List<FinishedPartition> finished = new ArrayList<>();
+        try (PreparedStatement query = connection.prepareStatement("""
+                select e.id, i.inhdetachpending
+                from pg_inherits i
+                join pg_class c on c.oid = i.inhrelid
+                join events e on c.relname = 'tickets_e' || e.id
+                where i.inhparent = 'tickets'::regclass and e.date < ?
+                order by e.date
+                limit ?
+                """)) {
+            query.setTimestamp(1, Timestamp.valueOf(LocalDateTime.now().minusHours(archiveAfterHours)));
+            query.setInt(2, archiveBatchSize);
+            try (ResultSet rows = query.executeQuery()) {
+                while (rows.next()) finished.add(new FinishedPartition(rows.getLong(1), rows.getBoolean(2)));
+            }
+        }
+        return finished;
+    }
+
+    private static boolean advisoryLock(Connection connection, String function) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("select " + function + "(?)")) {
+            statement.setLong(1, ARCHIVE_LOCK_KEY);
+            try (ResultSet result = statement.executeQuery()) {
+                return result.next() && result.getBoolean(1);
+            }
+        }
+    }
+
+    private record FinishedPartition(long eventId, boolean detachPending) {}
+}
@@ -0,0 +1,45 @@
+package com.deepika.ticketvelo.modules.booking.service;
+
+import com.deepika.ticketvelo.modules.booking.event.TicketEvent;
+import com.deepika.ticketvelo.modules.booking.event.TicketEventSerializer;
+import com.deepika.ticketvelo.modules.outbox.service.OutboxService;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+
+// Everything the booking module puts on the "ticket-updates" topic goes through here (via the outbox).
+// One binary TicketEvent per booking / hold / release / cancellation, keyed by eventId so each event's updates stay in order.
+// All methods must run inside the transaction that changed the tickets.
+@Component
+public class TicketUpdatePublisher {
+
+    public static final String TOPIC = "ticket-updates";
+
+    private final OutboxService outboxService;
+    private final TicketEventSerializer serializer = new TicketEventSerializer();
+
+    public TicketUpdatePublisher(OutboxService outboxService) {
+        this.outboxService = outboxService;
+    }
+
+    public void ticketsBooked(Long eventId, Long userId, String holdId, List<Long> ticketIds, List<Long> seatIds) {
+        publish(new TicketEvent(TicketEvent.Type.BOOKED, eventId, userId, holdId, Instant.now(), ticketIds, seatIds));
+    }
+
+    public void seatsHeld(Long eventId, Long userId, String holdId, List<Long> ticketIds, List<Long> seatIds) {
+        publish(new TicketEvent(TicketEvent.Type.HELD, eventId, userId, holdId, Instant.now(), ticketIds, seatIds));
+    }
+
+    public void seatsReleased(Long eventId, Long userId, String holdId, List<Long> ticketIds, List<Long> seatIds) {
+        publish(new TicketEvent(TicketEvent.Type.RELEASED, eventId, userId, holdId, Instant.now(), ticketIds, seatIds));
+    }
+
+    public void ticketsCancelled(Long eventId, Long userId, String holdId, List<Long> ticketIds, List<Long> seatIds) {
+        publish(new TicketEvent(TicketEvent.Type.CANCELLED, eventId, userId, holdId, Instant.now(), ticketIds, seatIds));
+    }
+
+    private void publish(TicketEvent event) {
+        outboxService.publish(TOPIC, String.valueOf(event.eventId()), List.of(serializer.serialize(TOPIC, event)));
+    }
+}
@@ -0,0 +1,113 @@
+package com.deepika.ticketvelo.modules.booking.service;
+
+import com.deepika.ticketvelo.common.exception.SeatBookedException;
+import com.deepika.ticketvelo.modules.booking.repository.TicketRepository;
+import com.deepika.ticketvelo.modules.booking.service.BookingMetrics.Stage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Persists in-memory seat claims to Postgres in batches.
+ *
+ * Every booking that passed the SeatInventory check is queued here; a scheduled flush drains
+ * the queue and writes all pending claims in ONE transaction (one conditional UPDATE plus its outbox rows per claim),
+ * instead of one transaction per request. The caller's future completes only after the batch
+ * commits, so a confirmed booking is always durable.
+ */
+@Component
+public class TicketWriteBehind {
+
+    private final TicketRepository ticketRepository;
+    private final SeatInventory seatInventory;
+    private final TransactionTemplate transactionTemplate;
+    private final TicketUpdatePublisher ticketUpdatePublisher;
+    private final BookingMetrics metrics;
+    private final BlockingQueue<PendingClaim> queue = new LinkedBlockingQueue<>();
+
+    @Value("${ticketvelo.inventory.flush-batch-size:500}")
+    private int batchSize;
+
+    public TicketWriteBehind(TicketRepository ticketRepository, SeatInventory seatInventory,
+                             TransactionTemplate transactionTemplate, TicketUpdatePublisher ticketUpdatePublisher,
+                             BookingMetrics metrics) {
+        this.ticketRepository = ticketRepository;
+        this.seatInventory = seatInventory;
+        this.transactionTemplate = transactionTemplate;
+        this.ticketUpdatePublisher = ticketUpdatePublisher;
+        this.metrics = metrics;
+    }
+
+    public CompletableFuture<Void> submit(SeatInventory.Claim claim, Long userId) {
+        PendingClaim pending = new PendingClaim(claim, userId, new CompletableFuture<>());
+        queue.add(pending);
+        return pending.result();
+    }
+
+    @Scheduled(fixedDelayString = "${ticketvelo.inventory.flush-interval-ms:5}")
+    public void flush() {
+        List<PendingClaim> batch = new ArrayList<>();
+        queue.drainTo(batch, batchSize);
+        if (!batch.isEmpty()) writeBatch(batch);
+    }
+
+    /**
+     * Commits a batch of claims synchronously on the calling thread and completes their futures.
+     * Also used directly by BookingSequencer's partition writers.
+     */
+    public void writeBatch(List<PendingClaim> batch) {
+        long start = System.nanoTime();
+        for (PendingClaim pending : batch) metrics.record(Stage.QUEUE, true, start - pending.enqueuedAtNanos());
+        try {
+            // Fast path: the whole batch in one transaction
+            transactionTemplate.executeWithoutResult(status -> batch.forEach(this::persist));
+            metrics.record(Stage.COMMIT, true, System.nanoTime() - start);
+            metrics.batchCommitted(batch.size());
+            batch.forEach(pending -> pending.result().complete(null));
+        } catch (RuntimeException batchFailure) {
+            metrics.record(Stage.COMMIT, false, System.nanoTime() - start);
+            // Something in the batch was stale; redo each claim on its own to isolate it
+            batch.forEach(this::flushOne);
+        }
+    }
+
+    private void flushOne(PendingClaim pending) {
+        long start = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(status -> persist(pending));
+            metrics.record(Stage.COMMIT, true, System.nanoTime() - start);
+            metrics.batchCommitted(1);
+            pending.result().complete(null);
+        } catch (RuntimeException e) {
+            metrics.record(Stage.COMMIT, false, System.nanoTime() - start);
+            // Postgres disagreed with our memory (e.g. another node got there first): resync
+            seatInventory.evict(pending.claim().getEventId());
+            pending.result().completeExceptionally(e);
+        }
+    }
+
+    private void persist(PendingClaim pending) {
+        SeatInventory.Claim claim = pending.claim();
+        List<Long> seatIds = claim.getSeatIds();
+
+        int claimed = ticketRepository.claimSeats(claim.getEventId(), seatIds, pending.userId());
+        if (claimed != seatIds.size()) {
+            throw new SeatBookedException("One of the seats is already taken!");
+        }
+        // Same transaction: the confirmation messages commit with the booking or not at all
+        ticketUpdatePublisher.ticketsBooked(claim.getEventId(), pending.userId(), null, claim.getTicketIds(), seatIds);
+    }
+
+    public record PendingClaim(SeatInventory.Claim claim, Long userId, CompletableFuture<Void> result, long enqueuedAtNanos) {
+        public PendingClaim(SeatInventory.Claim claim, Long userId, CompletableFuture<Void> result) {
+            this(claim, userId, result, System.nanoTime());
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package com.deepika.ticketvelo.modules.booking.service;
+
+import com.deepika.ticketvelo.common.exception.QueuedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Virtual waiting room in front of the booking endpoints (ticketvelo.admission.*).
+ *
+ * Each event has a token bucket. While it has tokens and nobody is queued, a request goes straight
+ * through; otherwise the caller gets a numbered queue ticket (429 + Retry-After) and retries with
+ * it in the X-Queue-Ticket header. Refill credit serves the queue first: it moves the "admitted up
+ * to" cursor forward, so a queue is just two counters per event, not a list of waiters. A full
+ * queue is shed with a plain 429. All of this is decided in memory, before any Redis or DB work.
+ *
+ * The refill rate follows Little's law: target in-flight bookings / observed booking latency (an
+ * EWMA), split between the events that are busy right now. Slow commits admit fewer people.
+ *
+ * Tickets are per node (HMAC with a per-process key, bound to event and user). A ticket presented
+ * to another node is treated as a new arrival, so put the booking API behind sticky routing.
+ */
+@Component
+public class WaitingRoom {
+
+    public static final String TICKET_HEADER = "X-Queue-Ticket";
+
+    private static final double LATENCY_ALPHA = 0.2;       // EWMA weight of the newest sample
+    private static final long ACTIVE_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(5);
+    private static final long MAX_RETRY_AFTER_SECONDS = 30; // clients re-poll at least this often
+
+    private final boolean enabled;
+    private final double burst;
+    private final double targetConcurrency;
+    private final double minRate;
+    private final double maxRate;
+    private final long maxQueue;
+    private final long ticketTtlNanos;
+
+    private final Map<Long, Room> rooms = new ConcurrentHashMap<>();
+    private final AtomicLong latencyNanos; // EWMA of booking latency, as double bits
+    private volatile int activeRooms = 1;
+    private final SecretKeySpec ticketKey;
+
+    private final Counter admitted;
+    private final Counter queued;
+    private final Counter shed;
+
+    public WaitingRoom(MeterRegistry meterRegistry,
+                       @Value("${ticketvelo.admission.enabled:true}") boolean enabled,
+                       @Value("${ticketvelo.admission.burst:100}") int burst,
+                       @Value("${ticketvelo.admission.target-concurrency:16}") int targetConcurrency,
+                       @Value("${ticketvelo.admission.initial-latency-ms:50}") long initialLatencyMillis,
+                       @Value("${ticketvelo.admission.min-rate:10}") double minRate,
+                       @Value("${ticketvelo.admission.max-rate:2000}") double maxRate,
+                       @Value("${ticketvelo.admission.max-queue:10000}") long maxQueue,
+                       @Value("${ticketvelo.admission.ticket-ttl-ms:60000}") long ticketTtlMillis) {
+        this.enabled = enabled;
+        this.burst = burst;
+        this.targetConcurrency = targetConcurrency;
+        this.minRate = minRate;
+        this.maxRate = maxRate;
+        this.maxQueue = maxQueue;
+        this.ticketTtlNanos = TimeUnit.MILLISECONDS.toNanos(ticketTtlMillis);
+        this.latencyNanos = new AtomicLong(Double.doubleToLongBits(TimeUnit.MILLISECONDS.toNanos(initialLatencyMillis)));
+
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        this.ticketKey = new SecretKeySpec(key, "HmacSHA256");
+
+        this.admitted = Counter.builder("ticketvelo.admission.requests").tag("result", "admitted").register(meterRegistry);
+        this.queued = Counter.builder("ticketvelo.admission.requests").tag("result", "queued").register(meterRegistry);
+        this.shed = Counter.builder("ticketvelo.admission.requests").tag("result", "shed").register(meterRegistry);
+        Gauge.builder("ticketvelo.admission.queue.depth", this, WaitingRoom::queueDepth)
+                .description("Queue tickets issued but not yet admitted, all events")
+                .register(meterRegistry);
+        Gauge.builder("ticketvelo.admission.rate", this, WaitingRoom::admitRate)
+                .description("Bookings admitted per second (all events), from the observed latency")
+                .register(meterRegistry);
+        Gauge.builder("ticketvelo.admission.latency", this, room -> room.latencySeconds())
+                .description("EWMA of admitted booking latency")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    // Runs the booking if the caller is admitted; otherwise throws QueuedException (429)
+    public <T> T run(Long eventId, Long userId, String ticket, Supplier<T> work) {
+        if (!enabled) return work.get();
+
+        Admission admission = admit(eventId, userId, ticket, System.nanoTime());
+        boolean succeeded = false;
+        try {
+            T result = work.get();
+            succeeded = true;
+            return result;
+        } finally {
+            admission.complete(succeeded, System.nanoTime());
+        }
+    }
+
+    Admission admit(Long eventId, Long userId, String ticket, long now) {
+        Room room = rooms.computeIfAbsent(eventId, id -> new Room(now));
+        Ticket presented = ticket == null ? null : Ticket.parse(ticket);
+        if (presented != null && !MessageDigest.isEqual(presented.signature().getBytes(StandardCharsets.US_ASCII),
+                sign(eventId, userId, presented.number(), presented.issuedAt()).getBytes(StandardCharsets.US_ASCII))) {
+            presented = null; // forged, another event/user, or from another node: a new arrival
+        }
+        if (presented != null && now - presented.issuedAt() > ticketTtlNanos) presented = null; // abandoned
+
+        room.lock.lock(); // not synchronized: keeps virtual threads unpinned
+        try {
+            room.lastActivity = now;
+            room.refill(now, admitRate() / activeRooms, burst);
+
+            // A ticket already spent (or in use by a concurrent request) counts as no ticket
+            if (presented != null && presented.number() <= room.issued && !room.redeemed.containsKey(presented.number())) {
+                long number = presented.number();
+                if (number <= room.admittedUpTo) {
+                    // Our turn came. One booking at a time per ticket; it's spent once a booking succeeds.
+                    room.redeemed.put(number, presented.issuedAt());
+                    admitted.increment();
+                    return new Admission(room, number, now);
+                }
+                // Still waiting: same place in line, fresh ticket so it doesn't expire while polling
+                throw queuedAt(room, eventId, userId, number, now);
+            }
+
+            // No (valid) ticket: go straight through only if nobody is queued ahead of us
+            if (room.issued == room.admittedUpTo && room.credit >= 1) {
+                room.credit -= 1;
+                admitted.increment();
+                return new Admission(room, 0, now);
+            }
+            if (room.issued - room.admittedUpTo >= maxQueue) {
+                shed.increment();
+                throw rejected("The waiting room for this event is full, please retry later.", null, 0,
+                        etaMillis(room.issued - room.admittedUpTo));
+            }
+            queued.increment();
+            throw queuedAt(room, eventId, userId, ++room.issued, now);
+        } finally {
+            room.lock.unlock();
+        }
+    }
+
+    private QueuedException queuedAt(Room room, Long eventId, Long userId, long number, long now) {
+        long position = number - room.admittedUpTo;
+        String ticket = number + "." + now + "." + sign(eventId, userId, number, now);
+        return rejected("You are in the waiting room (position " + position + ").", ticket, position, etaMillis(position));
+    }
+
+    private QueuedException rejected(String message, String ticket, long position, long etaMillis) {
+        long retryAfter = Math.clamp((etaMillis + 999) / 1000, 1, MAX_RETRY_AFTER_SECONDS);
+        return new QueuedException(message, ticket, position, etaMillis, retryAfter);
+    }
+
+    private long etaMillis(long position) {
+        return (long) Math.ceil(position * 1000.0 * activeRooms / admitRate());
+    }
+
+    // Little's law: throughput = concurrency / latency, kept inside [min-rate, max-rate]
+    double admitRate() {
+        return Math.clamp(targetConcurrency / latencySeconds(), minRate, maxRate);
+    }
+
+    double latencySeconds() {
+        return Double.longBitsToDouble(latencyNanos.get()) / 1e9;
+    }
+
+    private void recordLatency(long nanos) {
+        latencyNanos.getAndUpdate(bits -> {
+            double current = Double.longBitsToDouble(bits);
+            return Double.doubleToLongBits(current + LATENCY_ALPHA * (nanos - current));
+        });
+    }
+
+    long queueDepth() {
+        long depth = 0;
+        for (Room room : rooms.values()) depth += Math.max(0, room.issued - room.admittedUpTo);
+        return depth;
+    }
+
+    // Recount busy events (they share the admit rate) and forget idle rooms and spent tickets
+    @Scheduled(fixedDelayString = "${ticketvelo.admission.maintain-interval-ms:1000}")
+    public void maintain() {
+        maintain(System.nanoTime());
+    }
+
+    void maintain(long now) {
+        int active = 0;
+        for (Map.Entry<Long, Room> entry : rooms.entrySet()) {
+            Room room = entry.getValue();
+            room.lock.lock();
+            try {
+                if (now - room.lastActivity <= ACTIVE_WINDOW_NANOS || room.issued > room.admittedUpTo) active++;
+                room.redeemed.values().removeIf(issuedAt -> now - issuedAt > ticketTtlNanos);
+                // Idle longer than a ticket lives: nothing can refer to this room's numbers any more
+                if (room.issued == room.admittedUpTo && room.redeemed.isEmpty() && now - room.lastActivity > ticketTtlNanos) {
+                    rooms.remove(entry.getKey(), room);
+                }
+            } finally {
+                room.lock.unlock();
+            }
+        }
+        activeRooms = Math.max(1, active);
+    }
+
+    private String sign(Long eventId, Long userId, long number, long issuedAt) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(ticketKey);
+            byte[] digest = mac.doFinal((eventId + ":" + userId + ":" + number + ":" + issuedAt).getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 16));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 unavailable", e);
+        }
+    }
+
+    // A granted admission; complete() feeds the latency EWMA and spends (or frees) the ticket
+    final class Admission {
+        private final Room room;
+        private final long ticket; // 0 = admitted straight from the bucket
+        private final long startedAt;
+
+        Admission(Room room, long ticket, long startedAt) {
+            this.room = room;
+            this.ticket = ticket;
+            this.startedAt = startedAt;
+        }
+
+        void complete(boolean succeeded, long now) {
+            recordLatency(now - startedAt);
+            if (ticket == 0 || succeeded) return;
+            // Failed (e.g. the seat was just taken): the ticket can be used again to pick other seats
+            room.lock.lock();
+            try {
+                room.redeemed.remove(ticket);
+            } finally {
+                room.lock.unlock();
+            }
+        }
+    }
+
+    // One event's bucket and queue. Guarded by lock.
+    private static final class Room {
+        final ReentrantLock lock = new ReentrantLock();
+        final Map<Long, Long> redeemed = new HashMap<>(); // ticket number -> issuedAt, in use or spent
+        double credit;
+        long issued;       // last ticket number handed out
+        long admittedUpTo; // tickets <= this may book
+        long lastRefill;
+        long lastActivity;
+
+        Room(long now) {
+            this.lastRefill = now;
+            this.lastActivity = now;
+            this.credit = 1; // the first request never waits
+        }
+
+        // Credit goes to the queue first; whatever is left fills the bucket, up to the burst size
+        void refill(long now, double ratePerSecond, double burst) {
+            credit += (now - lastRefill) / 1e9 * ratePerSecond;
+            lastRefill = now;
+            long advance = Math.min(issued - admittedUpTo, (long) credit);
+            admittedUpTo += advance;
+            credit = Math.min(credit - advance, burst);
+        }
+    }
+
+    private record Ticket(long number, long issuedAt, String signature) {
+        static Ticket parse(String value) {
+            String[] parts = value.split("\\.");
+            if (parts.length != 3) return null;
+            try {
+                return new Ticket(Long.parseLong(parts[0]), Long.parseLong(parts[1]), parts[2]);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    }
+}
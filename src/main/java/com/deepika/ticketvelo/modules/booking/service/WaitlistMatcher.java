@@ -0,0 +1,236 @@
+package com.deepika.ticketvelo.modules.booking.service;
+
+import com.deepika.ticketvelo.common.concurrency.ConcurrencyLimits;
+import com.deepika.ticketvelo.modules.booking.model.TicketSeatRow;
+import com.deepika.ticketvelo.modules.booking.model.WaitlistEntry;
+import com.deepika.ticketvelo.modules.booking.repository.TicketRepository;
+import com.deepika.ticketvelo.modules.booking.repository.WaitlistRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands seats freed by cancellations to the event's waitlist, so they go to the people already
+ * waiting instead of to whoever polls the seat map fastest.
+ *
+ * Released seats queue up here and are drained every match-interval-ms, all of an event's seats
+ * together: waiting entries are read oldest first and each takes the first `quantity` pooled seats
+ * of its section (first fit, so one large request can't hold up everyone behind it). Every match is
+ * one transaction: lock the entry (SKIP LOCKED, so two nodes never fill the same one), book the
+ * seats to its user while their release hold is still live, mark it FULFILLED, outbox the BOOKED
+ * event (which is what notifies the user). Seats nobody could take go on sale in one UPDATE.
+ *
+ * The drain has its own thread: a busy @Scheduled pool must not leave seats held for nobody.
+ * Anything left behind (this node died, the hold ran out first) is freed by hold expiry.
+ */
+@Component
+public class WaitlistMatcher {
+
+    private static final String WAITING = "WAITING";
+
+    private final TicketRepository ticketRepository;
+    private final WaitlistRepository waitlistRepository;
+    private final SeatInventory seatInventory;
+    private final TicketUpdatePublisher ticketUpdatePublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ConcurrencyLimits concurrencyLimits;
+    private final ConcurrentLinkedQueue<Released> released = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingSeats = new AtomicInteger();
+    private final Counter matches;
+    private final Counter matchedSeats;
+    private final Counter freedSeats;
+    private final Timer matchTime;
+    private final ScheduledExecutorService drainer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "waitlist-matcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${ticketvelo.waitlist.scan-page-size:200}")
+    private int scanPageSize;
+
+    @Value("${ticketvelo.cancellation.batch-size:1000}")
+    private int batchSize;
+
+    public WaitlistMatcher(TicketRepository ticketRepository, WaitlistRepository waitlistRepository, SeatInventory seatInventory,
+                           TicketUpdatePublisher ticketUpdatePublisher, TransactionTemplate transactionTemplate,
+                           ConcurrencyLimits concurrencyLimits, MeterRegistry meterRegistry,
+                           @Value("${ticketvelo.waitlist.match-interval-ms:20}") long matchIntervalMillis) {
+        this.ticketRepository = ticketRepository;
+        this.waitlistRepository = waitlistRepository;
+        this.seatInventory = seatInventory;
+        this.ticketUpdatePublisher = ticketUpdatePublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.concurrencyLimits = concurrencyLimits;
+        this.matches = Counter.builder("ticketvelo.waitlist.matches")
+                .description("Waitlist entries filled with released seats").register(meterRegistry);
+        this.matchedSeats = releasedSeats(meterRegistry, "matched");
+        this.freedSeats = releasedSeats(meterRegistry, "on_sale");
+        this.matchTime = Timer.builder("ticketvelo.waitlist.match.duration")
+                .description("One waitlist match transaction")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("ticketvelo.waitlist.pending.seats", pendingSeats, AtomicInteger::get)
+                .description("Released seats waiting for the matcher").register(meterRegistry);
+        drainer.scheduleWithFixedDelay(this::drain, matchIntervalMillis, matchIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private static Counter releasedSeats(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("ticketvelo.waitlist.released.seats").tag("outcome", outcome)
+                .description("Cancelled seats offered to the waitlist, by where they went").register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        drainer.shutdownNow();
+    }
+
+    // Seats a committed cancellation holds for the waitlist under holdId until heldUntilMillis
+    public void offer(Long eventId, String holdId, long heldUntilMillis, List<TicketSeatRow> rows) {
+        released.add(new Released(eventId, holdId, heldUntilMillis, rows));
+        pendingSeats.addAndGet(rows.size());
+    }
+
+    void drain() {
+        Map<Long, List<Released>> byEvent = new LinkedHashMap<>();
+        for (Released batch; (batch = released.poll()) != null; ) {
+            pendingSeats.addAndGet(-batch.rows().size());
+            byEvent.computeIfAbsent(batch.eventId(), id -> new ArrayList<>()).add(batch);
+        }
+        byEvent.forEach((eventId, batches) -> {
+            try {
+                matchEvent(eventId, batches);
+            } catch (RuntimeException e) { // never let an exception end the drain schedule; the holds expire on their own
+                System.out.println("Waitlist matching failed for event " + eventId + ", seats go on sale when their hold expires: " + e.getMessage());
+            }
+        });
+    }
+
+    private void matchEvent(Long eventId, List<Released> batches) {
+        long now = System.currentTimeMillis();
+        List<PooledSeat> pool = new ArrayList<>();
+        for (Released batch : batches) {
+            if (batch.heldUntilMillis() <= now) continue; // already back on sale (or about to be) through expiry
+            for (TicketSeatRow row : batch.rows()) pool.add(new PooledSeat(row, batch));
+        }
+        pool.sort(Comparator.comparingLong(seat -> seat.row().seatId())); // neighbours end up in the same match
+
+        // Oldest entries first, a page at a time, until the pool is empty or nobody else is waiting
+        long afterId = 0;
+        while (!pool.isEmpty()) {
+            List<WaitlistEntry> page = waitlistRepository.findByEventIdAndStatusAndIdGreaterThanOrderByIdAsc(
+                    eventId, WAITING, afterId, Limit.of(scanPageSize));
+            for (WaitlistEntry entry : page) {
+                afterId = entry.getId();
+                List<PooledSeat> seats = firstFit(pool, entry);
+                if (seats == null) continue;
+                Boolean matched = match(eventId, entry, seats);
+                if (matched == null) dropExpired(pool, seats);
+                else if (matched) pool.removeAll(seats);
+                if (pool.isEmpty()) break;
+            }
+            if (page.size() < scanPageSize) break;
+        }
+        if (!pool.isEmpty()) putOnSale(eventId, pool);
+    }
+
+    // A match found a release hold gone: drop the seats of batches past their deadline (expiry has them
+    // now) and keep the others, whose holds are still live. If none of the picked seats' batches has
+    // passed its deadline by our clock, leave those seats to expiry, so the next entry doesn't hit them too.
+    private static void dropExpired(List<PooledSeat> pool, List<PooledSeat> picked) {
+        long now = System.currentTimeMillis();
+        if (picked.stream().noneMatch(seat -> seat.batch().heldUntilMillis() <= now)) pool.removeAll(picked);
+        pool.removeIf(seat -> seat.batch().heldUntilMillis() <= now);
+    }
+
+    // The first `quantity` pooled seats in the entry's section (any section if it has none), or null
+    private static List<PooledSeat> firstFit(List<PooledSeat> pool, WaitlistEntry entry) {
+        List<PooledSeat> seats = new ArrayList<>(entry.getQuantity());
+        for (PooledSeat seat : pool) {
+            if (entry.getSection() != null && !entry.getSection().equals(seat.row().section())) continue;
+            seats.add(seat);
+            if (seats.size() == entry.getQuantity()) return seats;
+        }
+        return null;
+    }
+
+    // One transaction per match. TRUE = booked to the entry's user, FALSE = entry no longer
+    // available (left, or being matched elsewhere), null = the seats' release hold is gone
+    private Boolean match(Long eventId, WaitlistEntry candidate, List<PooledSeat> seats) {
+        List<Long> ticketIds = seats.stream().map(seat -> seat.row().ticketId()).toList();
+        List<Long> seatIds = seats.stream().map(seat -> seat.row().seatId()).toList();
+        Set<String> holdIds = new HashSet<>();
+        for (PooledSeat seat : seats) holdIds.add(seat.batch().holdId());
+
+        long start = System.nanoTime();
+        Boolean matched = concurrencyLimits.withDatabase(() -> transactionTemplate.execute(status -> {
+            WaitlistEntry entry = waitlistRepository.lockWaiting(candidate.getId()).orElse(null);
+            if (entry == null) return false;
+
+            entry.setStatus("FULFILLED");
+            entry.setFulfilledAt(Instant.now()); // flushed by the UPDATE below, before it clears the context
+            if (ticketRepository.assignReleasedSeats(eventId, ticketIds, holdIds, entry.getUserId(), Instant.now()) != ticketIds.size()) {
+                status.setRollbackOnly();
+                return null;
+            }
+            // Same transaction: the confirmation (and so the user's notification) commits with the match
+            ticketUpdatePublisher.ticketsBooked(eventId, entry.getUserId(), null, ticketIds, seatIds);
+            return true;
+        }));
+        matchTime.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        if (Boolean.TRUE.equals(matched)) {
+            seatInventory.confirmHold(eventId, seatIds, candidate.getUserId());
+            matches.increment();
+            matchedSeats.increment(seats.size());
+        }
+        return matched;
+    }
+
+    // Seats nobody on the waitlist could take: on sale, bounded UPDATEs in one transaction
+    private void putOnSale(Long eventId, List<PooledSeat> seats) {
+        List<Long> ticketIds = seats.stream().map(seat -> seat.row().ticketId()).toList();
+        List<Long> seatIds = seats.stream().map(seat -> seat.row().seatId()).toList();
+        Set<String> holdIds = new HashSet<>();
+        for (PooledSeat seat : seats) holdIds.add(seat.batch().holdId());
+
+        concurrencyLimits.withDatabase(() -> transactionTemplate.execute(status -> {
+            for (int from = 0; from < ticketIds.size(); from += batchSize) {
+                ticketRepository.freeReleasedSeats(eventId, ticketIds.subList(from, Math.min(from + batchSize, ticketIds.size())), holdIds);
+            }
+            ticketUpdatePublisher.seatsReleased(eventId, null, null, ticketIds, seatIds);
+            return null;
+        }));
+
+        // Memory, on every node: per release batch, since each has its own deadline
+        Map<Released, List<Long>> byBatch = new IdentityHashMap<>();
+        for (PooledSeat seat : seats) byBatch.computeIfAbsent(seat.batch(), batch -> new ArrayList<>()).add(seat.row().seatId());
+        byBatch.forEach((batch, batchSeatIds) -> seatInventory.releaseHold(eventId, batchSeatIds, batch.heldUntilMillis()));
+        freedSeats.increment(seats.size());
+    }
+
+    private record Released(Long eventId, String holdId, long heldUntilMillis, List<TicketSeatRow> rows) {}
+
+    private record PooledSeat(TicketSeatRow row, Released batch) {}
+}
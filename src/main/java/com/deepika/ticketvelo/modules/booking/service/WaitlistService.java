@@ -0,0 +1,77 @@
+package com.deepika.ticketvelo.modules.booking.service;
+
+import com.deepika.ticketvelo.common.exception.ResourceNotFoundException;
+import com.deepika.ticketvelo.common.exception.TicketVeloException;
+import com.deepika.ticketvelo.modules.booking.model.WaitlistEntry;
+import com.deepika.ticketvelo.modules.booking.model.WaitlistEntryView;
+import com.deepika.ticketvelo.modules.booking.repository.WaitlistRepository;
+import com.deepika.ticketvelo.modules.catalog.repository.EventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+
+/**
+ * Joining and leaving an event's waitlist. Users don't poll for freed seats: WaitlistMatcher books
+ * them in arrival order as cancellations come in, and the BOOKED event notifies them.
+ * One waiting entry per user and event (enforced by a unique partial index).
+ */
+@Service
+public class WaitlistService {
+
+    private final WaitlistRepository waitlistRepository;
+    private final EventRepository eventRepository;
+    private final Counter joined;
+    private final Counter left;
+
+    @Value("${ticketvelo.waitlist.max-quantity:8}")
+    private int maxQuantity;
+
+    public WaitlistService(WaitlistRepository waitlistRepository, EventRepository eventRepository, MeterRegistry meterRegistry) {
+        this.waitlistRepository = waitlistRepository;
+        this.eventRepository = eventRepository;
+        this.joined = Counter.builder("ticketvelo.waitlist.joined").description("Waitlist entries created").register(meterRegistry);
+        this.left = Counter.builder("ticketvelo.waitlist.left").description("Waitlist entries withdrawn by their user").register(meterRegistry);
+    }
+
+    public WaitlistEntryView join(Long eventId, int quantity, String section, Long userId) {
+        if (quantity < 1 || quantity > maxQuantity) {
+            throw new TicketVeloException("Quantity must be between 1 and " + maxQuantity, HttpStatus.BAD_REQUEST);
+        }
+        if (eventId == null || !eventRepository.existsById(eventId)) throw new ResourceNotFoundException("Event not found: " + eventId);
+
+        WaitlistEntry entry = new WaitlistEntry();
+        entry.setEventId(eventId);
+        entry.setUserId(userId);
+        entry.setQuantity(quantity);
+        entry.setSection(section);
+        entry.setStatus("WAITING");
+        entry.setCreatedAt(Instant.now());
+        try {
+            waitlistRepository.save(entry);
+        } catch (DataIntegrityViolationException e) {
+            throw new TicketVeloException("You are already on the waitlist for event " + eventId, HttpStatus.CONFLICT);
+        }
+        joined.increment();
+        return WaitlistEntryView.of(entry, waitlistRepository.positionOf(eventId, entry.getId()));
+    }
+
+    public WaitlistEntryView get(Long entryId, Long userId) {
+        WaitlistEntry entry = waitlistRepository.findById(entryId)
+                .filter(found -> found.getUserId().equals(userId))
+                .orElseThrow(() -> new ResourceNotFoundException("Waitlist entry not found: " + entryId));
+        Long position = "WAITING".equals(entry.getStatus()) ? waitlistRepository.positionOf(entry.getEventId(), entryId) : null;
+        return WaitlistEntryView.of(entry, position);
+    }
+
+    public void leave(Long entryId, Long userId) {
+        if (waitlistRepository.cancelWaiting(entryId, userId) == 0) {
+            throw new ResourceNotFoundException("No waiting entry " + entryId + " (already matched, left, or not yours)");
+        }
+        left.increment();
+    }
+}
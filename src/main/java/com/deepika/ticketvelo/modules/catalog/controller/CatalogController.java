@@ -1,47 +1,107 @@
 package com.deepika.ticketvelo.modules.catalog.controller;
 
 import com.deepika.ticketvelo.modules.catalog.model.Event;
+import com.deepika.ticketvelo.modules.catalog.model.EventSearchHit;
 import com.deepika.ticketvelo.modules.catalog.model.Venue;
 import com.deepika.ticketvelo.modules.catalog.repository.EventRepository;
 import com.deepika.ticketvelo.modules.catalog.repository.VenueRepository;
+import com.deepika.ticketvelo.modules.catalog.service.CatalogCache;
+import com.deepika.ticketvelo.modules.catalog.service.EventSearchIndex;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.http.HttpStatus;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/catalog") // Base URL for this controller
 public class CatalogController {
 
+    // Response header carrying the cursor for the next page (absent on the last page)
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     @Autowired
     private VenueRepository venueRepository;
 
     @Autowired
     private EventRepository eventRepository;
 
+    @Autowired
+    private CatalogCache catalogCache;
+
+    @Autowired
+    private EventSearchIndex eventSearchIndex;
+
+    @Value("${ticketvelo.catalog.page-size:50}")
+    private int defaultPageSize;
+
+    @Value("${ticketvelo.catalog.max-page-size:200}")
+    private int maxPageSize;
+
     // 1. Create a Venue
     @PostMapping("/venues")
     public Venue createVenue(@RequestBody Venue venue) {
-        return venueRepository.save(venue);
+        Venue saved = venueRepository.save(venue);
+        catalogCache.invalidateAll(); // events embed their venue
+        return saved;
     }
 
     // 2. Create an Event
     @PostMapping("/events")
     public Event createEvent(@RequestBody Event event) {
-        return eventRepository.save(event);
+        Event saved = eventRepository.save(event);
+        catalogCache.invalidateAll();
+        return saved;
     }
 
-    // 3. See all Events
+    // 3. See all Events. With ?after= and/or ?limit= it's one keyset page at a time (pass the X-Next-Cursor
+    //    value back as ?after=); with neither, the whole list as before
     @GetMapping("/events")
-    public List<Event> getAllEvents() {
-        return eventRepository.findAll();
+    public ResponseEntity<List<Event>> getAllEvents(@RequestParam(required = false) Long after,
+                                                    @RequestParam(required = false) Integer limit) {
+        if (after == null && limit == null) {
+            Event[] all = catalogCache.get("events:all", Event[].class,
+                    () -> eventRepository.findAllByOrderByIdAsc().toArray(Event[]::new));
+            return ResponseEntity.ok(List.of(all));
+        }
+
+        long from = after == null ? 0 : after;
+        int pageSize = Math.clamp(limit == null ? defaultPageSize : limit, 1, maxPageSize);
+        Event[] page = catalogCache.get("events:after:" + from + ":limit:" + pageSize, Event[].class,
+                () -> eventRepository.findByIdGreaterThanOrderByIdAsc(from, Limit.of(pageSize)).toArray(Event[]::new));
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.length == pageSize) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(page[page.length - 1].getId()));
+        }
+        return response.body(List.of(page));
+    }
+
+    // 4. Search (typeahead): every word of q as a prefix of a title / venue name / address word, within [from, to],
+    //    soonest first. Served from the in-memory EventSearchIndex; pages work like /events (X-Next-Cursor -> ?after=)
+    @GetMapping("/events/search")
+    public ResponseEntity<List<EventSearchHit>> searchEvents(@RequestParam(required = false) String q,
+                                                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                             @RequestParam(required = false) Long after,
+                                                             @RequestParam(defaultValue = "${ticketvelo.catalog.page-size:50}") int limit) {
+        EventSearchIndex.Page page = eventSearchIndex.search(q, from, to, after, Math.clamp(limit, 1, maxPageSize));
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) response.header(NEXT_CURSOR_HEADER, String.valueOf(page.nextCursor()));
+        return response.body(page.hits());
     }
 
     @GetMapping("/events/{id}")
     public Event getEventById(@PathVariable Long id) {
-        return eventRepository.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Event not found"));
+        Event event = catalogCache.get("event:" + id, Event.class, () -> eventRepository.findById(id).orElse(null));
+        if (event == null) throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Event not found");
+        return event;
     }
-}
\ No newline at end of file
+}
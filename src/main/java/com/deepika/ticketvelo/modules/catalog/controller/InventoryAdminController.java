@@ -0,0 +1,112 @@
+package com.deepika.ticketvelo.modules.catalog.controller;
+
+import com.deepika.ticketvelo.common.exception.ResourceNotFoundException;
+import com.deepika.ticketvelo.common.exception.TicketVeloException;
+import com.deepika.ticketvelo.modules.booking.model.CancellationView;
+import com.deepika.ticketvelo.modules.booking.service.BookingStrategies;
+import com.deepika.ticketvelo.modules.booking.service.CancellationService;
+import com.deepika.ticketvelo.modules.catalog.model.InventoryLoadReport;
+import com.deepika.ticketvelo.modules.catalog.repository.EventRepository;
+import com.deepika.ticketvelo.modules.catalog.service.CatalogCache;
+import com.deepika.ticketvelo.modules.catalog.service.InventoryLoader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Bulk inventory loading. Off unless ticketvelo.admin.api-key is set; callers send it as X-Admin-Key.
+@RestController
+@RequestMapping("/api/admin/inventory")
+public class InventoryAdminController {
+
+    private final InventoryLoader inventoryLoader;
+    private final BookingStrategies bookingStrategies;
+    private final EventRepository eventRepository;
+    private final CatalogCache catalogCache;
+    private final CancellationService cancellationService;
+    private final byte[] apiKey;
+
+    @Value("${ticketvelo.loader.max-events-per-request:1000}")
+    private int maxEventsPerRequest;
+
+    public InventoryAdminController(InventoryLoader inventoryLoader, BookingStrategies bookingStrategies,
+                                    EventRepository eventRepository, CatalogCache catalogCache,
+                                    CancellationService cancellationService, @Value("${ticketvelo.admin.api-key:}") String apiKey) {
+        this.inventoryLoader = inventoryLoader;
+        this.bookingStrategies = bookingStrategies;
+        this.eventRepository = eventRepository;
+        this.catalogCache = catalogCache;
+        this.cancellationService = cancellationService;
+        this.apiKey = apiKey.getBytes(StandardCharsets.UTF_8);
+    }
+
+    // 1. A venue and all its seats (sections x rows x seats, e.g. 10 x 40 x 250 = a 100k-seat stadium)
+    @PostMapping("/venues")
+    public InventoryLoadReport createVenue(@RequestBody VenueRequest request, @RequestHeader(name = "X-Admin-Key", required = false) String key) {
+        authorize(key);
+        return inventoryLoader.createVenue(request.name(), request.address(),
+                request.sections() == null ? 1 : request.sections(), request.rowsPerSection(), request.seatsPerRow());
+    }
+
+    public record VenueRequest(String name, String address, Integer sections, int rowsPerSection, int seatsPerRow) {}
+
+    // 2. One event (or `count` numbered copies of it) at an existing venue, with its full ticket inventory
+    @PostMapping("/venues/{venueId}/events")
+    public InventoryLoadReport createEvents(@PathVariable Long venueId, @RequestBody EventRequest request,
+                                            @RequestHeader(name = "X-Admin-Key", required = false) String key) {
+        authorize(key);
+        int count = request.count() == null ? 1 : request.count();
+        if (count < 1 || count > maxEventsPerRequest) {
+            throw new TicketVeloException("count must be between 1 and " + maxEventsPerRequest, HttpStatus.BAD_REQUEST);
+        }
+        LocalDateTime date = request.date() == null ? LocalDateTime.now().plusDays(30) : request.date();
+        String bookingStrategy = bookingStrategies.require(request.bookingStrategy());
+
+        List<InventoryLoader.EventSpec> events = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String title = count == 1 ? request.title() : request.title() + " #" + (i + 1);
+            events.add(new InventoryLoader.EventSpec(title, date.plusDays(i), bookingStrategy));
+        }
+        return inventoryLoader.createEvents(venueId, events);
+    }
+
+    public record EventRequest(String title, LocalDateTime date, Integer count, String bookingStrategy) {}
+
+    // 3. Switch an event's booking strategy (null = back to ticketvelo.booking.default-strategy)
+    @PutMapping("/events/{eventId}/booking-strategy")
+    public BookingStrategyRequest setBookingStrategy(@PathVariable Long eventId, @RequestBody BookingStrategyRequest request,
+                                                     @RequestHeader(name = "X-Admin-Key", required = false) String key) {
+        authorize(key);
+        String strategy = bookingStrategies.require(request.strategy());
+        if (eventRepository.updateBookingStrategy(eventId, strategy) == 0) {
+            throw new ResourceNotFoundException("Event not found: " + eventId);
+        }
+        catalogCache.invalidateAll(); // every node re-reads the event, and with it the strategy
+        return request;
+    }
+
+    public record BookingStrategyRequest(String strategy) {}
+
+    // 4. Cancel every booked seat of a section (e.g. it was oversold or closed); the waitlist gets them first
+    @PostMapping("/events/{eventId}/release")
+    public CancellationView releaseSection(@PathVariable Long eventId, @RequestBody ReleaseRequest request,
+                                           @RequestHeader(name = "X-Admin-Key", required = false) String key) {
+        authorize(key);
+        if (request.section() == null) throw new TicketVeloException("section is required", HttpStatus.BAD_REQUEST);
+        return cancellationService.releaseSection(eventId, request.section());
+    }
+
+    public record ReleaseRequest(String section) {}
+
+    private void authorize(String key) {
+        if (apiKey.length == 0) throw new TicketVeloException("Admin API is disabled", HttpStatus.NOT_FOUND);
+        if (key == null || !MessageDigest.isEqual(apiKey, key.getBytes(StandardCharsets.UTF_8))) {
+            throw new TicketVeloException("Invalid admin key", HttpStatus.FORBIDDEN);
+        }
+    }
+}
@@ -20,4 +20,7 @@ public class Event {
     @ManyToOne // 1. Relationship: One Venue hosts Many Events
     @JoinColumn(name = "venue_id") // 2. Creates a "Foreign Key" column in the database
     private Venue venue;
+
+    // How bookings for this event claim seats (see BookingStrategies); null = ticketvelo.booking.default-strategy
+    private String bookingStrategy;
 }
\ No newline at end of file
@@ -0,0 +1,6 @@
+package com.deepika.ticketvelo.modules.catalog.model;
+
+import java.time.LocalDateTime;
+
+// What /api/catalog/events/search returns per event: just what a result list shows, no entity graph
+public record EventSearchHit(Long id, String title, LocalDateTime date, Long venueId, String venueName, String venueAddress) {}
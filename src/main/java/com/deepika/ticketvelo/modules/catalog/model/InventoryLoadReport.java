@@ -0,0 +1,6 @@
+package com.deepika.ticketvelo.modules.catalog.model;
+
+import java.util.List;
+
+// Result of a bulk load: what was created and how fast (seats + tickets per second)
+public record InventoryLoadReport(Long venueId, List<Long> eventIds, long seats, long tickets, long millis, long rowsPerSecond) {}
@@ -1,9 +1,39 @@
 package com.deepika.ticketvelo.modules.catalog.repository;
 
 import com.deepika.ticketvelo.modules.catalog.model.Event;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
 
 @Repository
 public interface EventRepository extends JpaRepository<Event, Long> {
-}
\ No newline at end of file
+
+    // Keyset page: the next `limit` events after a given id (seeks the PK index, no OFFSET scan).
+    // Venue is fetched in the same query instead of one select per venue. Read-only: may use a replica.
+    @Transactional(readOnly = true)
+    @EntityGraph(attributePaths = "venue")
+    List<Event> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    // Every event, venue fetched in the same query (the unpaged listing)
+    @Transactional(readOnly = true)
+    @EntityGraph(attributePaths = "venue")
+    List<Event> findAllByOrderByIdAsc();
+
+    // Keyset page of ids only (the search index's check for deleted events)
+    @Transactional(readOnly = true)
+    @Query("select e.id from Event e where e.id > :afterId order by e.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    // Per-event booking strategy (null = the configured default); returns 0 if there is no such event
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update Event e set e.bookingStrategy = :strategy where e.id = :id")
+    int updateBookingStrategy(@Param("id") Long id, @Param("strategy") String strategy);
+}
@@ -0,0 +1,165 @@
+package com.deepika.ticketvelo.modules.catalog.service;
+
+import com.deepika.ticketvelo.config.datasource.ReplicaRoutingDataSource;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Two-tier read-through cache for the catalog: a bounded Caffeine cache per node in front of a
+ * shared Redis tier, in front of Postgres.
+ *
+ * Every key carries the catalog "generation". A write bumps the generation in Redis and publishes
+ * it on {@link #CHANNEL}; each node then switches to the new generation and drops its local
+ * entries. Entries cached under an older generation are simply never read again (Redis expires
+ * them), so a reader racing a writer can't resurrect stale data. Pub/sub is fire-and-forget, so
+ * the generation is also re-polled on a timer to bound staleness after a missed message.
+ *
+ * Redis is an optimisation here: if it's unavailable we fall back to the database.
+ *
+ * With read replicas, loads right after a generation change read from the primary: a lagging
+ * replica would otherwise put pre-write data into the new generation for a whole TTL.
+ */
+@Component
+public class CatalogCache implements MessageListener {
+
+    public static final String CHANNEL = "catalog:invalidate";
+    private static final String GENERATION_KEY = "catalog:generation";
+
+    private final StringRedisTemplate redisTemplate;
+    private final JsonMapper jsonMapper;
+    private final Cache<String, Object> local;
+    private final Duration redisTtl;
+    private final Counter redisHits;
+    private final Counter redisMisses;
+
+    private final List<Runnable> generationListeners = new CopyOnWriteArrayList<>();
+    private final AtomicLong generation = new AtomicLong();
+    private volatile long generationChangedAt;
+
+    @Value("${ticketvelo.datasource.pin-after-write-ms:5000}")
+    private long pinAfterWriteMillis;
+
+    public CatalogCache(StringRedisTemplate redisTemplate, JsonMapper jsonMapper, MeterRegistry meterRegistry,
+                        @Value("${ticketvelo.catalog.local-max-entries:1000}") long localMaxEntries,
+                        @Value("${ticketvelo.catalog.local-ttl-ms:60000}") long localTtlMillis,
+                        @Value("${ticketvelo.catalog.redis-ttl-ms:600000}") long redisTtlMillis) {
+        this.redisTemplate = redisTemplate;
+        this.jsonMapper = jsonMapper;
+        this.redisTtl = Duration.ofMillis(redisTtlMillis);
+        this.local = Caffeine.newBuilder()
+                .maximumSize(localMaxEntries)
+                .expireAfterWrite(Duration.ofMillis(localTtlMillis))
+                .recordStats()
+                .build();
+
+        // Local tier: cache.gets{result=hit|miss}, cache.evictions, cache.size ... tagged cache=catalog
+        CaffeineCacheMetrics.monitor(meterRegistry, local, "catalog");
+        this.redisHits = Counter.builder("ticketvelo.catalog.redis.requests").tag("result", "hit")
+                .description("Catalog lookups answered by the shared Redis tier").register(meterRegistry);
+        this.redisMisses = Counter.builder("ticketvelo.catalog.redis.requests").tag("result", "miss")
+                .description("Catalog lookups that fell through to the database").register(meterRegistry);
+
+        refreshGeneration();
+    }
+
+    /** Local tier, then Redis, then the loader. A null result is not cached. */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key, Class<T> type, Supplier<T> loader) {
+        String versionedKey = "catalog:" + generation.get() + ":" + key;
+
+        Object cached = local.getIfPresent(versionedKey);
+        if (cached != null) return (T) cached;
+
+        T value = readRedis(versionedKey, type);
+        if (value != null) {
+            redisHits.increment();
+        } else {
+            redisMisses.increment();
+            value = System.currentTimeMillis() - generationChangedAt < pinAfterWriteMillis
+                    ? ReplicaRoutingDataSource.onPrimary(loader) : loader.get();
+            if (value == null) return null;
+            writeRedis(versionedKey, value);
+        }
+        local.put(versionedKey, value);
+        return value;
+    }
+
+    /** Call after a catalog write has committed: every node drops what it has cached. */
+    public void invalidateAll() {
+        try {
+            Long next = redisTemplate.opsForValue().increment(GENERATION_KEY);
+            redisTemplate.convertAndSend(CHANNEL, String.valueOf(next));
+            switchTo(next);
+        } catch (RuntimeException e) {
+            // Without Redis we can only clear our own node; the others catch up via local-ttl-ms
+            System.out.println("Could not publish catalog invalidation: " + e.getMessage());
+            generationChangedAt = System.currentTimeMillis();
+            local.invalidateAll();
+            generationListeners.forEach(Runnable::run);
+        }
+    }
+
+    /** For in-memory views of the catalog (EventSearchIndex): runs on every generation change this node sees. Must not block. */
+    public void onGenerationChange(Runnable listener) {
+        generationListeners.add(listener);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        switchTo(Long.parseLong(new String(message.getBody())));
+    }
+
+    @Scheduled(fixedDelayString = "${ticketvelo.catalog.generation-poll-ms:5000}")
+    public void refreshGeneration() {
+        try {
+            String current = redisTemplate.opsForValue().get(GENERATION_KEY);
+            if (current != null) switchTo(Long.parseLong(current));
+        } catch (RuntimeException e) {
+            // Redis down: keep the generation we have
+        }
+    }
+
+    // Generations only move forward, whichever of message / poll / our own write arrives first
+    private void switchTo(Long next) {
+        if (next == null) return;
+        long previous = generation.getAndAccumulate(next, Math::max);
+        if (next > previous) {
+            generationChangedAt = System.currentTimeMillis();
+            local.invalidateAll();
+            generationListeners.forEach(Runnable::run);
+        }
+    }
+
+    private <T> T readRedis(String key, Class<T> type) {
+        try {
+            String json = redisTemplate.opsForValue().get(key);
+            return json == null ? null : jsonMapper.readValue(json, type);
+        } catch (RuntimeException e) {
+            return null; // Treat an unreachable Redis (or an unreadable entry) as a miss
+        }
+    }
+
+    private void writeRedis(String key, Object value) {
+        try {
+            redisTemplate.opsForValue().set(key, jsonMapper.writeValueAsString(value), redisTtl);
+        } catch (RuntimeException e) {
+            // Best effort: the next reader loads it again
+        }
+    }
+}
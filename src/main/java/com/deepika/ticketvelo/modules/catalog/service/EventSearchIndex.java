@@ -0,0 +1,416 @@
+package com.deepika.ticketvelo.modules.catalog.service;
+
+import com.deepika.ticketvelo.common.exception.TicketVeloException;
+import com.deepika.ticketvelo.config.datasource.ReplicaRoutingDataSource;
+import com.deepika.ticketvelo.modules.catalog.model.Event;
+import com.deepika.ticketvelo.modules.catalog.model.EventSearchHit;
+import com.deepika.ticketvelo.modules.catalog.model.Venue;
+import com.deepika.ticketvelo.modules.catalog.repository.EventRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory search over every event's title, venue name and venue address, with an optional date
+ * range, soonest first. Backs /api/catalog/events/search (typeahead), so it must answer in
+ * microseconds without touching Postgres.
+ *
+ * Text is folded (lower case, accents stripped) and split into terms. Each title term has a
+ * posting list of its events; each venue term points at venues, and each venue has a posting list
+ * of its events, so venue text is stored once per venue rather than once per event. Every posting
+ * list, like the list of all events, is a skip list ordered by (date, id): a page is a merge of the
+ * lists that match one query word, starting at the cursor, verifying the other words on each
+ * candidate and stopping once the page is full. Every query word is a prefix ("tay swi" finds
+ * "Taylor Swift"), so the term dictionary is sorted too and a word's lists are one range lookup.
+ *
+ * The merge runs on the query word with the fewest candidates. A word so short that it matches
+ * more than max-merge-terms terms is only verified; if every word is like that the page is a scan
+ * of the date order, which short, common prefixes fill quickly.
+ *
+ * Indexed event columns never change (the booking strategy does, and it isn't indexed), so the
+ * index grows by id: on every catalog generation change it loads the events after the highest id
+ * it has, then compares its size with the table's count. Fewer than the table: parallel loads
+ * committed an id behind the highest one, so it re-walks all ids, skipping those it already has.
+ * Still not equal: events were deleted, so it walks the ids alone and drops the ones that are gone.
+ */
+@Component
+public class EventSearchIndex {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Comparator<Doc> DATE_ORDER = Comparator
+            .comparing((Doc doc) -> doc.date, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(doc -> doc.id);
+
+    private final EventRepository eventRepository;
+    private final CatalogCache catalogCache;
+    private final int loadPageSize;
+    private final int maxMergeTerms;
+    private final int maxQueryTerms;
+    private final Timer searchTime;
+
+    private final ConcurrentHashMap<Long, Doc> byId = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<Doc> byDate = new ConcurrentSkipListSet<>(DATE_ORDER);
+    private final ConcurrentSkipListMap<String, Posting> titleTerms = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<String, Set<VenueEntry>> venueTerms = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<Long, VenueEntry> venues = new ConcurrentHashMap<>();
+
+    // Single writer: every change to the structures above happens on this thread
+    private final ExecutorService indexer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "event-search-indexer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean refreshPending = new AtomicBoolean();
+    private long highestId;
+
+    public EventSearchIndex(EventRepository eventRepository, CatalogCache catalogCache, MeterRegistry meterRegistry,
+                            @Value("${ticketvelo.search.load-page-size:5000}") int loadPageSize,
+                            @Value("${ticketvelo.search.max-merge-terms:64}") int maxMergeTerms,
+                            @Value("${ticketvelo.search.max-query-terms:8}") int maxQueryTerms) {
+        this.eventRepository = eventRepository;
+        this.catalogCache = catalogCache;
+        this.loadPageSize = loadPageSize;
+        this.maxMergeTerms = maxMergeTerms;
+        this.maxQueryTerms = maxQueryTerms;
+        this.searchTime = Timer.builder("ticketvelo.search.duration")
+                .description("Time to answer one event search page from the in-memory index").register(meterRegistry);
+        Gauge.builder("ticketvelo.search.indexed.events", byId, ConcurrentHashMap::size)
+                .description("Events in this node's search index").register(meterRegistry);
+    }
+
+    // Initial build after startup (Flyway has run), then again on every catalog write, ours or another node's
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        catalogCache.onGenerationChange(this::requestRefresh);
+        requestRefresh();
+    }
+
+    @PreDestroy
+    public void stop() {
+        indexer.shutdownNow();
+    }
+
+    // Coalesces: any number of changes while a refresh is queued cost one more refresh, not one each
+    public void requestRefresh() {
+        if (!refreshPending.compareAndSet(false, true)) return;
+        indexer.execute(() -> {
+            refreshPending.set(false); // before loading: a write that lands mid-refresh queues another
+            refresh();
+        });
+    }
+
+    // Indexer thread only (and tests)
+    void refresh() {
+        try {
+            loadAfter(highestId);
+            long stored = ReplicaRoutingDataSource.onPrimary(eventRepository::count);
+            if (stored > byId.size()) loadAfter(0); // an id committed behind the one we had: re-walk, skipping known events
+            if (stored != byId.size()) dropDeleted();
+        } catch (RuntimeException e) {
+            // Keep serving what we have; the next catalog change tries again
+            System.out.println("Event search index refresh failed: " + e.getMessage());
+        }
+    }
+
+    // Reads the primary: right after a write a replica may not have the new events yet
+    private void loadAfter(long afterId) {
+        long cursor = afterId;
+        while (true) {
+            long from = cursor;
+            List<Event> page = ReplicaRoutingDataSource.onPrimary(
+                    () -> eventRepository.findByIdGreaterThanOrderByIdAsc(from, Limit.of(loadPageSize)));
+            for (Event event : page) add(event);
+            if (page.isEmpty()) return;
+            cursor = page.getLast().getId();
+            highestId = Math.max(highestId, cursor);
+            if (page.size() < loadPageSize) return;
+        }
+    }
+
+    // Removes every indexed event whose id is no longer in the table (ids only, on the primary)
+    private void dropDeleted() {
+        Set<Long> live = new HashSet<>(byId.size() * 2);
+        long cursor = 0;
+        while (true) {
+            long from = cursor;
+            List<Long> page = ReplicaRoutingDataSource.onPrimary(() -> eventRepository.findIdsAfter(from, Limit.of(loadPageSize)));
+            live.addAll(page);
+            if (page.size() < loadPageSize) break;
+            cursor = page.getLast();
+        }
+        for (Long id : List.copyOf(byId.keySet())) {
+            if (!live.contains(id)) remove(id);
+        }
+    }
+
+    // Indexer thread only (and tests). Published last to byDate, so a scan never sees a half-indexed event.
+    void add(Event event) {
+        if (byId.containsKey(event.getId())) return;
+
+        VenueEntry venue = event.getVenue() == null ? null : venues.computeIfAbsent(event.getVenue().getId(), id -> newVenue(event.getVenue()));
+        Doc doc = new Doc(event.getId(), event.getTitle(), event.getDate(), venue, terms(event.getTitle()).toArray(String[]::new));
+
+        byId.put(doc.id, doc);
+        if (venue != null) venue.events.add(doc);
+        for (String term : doc.titleTerms) titleTerms.computeIfAbsent(term, t -> new Posting()).add(doc);
+        byDate.add(doc);
+    }
+
+    // Indexer thread only (and tests). Unpublished first from byDate, the reverse of add
+    void remove(Long id) {
+        Doc doc = byId.get(id);
+        if (doc == null) return;
+
+        byDate.remove(doc);
+        for (String term : doc.titleTerms) {
+            Posting posting = titleTerms.get(term);
+            if (posting != null && posting.remove(doc) && posting.size == 0) titleTerms.remove(term, posting);
+        }
+        if (doc.venue != null) doc.venue.events.remove(doc); // the venue itself stays: venues aren't deleted
+        byId.remove(id);
+    }
+
+    private VenueEntry newVenue(Venue venue) {
+        LinkedHashSet<String> words = new LinkedHashSet<>(terms(venue.getName()));
+        words.addAll(terms(venue.getAddress()));
+        VenueEntry entry = new VenueEntry(venue.getId(), venue.getName(), venue.getAddress(), words.toArray(String[]::new));
+        for (String term : entry.terms) venueTerms.computeIfAbsent(term, t -> ConcurrentHashMap.newKeySet()).add(entry);
+        return entry;
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    /**
+     * One page of events matching every word of `text` (as a prefix of a title or venue word) and
+     * dated within [from, to], ordered by date then id. `afterId` is the last event of the previous
+     * page; nextCursor is null on the last page.
+     */
+    public Page search(String text, LocalDateTime from, LocalDateTime to, Long afterId, int limit) {
+        return searchTime.record(() -> find(text, from, to, afterId, limit));
+    }
+
+    private Page find(String text, LocalDateTime from, LocalDateTime to, Long afterId, int limit) {
+        List<String> words = queryWords(text);
+
+        // Lower bound: the later of `from` and the cursor (null: from the first event)
+        Doc start = from == null ? null : new Doc(Long.MIN_VALUE, null, from, null, new String[0]);
+        boolean inclusive = true;
+        if (afterId != null) {
+            Doc cursor = byId.get(afterId);
+            if (cursor == null) throw new TicketVeloException("Unknown search cursor " + afterId, HttpStatus.BAD_REQUEST);
+            if (start == null || DATE_ORDER.compare(cursor, start) >= 0) {
+                start = cursor;
+                inclusive = false;
+            }
+        }
+
+        // Pick the word with the fewest candidates to drive the merge; a word with none means no results
+        List<NavigableSet<Doc>> driver = null;
+        String driverWord = null;
+        long driverCost = Long.MAX_VALUE;
+        for (String word : words) {
+            List<NavigableSet<Doc>> sources = new ArrayList<>();
+            long cost = 0;
+            for (Posting posting : titleTerms.subMap(word, word + Character.MAX_VALUE).values()) {
+                if (sources.size() > maxMergeTerms) break;
+                sources.add(posting.docs);
+                cost += posting.size;
+            }
+            Set<VenueEntry> matchedVenues = new LinkedHashSet<>();
+            for (Set<VenueEntry> entries : venueTerms.subMap(word, word + Character.MAX_VALUE).values()) {
+                if (sources.size() + matchedVenues.size() > maxMergeTerms) break;
+                matchedVenues.addAll(entries);
+            }
+            for (VenueEntry venue : matchedVenues) {
+                sources.add(venue.events.docs);
+                cost += venue.events.size;
+            }
+            if (sources.isEmpty()) return new Page(List.of(), null);
+            if (sources.size() <= maxMergeTerms && cost < driverCost) {
+                driver = sources;
+                driverWord = word;
+                driverCost = cost;
+            }
+        }
+        if (driver == null) driver = List.of(byDate);
+
+        // Merge the driver's lists in date order, keep candidates that match the other words, one extra to see if there's more
+        PriorityQueue<Source> merge = new PriorityQueue<>(driver.size(), (a, b) -> DATE_ORDER.compare(a.head, b.head));
+        for (NavigableSet<Doc> docs : driver) {
+            Source source = new Source((start == null ? docs : docs.tailSet(start, inclusive)).iterator());
+            if (source.advance()) merge.add(source);
+        }
+
+        List<EventSearchHit> hits = new ArrayList<>(Math.min(limit, 256));
+        Doc previous = null;
+        boolean more = false;
+        while (!merge.isEmpty()) {
+            Source source = merge.poll();
+            Doc doc = source.head;
+            if (source.advance()) merge.add(source);
+
+            if (doc == previous) continue; // in two of the driver's lists (e.g. "tay" -> taylor, tays)
+            previous = doc;
+            if (to != null && (doc.date == null || doc.date.isAfter(to))) break;
+            if (from != null && doc.date == null) break;
+            if (!doc.matchesAll(words, driverWord)) continue;
+
+            if (hits.size() == limit) {
+                more = true;
+                break;
+            }
+            hits.add(doc.hit());
+        }
+        return new Page(hits, more ? hits.getLast().id() : null);
+    }
+
+    // Distinct query words, dropping any that is a prefix of another (whatever matches "taylor" matches "tay")
+    private List<String> queryWords(String text) {
+        List<String> words = terms(text);
+        List<String> kept = new ArrayList<>(words.size());
+        for (String word : words) {
+            boolean implied = false;
+            for (String other : words) {
+                if (!other.equals(word) && other.startsWith(word)) {
+                    implied = true;
+                    break;
+                }
+            }
+            if (!implied) kept.add(word);
+        }
+        if (kept.size() > maxQueryTerms) {
+            throw new TicketVeloException("At most " + maxQueryTerms + " search words", HttpStatus.BAD_REQUEST);
+        }
+        return kept;
+    }
+
+    // Lower case, accents stripped, split on anything that isn't a letter or digit: "Beyoncé - Renaissance" -> beyonce, renaissance
+    static List<String> terms(String text) {
+        if (text == null || text.isBlank()) return List.of();
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+        LinkedHashSet<String> terms = new LinkedHashSet<>();
+        for (String term : SEPARATORS.split(folded)) {
+            if (!term.isEmpty()) terms.add(term);
+        }
+        return List.copyOf(terms);
+    }
+
+    public record Page(List<EventSearchHit> hits, Long nextCursor) {}
+
+    // A posting list with its size kept alongside (ConcurrentSkipListSet.size() walks the whole list)
+    private static final class Posting {
+        final ConcurrentSkipListSet<Doc> docs = new ConcurrentSkipListSet<>(DATE_ORDER);
+        volatile int size;
+
+        void add(Doc doc) {
+            if (docs.add(doc)) size++; // single writer
+        }
+
+        boolean remove(Doc doc) {
+            if (!docs.remove(doc)) return false;
+            size--;
+            return true;
+        }
+    }
+
+    private static final class VenueEntry {
+        final Long id;
+        final String name;
+        final String address;
+        final String[] terms;
+        final Posting events = new Posting();
+
+        VenueEntry(Long id, String name, String address, String[] terms) {
+            this.id = id;
+            this.name = name;
+            this.address = address;
+            this.terms = terms;
+        }
+    }
+
+    private static final class Doc {
+        final Long id;
+        final String title;
+        final LocalDateTime date;
+        final VenueEntry venue;
+        final String[] titleTerms;
+
+        Doc(Long id, String title, LocalDateTime date, VenueEntry venue, String[] titleTerms) {
+            this.id = id;
+            this.title = title;
+            this.date = date;
+            this.venue = venue;
+            this.titleTerms = titleTerms;
+        }
+
+        boolean matchesAll(List<String> words, String alreadyMatched) {
+            for (String word : words) {
+                if (!word.equals(alreadyMatched) && !matches(word)) return false;
+            }
+            return true;
+        }
+
+        private boolean matches(String word) {
+            for (String term : titleTerms) {
+                if (term.startsWith(word)) return true;
+            }
+            if (venue != null) {
+                for (String term : venue.terms) {
+                    if (term.startsWith(word)) return true;
+                }
+            }
+            return false;
+        }
+
+        EventSearchHit hit() {
+            return venue == null
+                    ? new EventSearchHit(id, title, date, null, null, null)
+                    : new EventSearchHit(id, title, date, venue.id, venue.name, venue.address);
+        }
+    }
+
+    private static final class Source {
+        final Iterator<Doc> docs;
+        Doc head;
+
+        Source(Iterator<Doc> docs) {
+            this.docs = docs;
+        }
+
+        boolean advance() {
+            if (!docs.hasNext()) return false;
+            head = docs.next();
+            return true;
+        }
+    }
+}
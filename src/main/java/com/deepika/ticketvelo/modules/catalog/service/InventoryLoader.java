@@ -0,0 +1,224 @@
+package com.deepika.ticketvelo.modules.catalog.service;
+
+import com.deepika.ticketvelo.common.exception.ResourceNotFoundException;
+import com.deepika.ticketvelo.common.exception.TicketVeloException;
+import com.deepika.ticketvelo.config.datasource.ReplicaRoutingDataSource;
+import com.deepika.ticketvelo.modules.booking.service.TicketPartitionManager;
+import com.deepika.ticketvelo.modules.catalog.model.Event;
+import com.deepika.ticketvelo.modules.catalog.model.InventoryLoadReport;
+import com.deepika.ticketvelo.modules.catalog.model.Venue;
+import com.deepika.ticketvelo.modules.catalog.repository.EventRepository;
+import com.deepika.ticketvelo.modules.catalog.repository.VenueRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk loader for venues and events (replaces the seeder's saveAll path).
+ *
+ * Seat and ticket entities use IDENTITY keys, so Hibernate can't batch their inserts: saveAll is
+ * one INSERT round trip per row. Instead, seats are generated as text and streamed into Postgres
+ * with COPY in fixed-size chunks (nothing is materialised as entities), and an event's tickets are
+ * created with one INSERT ... SELECT over its venue's seats, straight into the event's own tickets
+ * partition (TicketPartitionManager). Either way the ids come from a sequence inside the database,
+ * without a round trip per row.
+ *
+ * Events load in parallel on a small pool; each one is its own transaction. Size the pool below
+ * the JDBC pool - every worker holds a connection for the length of its load.
+ */
+@Service
+public class InventoryLoader {
+
+    private static final String COPY_SEATS = "COPY seats (venue_id, section, row_number, seat_number) FROM STDIN";
+    private static final int COPY_CHUNK_CHARS = 64 * 1024;
+
+    private final VenueRepository venueRepository;
+    private final EventRepository eventRepository;
+    private final TicketPartitionManager ticketPartitionManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CatalogCache catalogCache;
+    private final ExecutorService pool;
+
+    private final Counter seatRows;
+    private final Counter ticketRows;
+    private final Timer venueLoads;
+    private final Timer eventLoads;
+
+    public InventoryLoader(VenueRepository venueRepository, EventRepository eventRepository, TicketPartitionManager ticketPartitionManager,
+                           JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, CatalogCache catalogCache,
+                           MeterRegistry meterRegistry,
+                           @Value("${ticketvelo.loader.parallelism:4}") int parallelism) {
+        this.venueRepository = venueRepository;
+        this.eventRepository = eventRepository;
+        this.ticketPartitionManager = ticketPartitionManager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.catalogCache = catalogCache;
+        this.pool = Executors.newFixedThreadPool(parallelism, Thread.ofPlatform().name("inventory-loader-", 0).daemon().factory());
+
+        this.seatRows = Counter.builder("ticketvelo.loader.rows").tag("table", "seats").register(meterRegistry);
+        this.ticketRows = Counter.builder("ticketvelo.loader.rows").tag("table", "tickets").register(meterRegistry);
+        this.venueLoads = Timer.builder("ticketvelo.loader.duration").tag("operation", "venue").register(meterRegistry);
+        this.eventLoads = Timer.builder("ticketvelo.loader.duration").tag("operation", "events").register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        pool.shutdownNow();
+    }
+
+    public record EventSpec(String title, LocalDateTime date, String bookingStrategy) {
+
+        public EventSpec(String title, LocalDateTime date) {
+            this(title, date, null);
+        }
+    }
+
+    // A venue laid out as `sections` blocks of rows x seats, in one transaction
+    public InventoryLoadReport createVenue(String name, String address, int sections, int rowsPerSection, int seatsPerRow) {
+        if (sections < 1 || rowsPerSection < 1 || seatsPerRow < 1) {
+            throw new TicketVeloException("sections, rowsPerSection and seatsPerRow must be positive", HttpStatus.BAD_REQUEST);
+        }
+        long start = System.nanoTime();
+        Venue venue = transactionTemplate.execute(status -> {
+            Venue created = new Venue();
+            created.setName(name);
+            created.setAddress(address);
+            created.setCapacity(sections * rowsPerSection * seatsPerRow);
+            venueRepository.save(created); // IDENTITY: inserted right away, so the id is ready for COPY
+            copySeats(created.getId(), sections, rowsPerSection, seatsPerRow);
+            return created;
+        });
+        long nanos = System.nanoTime() - start;
+
+        venueLoads.record(nanos, TimeUnit.NANOSECONDS);
+        seatRows.increment(venue.getCapacity());
+        catalogCache.invalidateAll();
+        return report(venue.getId(), List.of(), venue.getCapacity(), 0, nanos);
+    }
+
+    // Events at an existing venue, each with one AVAILABLE ticket per seat; loaded in parallel
+    public InventoryLoadReport createEvents(Long venueId, List<EventSpec> events) {
+        Venue venue = ReplicaRoutingDataSource.onPrimary(() -> venueRepository.findById(venueId)) // may have just been created
+                .orElseThrow(() -> new ResourceNotFoundException("Venue not found: " + venueId));
+
+        long start = System.nanoTime();
+        List<CompletableFuture<long[]>> loads = new ArrayList<>(events.size());
+        for (EventSpec spec : events) {
+            loads.add(CompletableFuture.supplyAsync(() -> createEvent(venue, spec), pool));
+        }
+
+        List<Long> eventIds = new ArrayList<>(events.size());
+        long tickets = 0;
+        RuntimeException failure = null;
+        for (CompletableFuture<long[]> load : loads) {
+            try {
+                long[] loaded = load.join(); // {eventId, tickets}
+                eventIds.add(loaded[0]);
+                tickets += loaded[1];
+            } catch (CompletionException e) {
+                // Keep waiting for the rest: each event commits (or not) on its own
+                if (failure == null) failure = e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        long nanos = System.nanoTime() - start;
+
+        eventLoads.record(nanos, TimeUnit.NANOSECONDS);
+        if (!eventIds.isEmpty()) catalogCache.invalidateAll();
+        if (failure != null) throw failure;
+        return report(venueId, eventIds, 0, tickets, nanos);
+    }
+
+    private long[] createEvent(Venue venue, EventSpec spec) {
+        long[] loaded = transactionTemplate.execute(status -> {
+            Event event = new Event();
+            event.setTitle(spec.title());
+            event.setDate(spec.date());
+            event.setVenue(venue);
+            event.setBookingStrategy(spec.bookingStrategy());
+            eventRepository.save(event);
+            return new long[]{event.getId(), ticketPartitionManager.loadAvailableTickets(event.getId())};
+        });
+        ticketRows.increment(loaded[1]);
+        return loaded;
+    }
+
+    // Streams the seat rows into COPY on the transaction's connection, one chunk at a time
+    private long copySeats(Long venueId, int sections, int rowsPerSection, int seatsPerRow) {
+        return jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            CopyIn copy = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SEATS);
+            try {
+                encodeSeats(venueId, sections, rowsPerSection, seatsPerRow, COPY_CHUNK_CHARS,
+                        chunk -> copy.writeToCopy(chunk, 0, chunk.length));
+                return copy.endCopy();
+            } finally {
+                if (copy.isActive()) copy.cancelCopy();
+            }
+        });
+    }
+
+    @FunctionalInterface
+    interface ChunkSink {
+        void write(byte[] chunk) throws SQLException;
+    }
+
+    // COPY text format: venue_id \t section \t row \t seat. Values are generated, so nothing needs escaping.
+    static void encodeSeats(long venueId, int sections, int rowsPerSection, int seatsPerRow, int chunkChars, ChunkSink sink)
+            throws SQLException {
+        StringBuilder chunk = new StringBuilder(chunkChars + 64);
+        for (int section = 1; section <= sections; section++) {
+            String sectionName = sections == 1 ? "Standard" : "Section " + section;
+            for (int r = 1; r <= rowsPerSection; r++) {
+                String prefix = venueId + "\t" + sectionName + "\t" + generateRowLabel(r) + "\t";
+                for (int s = 1; s <= seatsPerRow; s++) {
+                    chunk.append(prefix).append(s).append('\n');
+                    if (chunk.length() >= chunkChars) {
+                        sink.write(chunk.toString().getBytes(StandardCharsets.UTF_8));
+                        chunk.setLength(0);
+                    }
+                }
+            }
+        }
+        if (!chunk.isEmpty()) sink.write(chunk.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Helper to turn 1->A, 27->AA
+    static String generateRowLabel(int n) {
+        StringBuilder result = new StringBuilder();
+        while (n > 0) {
+            n--;
+            result.insert(0, (char) ('A' + (n % 26)));
+            n /= 26;
+        }
+        return result.toString();
+    }
+
+    private static InventoryLoadReport report(Long venueId, List<Long> eventIds, long seats, long tickets, long nanos) {
+        long millis = Math.max(1, nanos / 1_000_000);
+        long rowsPerSecond = (seats + tickets) * 1000 / millis;
+        System.out.println("   -> Loaded " + seats + " seats and " + tickets + " tickets (" + eventIds.size()
+                + " events) in " + millis + "ms: " + rowsPerSecond + " rows/s");
+        return new InventoryLoadReport(venueId, eventIds, seats, tickets, millis, rowsPerSecond);
+    }
+}
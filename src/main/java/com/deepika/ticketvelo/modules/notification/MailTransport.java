@@ -0,0 +1,12 @@
+package com.deepika.ticketvelo.modules.notification;
+
+import java.util.concurrent.CompletableFuture;
+
+// Pluggable delivery channel. Implementations must not block the caller: return a future instead.
+public interface MailTransport {
+
+    CompletableFuture<Void> send(Notification notification);
+
+    // What to send and to whom (recipient = "user:<id>" for now, body = rendered from the TicketEvent)
+    record Notification(String recipient, String body) {}
+}
@@ -1,21 +1,148 @@
 package com.deepika.ticketvelo.modules.notification;
 
+import com.deepika.ticketvelo.modules.booking.event.TicketEvent;
+import com.deepika.ticketvelo.modules.booking.event.TicketEventDeserializer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.errors.SerializationException;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Batch consumer for ticket-updates.
+ *
+ * A poll's records are all handed to the MailTransport concurrently (bounded by max-in-flight),
+ * and the listener returns - letting the container commit the batch's offsets - only once every
+ * record is either delivered or safely on the dead-letter topic. Failed sends get a couple of
+ * short, non-blocking retries; after that they are dead-lettered instead of stalling the partition.
+ *
+ * Records are binary TicketEvents; only BOOKED ones produce a notification. A record that can't
+ * be decoded is dead-lettered as is, without retries.
+ */
 @Service
 public class NotificationService {
 
-    @KafkaListener(topics = "ticket-updates", groupId = "ticketvelo-group")
-    public void listen(String message) {
-        // Simulate a slow email server
+    static final String DEAD_LETTER_TOPIC = "ticket-updates.DLT";
+
+    private final MailTransport mailTransport;
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final TicketEventDeserializer deserializer = new TicketEventDeserializer();
+    private final Semaphore inFlight;
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter deadLettered;
+    private final Timer sendLatency;
+    private final Timer batchDuration;
+
+    @Value("${ticketvelo.notification.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${ticketvelo.notification.retry-backoff-ms:200}")
+    private long retryBackoffMillis;
+
+    public NotificationService(MailTransport mailTransport, KafkaTemplate<String, byte[]> kafkaTemplate,
+                               MeterRegistry meterRegistry,
+                               @Value("${ticketvelo.notification.max-in-flight:1000}") int maxInFlight) {
+        this.mailTransport = mailTransport;
+        this.kafkaTemplate = kafkaTemplate;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.sent = Counter.builder("ticketvelo.notification.sent")
+                .description("Notifications delivered").register(meterRegistry);
+        this.retried = Counter.builder("ticketvelo.notification.retried")
+                .description("Notification send retries").register(meterRegistry);
+        this.deadLettered = Counter.builder("ticketvelo.notification.dead.lettered")
+                .description("Notifications moved to " + DEAD_LETTER_TOPIC).register(meterRegistry);
+        this.sendLatency = Timer.builder("ticketvelo.notification.send")
+                .description("Mail transport latency per notification (including retries)")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.batchDuration = Timer.builder("ticketvelo.notification.batch")
+                .description("Time to fully process one polled batch")
+                .register(meterRegistry);
+    }
+
+    @KafkaListener(topics = "ticket-updates", groupId = "ticketvelo-group",
+            containerFactory = "notificationListenerContainerFactory")
+    public void listen(List<ConsumerRecord<String, byte[]>> records) throws InterruptedException {
+        long start = System.nanoTime();
+        List<CompletableFuture<Void>> outcomes = new ArrayList<>(records.size());
+
+        for (ConsumerRecord<String, byte[]> record : records) {
+            TicketEvent event;
+            try {
+                event = deserializer.deserialize(record.topic(), record.value());
+            } catch (SerializationException e) {
+                outcomes.add(deadLetter(record, e)); // poison pill: retrying won't help
+                continue;
+            }
+            if (event == null || event.type() != TicketEvent.Type.BOOKED) continue; // holds / releases: nothing to send
+
+            inFlight.acquire(); // Backpressure: never more than max-in-flight sends outstanding
+            long sendStart = System.nanoTime();
+            MailTransport.Notification notification = notificationFor(event);
+
+            outcomes.add(sendWithRetry(notification, 1)
+                    .handle((ok, failure) -> {
+                        inFlight.release();
+                        sendLatency.record(System.nanoTime() - sendStart, TimeUnit.NANOSECONDS);
+                        if (failure == null) {
+                            sent.increment();
+                            return CompletableFuture.<Void>completedFuture(null);
+                        }
+                        return deadLetter(record, failure);
+                    })
+                    .thenCompose(f -> f));
+        }
+
+        // Only return (=> offsets committed) once the whole batch is delivered or dead-lettered.
+        // If dead-lettering itself fails, this throws and the container's error handler redelivers.
+        CompletableFuture.allOf(outcomes.toArray(new CompletableFuture[0])).join();
+        batchDuration.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private static MailTransport.Notification notificationFor(TicketEvent event) {
+        return new MailTransport.Notification("user:" + event.userId(),
+                "Booking confirmed for event " + event.eventId() + ": tickets " + event.ticketIds());
+    }
+
+    private CompletableFuture<Void> sendWithRetry(MailTransport.Notification notification, int attempt) {
+        return sendOnce(notification).exceptionallyCompose(failure -> {
+            if (attempt >= maxAttempts) return CompletableFuture.failedFuture(failure);
+            retried.increment();
+            // Back off without holding any thread
+            Executor later = CompletableFuture.delayedExecutor(retryBackoffMillis * attempt, TimeUnit.MILLISECONDS);
+            return CompletableFuture.supplyAsync(() -> null, later)
+                    .thenCompose(ignored -> sendWithRetry(notification, attempt + 1));
+        });
+    }
+
+    // A transport that throws instead of returning a failed future still fails just this send (and releases its permit)
+    private CompletableFuture<Void> sendOnce(MailTransport.Notification notification) {
         try {
-            System.out.println("📧 Worker received: " + message);
-            System.out.println("... Sending email (Simulating 2s delay) ...");
-            Thread.sleep(2000);
-            System.out.println("Email Sent!");
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+            return mailTransport.send(notification);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
         }
     }
-}
\ No newline at end of file
+
+    private CompletableFuture<Void> deadLetter(ConsumerRecord<String, byte[]> record, Throwable failure) {
+        System.out.println("Notification failed, dead-lettering " + record.topic() + "-" + record.partition()
+                + "@" + record.offset() + " (" + failure.getMessage() + ")");
+        deadLettered.increment();
+        return kafkaTemplate.send(DEAD_LETTER_TOPIC, record.key(), record.value())
+                .orTimeout(Duration.ofSeconds(30).toMillis(), TimeUnit.MILLISECONDS)
+                .thenApply(result -> null);
+    }
+}
@@ -0,0 +1,30 @@
+package com.deepika.ticketvelo.modules.notification;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Local stand-in for a real mail server: fixed latency, optional random failures, no thread held while "sending"
+@Component
+@ConditionalOnProperty(name = "ticketvelo.notification.transport", havingValue = "stub", matchIfMissing = true)
+public class StubMailTransport implements MailTransport {
+
+    @Value("${ticketvelo.notification.stub.latency-ms:2000}")
+    private long latencyMillis;
+
+    @Value("${ticketvelo.notification.stub.failure-rate:0.0}")
+    private double failureRate;
+
+    @Override
+    public CompletableFuture<Void> send(Notification notification) {
+        return CompletableFuture.runAsync(() -> {
+            if (ThreadLocalRandom.current().nextDouble() < failureRate) {
+                throw new IllegalStateException("Simulated mail server failure");
+            }
+        }, CompletableFuture.delayedExecutor(latencyMillis, TimeUnit.MILLISECONDS));
+    }
+}
@@ -0,0 +1,36 @@
+package com.deepika.ticketvelo.modules.outbox.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "outbox_events")
+@Getter @Setter
+public class OutboxEvent {
+
+    // Sequence (not IDENTITY) so Hibernate can batch the inserts of a multi-seat booking. One id per
+    // nextval, not pooled blocks per node: the relay sends in id order, so ids must follow write order.
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_events_seq")
+    @SequenceGenerator(name = "outbox_events_seq", sequenceName = "outbox_events_seq", allocationSize = 1)
+    private Long id;
+
+    private String topic;           // e.g., "ticket-updates"
+    private String messageKey;      // Kafka key (eventId) -> per-event ordering
+
+    private byte[] payload;         // serialized message, e.g. a TicketEvent (bytea)
+
+    private Instant createdAt;
+
+    public OutboxEvent(String topic, String messageKey, byte[] payload) {
+        this.topic = topic;
+        this.messageKey = messageKey;
+        this.payload = payload;
+        this.createdAt = Instant.now();
+    }
+
+    public OutboxEvent() {}
+}
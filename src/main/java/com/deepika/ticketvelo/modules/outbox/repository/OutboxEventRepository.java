@@ -0,0 +1,35 @@
+package com.deepika.ticketvelo.modules.outbox.repository;
+
+import com.deepika.ticketvelo.modules.outbox.model.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // One relay across all nodes: take or renew the lease; 1 = this owner holds it until now + leaseMillis
+    @Modifying
+    @Query(value = """
+            update outbox_relay_lease set owner = :owner, leased_until = now() + :leaseMillis * interval '1 millisecond'
+            where id = 1 and (owner = :owner or leased_until is null or leased_until < now())
+            """, nativeQuery = true)
+    int acquireRelayLease(@Param("owner") String owner, @Param("leaseMillis") long leaseMillis);
+
+    // Oldest pending events, only from transactions that ended before the oldest one still running:
+    // an in-flight transaction may yet commit a lower id, which must not go out after a higher one.
+    @Query(value = """
+            select * from outbox_events where tx_id < pg_snapshot_xmin(pg_current_snapshot())
+            order by id limit :limit
+            """, nativeQuery = true)
+    List<OutboxEvent> findNextBatch(@Param("limit") int limit);
+
+    @Modifying
+    @Query("delete from OutboxEvent o where o.id in :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,129 @@
+package com.deepika.ticketvelo.modules.outbox.service;
+
+import com.deepika.ticketvelo.modules.outbox.model.OutboxEvent;
+import com.deepika.ticketvelo.modules.outbox.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains outbox_events to Kafka in large batches (at-least-once).
+ *
+ * A batch is read in one short transaction, sent with no transaction (or pooled connection) held
+ * while the acks come back, and deleted in a second transaction only after every send in it was
+ * acknowledged. If anything fails nothing is deleted and the same rows are retried on the next
+ * poll, so consumers must tolerate duplicates.
+ *
+ * Per-event order: only the node holding the relay lease relays, one batch after another in id
+ * order. Ids are handed out one by one (not in per-node blocks), and a change to a seat writes its
+ * outbox row after locking the ticket row, so a later change to the same seat always gets a higher
+ * id; batches only take rows from transactions older than every one still running, so no lower id
+ * can commit behind one already sent. Messages are keyed by eventId, so Kafka keeps that order.
+ * A long transaction anywhere in the database therefore holds the relay back until it ends.
+ */
+@Component
+public class OutboxRelay {
+
+    private final String leaseOwner = UUID.randomUUID().toString(); // this node, in outbox_relay_lease
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter relayed;
+    private final Counter failures;
+    private final Timer sendTime;
+    private volatile long lagMillis;
+
+    @Value("${ticketvelo.outbox.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${ticketvelo.outbox.send-timeout-ms:10000}")
+    private long sendTimeoutMillis;
+
+    // Must outlast a batch's send timeout: a lease lapsing mid-send would let a second relay start
+    @Value("${ticketvelo.outbox.lease-ms:30000}")
+    private long leaseMillis;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository, KafkaTemplate<String, byte[]> kafkaTemplate,
+                       TransactionTemplate transactionTemplate, MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.relayed = Counter.builder("ticketvelo.outbox.relayed")
+                .description("Outbox events delivered to Kafka").register(meterRegistry);
+        this.failures = Counter.builder("ticketvelo.outbox.failures")
+                .description("Outbox batches that failed and will be retried").register(meterRegistry);
+        this.sendTime = Timer.builder("ticketvelo.outbox.send")
+                .description("Kafka send + acks for one outbox batch")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("ticketvelo.outbox.lag", this, relay -> relay.lagMillis / 1000.0)
+                .description("Age in seconds of the oldest outbox event seen by the last poll")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${ticketvelo.outbox.poll-interval-ms:50}")
+    public void relay() {
+        try {
+            // Keep draining while batches come back full
+            int sent;
+            do {
+                sent = relayBatch();
+            } while (sent == batchSize);
+        } catch (RuntimeException e) {
+            failures.increment();
+            System.out.println("Outbox relay failed, will retry: " + e.getMessage());
+        }
+    }
+
+    private int relayBatch() {
+        List<OutboxEvent> batch = transactionTemplate.execute(status -> {
+            if (outboxEventRepository.acquireRelayLease(leaseOwner, leaseMillis) == 0) return null; // another node relays
+            return outboxEventRepository.findNextBatch(batchSize);
+        });
+        if (batch == null || batch.isEmpty()) {
+            lagMillis = 0; // idle, or another node is relaying and its gauge reports the lag
+            return 0;
+        }
+        lagMillis = Duration.between(batch.get(0).getCreatedAt(), Instant.now()).toMillis();
+
+        // Fire the whole batch, then wait for all acks (the producer batches them on the wire)
+        long sendStart = System.nanoTime();
+        List<CompletableFuture<?>> acks = new ArrayList<>(batch.size());
+        List<Long> ids = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            acks.add(kafkaTemplate.send(event.getTopic(), event.getMessageKey(), event.getPayload()));
+            ids.add(event.getId());
+        }
+        kafkaTemplate.flush();
+
+        try {
+            CompletableFuture.allOf(acks.toArray(new CompletableFuture[0])).get(sendTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for Kafka acks", e);
+        } catch (Exception e) {
+            throw new IllegalStateException("Kafka send failed", e);
+        }
+
+        sendTime.record(System.nanoTime() - sendStart, TimeUnit.NANOSECONDS);
+
+        transactionTemplate.executeWithoutResult(status -> outboxEventRepository.deleteByIds(ids));
+        relayed.increment(batch.size());
+        return batch.size();
+    }
+}
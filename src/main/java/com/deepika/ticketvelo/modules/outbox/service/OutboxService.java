@@ -0,0 +1,36 @@
+package com.deepika.ticketvelo.modules.outbox.service;
+
+import com.deepika.ticketvelo.modules.outbox.model.OutboxEvent;
+import com.deepika.ticketvelo.modules.outbox.repository.OutboxEventRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Write side of the transactional outbox.
+ *
+ * Messages are stored as rows in the caller's transaction, so they commit (or roll back)
+ * together with the business change. OutboxRelay ships them to Kafka afterwards, in id order:
+ * publish after the row changes a message describes, so the row lock orders its id after those of
+ * earlier changes to the same rows.
+ */
+@Service
+public class OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+
+    public OutboxService(OutboxEventRepository outboxEventRepository) {
+        this.outboxEventRepository = outboxEventRepository;
+    }
+
+    // MANDATORY: an outbox row written outside a business transaction would defeat the point
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(String topic, String key, List<byte[]> payloads) {
+        List<OutboxEvent> events = new ArrayList<>(payloads.size());
+        for (byte[] payload : payloads) events.add(new OutboxEvent(topic, key, payload));
+        outboxEventRepository.saveAll(events);
+    }
+}
@@ -0,0 +1,59 @@
+-- Baseline: the schema Hibernate's ddl-auto used to build from the entities.
+-- Databases created that way are baselined at this version (spring.flyway.baseline-on-migrate).
+
+create sequence outbox_events_seq start with 1 increment by 50;
+
+create table venues (
+    capacity integer not null,
+    id bigint generated by default as identity,
+    address varchar(255),
+    name varchar(255),
+    primary key (id)
+);
+
+create table seats (
+    seat_number integer not null,
+    id bigint generated by default as identity,
+    venue_id bigint,
+    row_number varchar(255),
+    section varchar(255),
+    primary key (id)
+);
+
+create table events (
+    date timestamp(6),
+    id bigint generated by default as identity,
+    venue_id bigint,
+    title varchar(255),
+    primary key (id)
+);
+
+create table tickets (
+    version integer,
+    event_id bigint,
+    held_until timestamp(6) with time zone,
+    id bigint generated by default as identity,
+    seat_id bigint,
+    user_id bigint,
+    hold_id varchar(255),
+    status varchar(255),
+    primary key (id),
+    constraint uk_tickets_event_seat unique (event_id, seat_id)
+);
+
+create table outbox_events (
+    created_at timestamp(6) with time zone,
+    id bigint not null,
+    payload varchar(1024),
+    message_key varchar(255),
+    topic varchar(255),
+    primary key (id)
+);
+
+create index idx_tickets_hold_id on tickets (hold_id);
+create index idx_tickets_held_until on tickets (held_until);
+
+alter table if exists events add constraint FKqdxygdernwwt74hdvix9u5nr3 foreign key (venue_id) references venues;
+alter table if exists seats add constraint FKfahhtb0bb0u1wcnqqys0iehmo foreign key (venue_id) references venues;
+alter table if exists tickets add constraint FK3utafe14rupaypjocldjaj4ol foreign key (event_id) references events;
+alter table if exists tickets add constraint FK1f6n3pv4b80wl6gj4ra32ctxk foreign key (seat_id) references seats;
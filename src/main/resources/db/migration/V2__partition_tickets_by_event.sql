@@ -0,0 +1,58 @@
+-- tickets becomes LIST-partitioned by event_id, one partition per event (tickets_e<event id>).
+-- Every booking-path query filters on event_id, so it only ever opens its own event's partition
+-- and indexes; finished events are detached into the ticket_archive schema by
+-- TicketPartitionManager and stop competing with on-sale events for cache.
+--
+-- Ids come from a plain sequence rather than an identity column, so a partition can be bulk
+-- loaded as a standalone table (sharing the default) and attached afterwards.
+--
+-- Existing rows are copied into per-event partitions: a one-off rewrite of the table.
+
+create schema if not exists ticket_archive;
+
+alter table tickets rename to tickets_unpartitioned;
+alter table tickets_unpartitioned drop constraint tickets_pkey;
+alter table tickets_unpartitioned drop constraint uk_tickets_event_seat;
+drop index idx_tickets_hold_id;
+drop index idx_tickets_held_until;
+alter table tickets_unpartitioned alter column id drop identity if exists;
+
+create sequence tickets_id_seq;
+select setval('tickets_id_seq', coalesce((select max(id) from tickets_unpartitioned), 0) + 1, false);
+
+create table tickets (
+    version integer,
+    event_id bigint not null,
+    held_until timestamp(6) with time zone,
+    id bigint not null default nextval('tickets_id_seq'),
+    seat_id bigint,
+    user_id bigint,
+    hold_id varchar(255),
+    status varchar(255),
+    constraint tickets_pkey primary key (id, event_id),      -- must contain the partition key
+    constraint uk_tickets_event_seat unique (event_id, seat_id),
+    constraint fk_tickets_event foreign key (event_id) references events,
+    constraint fk_tickets_seat foreign key (seat_id) references seats
+) partition by list (event_id);
+
+alter sequence tickets_id_seq owned by tickets.id;
+
+-- Partial indexes: only live holds are ever looked up
+create index idx_tickets_hold_id on tickets (hold_id) where hold_id is not null;
+create index idx_tickets_held_until on tickets (held_until) where status = 'LOCKED';
+
+do $$
+declare
+    e record;
+begin
+    for e in select distinct event_id from tickets_unpartitioned where event_id is not null loop
+        execute format('create table tickets_e%s partition of tickets for values in (%s)', e.event_id, e.event_id);
+    end loop;
+end $$;
+
+insert into tickets (version, event_id, held_until, id, seat_id, user_id, hold_id, status)
+select version, event_id, held_until, id, seat_id, user_id, hold_id, status
+from tickets_unpartitioned
+where event_id is not null;
+
+drop table tickets_unpartitioned;
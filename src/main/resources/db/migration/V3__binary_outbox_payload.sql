@@ -0,0 +1,3 @@
+-- Outbox payloads are serialized messages (binary TicketEvents), not text.
+-- Rows still waiting from before are kept as their UTF-8 bytes; consumers dead-letter them as undecodable.
+alter table outbox_events alter column payload type bytea using convert_to(payload, 'UTF8');
@@ -0,0 +1,2 @@
+-- Per-event booking strategy (redis-lock | optimistic | skip-locked); null = the configured default.
+alter table events add column booking_strategy varchar(32);
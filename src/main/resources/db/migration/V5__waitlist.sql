@@ -0,0 +1,18 @@
+-- Per-event waitlist: seats given back by cancellations are matched to these entries, oldest first.
+create table waitlist_entries (
+    id bigint generated by default as identity,
+    event_id bigint not null,
+    user_id bigint not null,
+    quantity integer not null,
+    section varchar(255),                -- null = any section
+    status varchar(16) not null,         -- WAITING, FULFILLED, CANCELLED
+    created_at timestamp(6) with time zone not null,
+    fulfilled_at timestamp(6) with time zone,
+    primary key (id),
+    constraint fk_waitlist_event foreign key (event_id) references events
+);
+
+-- The matcher's scan: an event's waiting entries in arrival order
+create index idx_waitlist_waiting on waitlist_entries (event_id, id) where status = 'WAITING';
+-- One place in the queue per user and event
+create unique index uk_waitlist_waiting_user on waitlist_entries (event_id, user_id) where status = 'WAITING';
@@ -0,0 +1,16 @@
+-- Outbox ids one at a time. With blocks of 50 per node, a row written later on one node could get a
+-- lower id than an earlier row for the same seat written on another, and the relay sends in id order.
+alter sequence outbox_events_seq increment by 1;
+
+-- The transaction that wrote the row: the relay only takes rows from transactions older than every
+-- one still running, so a lower id can never commit after a higher one was sent.
+alter table outbox_events add column tx_id xid8 not null default pg_current_xact_id();
+
+-- One relay across all nodes: the node holding this lease. Renewed on every poll, taken over once it lapses.
+create table outbox_relay_lease (
+    id integer not null,
+    owner varchar(64),
+    leased_until timestamp(6) with time zone,
+    primary key (id)
+);
+insert into outbox_relay_lease (id) values (1);
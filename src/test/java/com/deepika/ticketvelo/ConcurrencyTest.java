@@ -1,6 +1,7 @@
 package com.deepika.ticketvelo;
 
 import com.deepika.ticketvelo.modules.booking.service.BookingService;
+import com.deepika.ticketvelo.modules.booking.service.TicketPartitionManager;
 import com.deepika.ticketvelo.modules.catalog.model.Event;
 import com.deepika.ticketvelo.modules.catalog.model.Seat;
 import com.deepika.ticketvelo.modules.catalog.model.Venue;
@@ -19,6 +20,9 @@ import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 @SpringBootTest
 //@Transactional
@@ -35,6 +39,8 @@ public class ConcurrencyTest {
     private SeatRepository seatRepository;
     @Autowired
     private TicketRepository ticketRepository;
+    @Autowired
+    private TicketPartitionManager ticketPartitionManager;
 
     @Test
     public void testDoubleBooking() throws InterruptedException {
@@ -44,6 +50,7 @@ public class ConcurrencyTest {
         event.setVenue(venue);
         event.setDate(LocalDateTime.now());
         eventRepository.save(event);
+        ticketPartitionManager.createPartition(event.getId()); // tickets are partitioned by event
 
         Seat seat = new Seat("A", 1, "VIP", venue);
         seatRepository.save(seat);
@@ -63,11 +70,13 @@ public class ConcurrencyTest {
 
         System.out.println("STARTING CONCURRENCY TEST...");
 
+        AtomicInteger winners = new AtomicInteger();
         for (int i = 0; i < numberOfThreads; i++) {
             long userId = i;
             executor.submit(() -> {
                 try {
                     bookingService.bookTickets(eventId, List.of(seatId), userId);
+                    winners.incrementAndGet();
                     System.out.println("User " + userId + " booked the ticket!");
                 } catch (Exception e) {
                     System.out.println("User " + userId + " failed: " + e.getMessage());
@@ -82,5 +91,7 @@ public class ConcurrencyTest {
         // 4. Check the result
         Ticket finalTicket = ticketRepository.findById(ticket.getId()).get();
         System.out.println("🏁 Final Ticket Owner: User " + finalTicket.getUserId());
+        assertEquals(1, winners.get(), "exactly one user should get the seat");
+        assertEquals("BOOKED", finalTicket.getStatus());
     }
 }
\ No newline at end of file
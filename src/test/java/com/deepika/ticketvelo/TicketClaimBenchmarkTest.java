@@ -0,0 +1,145 @@
+package com.deepika.ticketvelo;
+
+import com.deepika.ticketvelo.common.exception.SeatBookedException;
+import com.deepika.ticketvelo.modules.booking.model.Ticket;
+import com.deepika.ticketvelo.modules.booking.repository.TicketRepository;
+import com.deepika.ticketvelo.modules.booking.service.TicketPartitionManager;
+import com.deepika.ticketvelo.modules.catalog.model.Event;
+import com.deepika.ticketvelo.modules.catalog.model.Seat;
+import com.deepika.ticketvelo.modules.catalog.model.Venue;
+import com.deepika.ticketvelo.modules.catalog.repository.EventRepository;
+import com.deepika.ticketvelo.modules.catalog.repository.SeatRepository;
+import com.deepika.ticketvelo.modules.catalog.repository.VenueRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Old (per-seat load + save) vs new (one conditional UPDATE) booking write path,
+ * at 1, 10 and 50 seats per booking.
+ *
+ * Needs the docker-compose stack. Excluded from the default build; run with:
+ *   ./mvnw test -Dtest=TicketClaimBenchmarkTest -Dexcluded.test.groups=none
+ */
+@SpringBootTest
+@Tag("benchmark")
+public class TicketClaimBenchmarkTest {
+
+    private static final int[] SEATS_PER_BOOKING = {1, 10, 50};
+    private static final int BOOKINGS_PER_RUN = 100;
+    private static final int WARMUP_RUNS = 2;
+
+    @Autowired
+    private VenueRepository venueRepository;
+    @Autowired
+    private EventRepository eventRepository;
+    @Autowired
+    private SeatRepository seatRepository;
+    @Autowired
+    private TicketRepository ticketRepository;
+    @Autowired
+    private TicketPartitionManager ticketPartitionManager;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void compareClaimPaths() {
+        // 1. Setup: enough seats for the largest run
+        Venue venue = venueRepository.save(new Venue());
+        Event event = new Event();
+        event.setVenue(venue);
+        event.setDate(LocalDateTime.now());
+        eventRepository.save(event);
+        try {
+            measure(venue, event);
+        } finally {
+            cleanUp(venue.getId(), event.getId()); // this runs against the dev database: leave nothing behind
+        }
+    }
+
+    private void measure(Venue venue, Event event) {
+        ticketPartitionManager.createPartition(event.getId()); // tickets are partitioned by event
+
+        List<Seat> seats = new ArrayList<>();
+        for (int i = 0; i < 50 * BOOKINGS_PER_RUN; i++) seats.add(new Seat("B", i + 1, "Bench", venue));
+        List<Long> seatIds = new ArrayList<>();
+        List<Ticket> tickets = new ArrayList<>();
+        for (Seat seat : seatRepository.saveAll(seats)) {
+            seatIds.add(seat.getId());
+            Ticket ticket = new Ticket();
+            ticket.setEvent(event);
+            ticket.setSeat(seat);
+            ticket.setStatus("AVAILABLE");
+            tickets.add(ticket);
+        }
+        ticketRepository.saveAll(tickets);
+        Long eventId = event.getId();
+
+        // 2. Measure
+        System.out.println("seats/booking | per-seat load+save (ms/booking) | conditional UPDATE (ms/booking)");
+        for (int size : SEATS_PER_BOOKING) {
+            for (int i = 0; i < WARMUP_RUNS; i++) {
+                run(eventId, seatIds, size, false);
+                run(eventId, seatIds, size, true);
+            }
+            double oldPath = run(eventId, seatIds, size, false);
+            double newPath = run(eventId, seatIds, size, true);
+            System.out.printf("%13d | %30.3f | %31.3f%n", size, oldPath, newPath);
+        }
+    }
+
+    // The event's ticket partition goes with the table; then its seats, the event and the venue
+    private void cleanUp(Long venueId, Long eventId) {
+        jdbcTemplate.execute("drop table if exists " + TicketPartitionManager.partitionName(eventId));
+        jdbcTemplate.update("delete from seats where venue_id = ?", venueId);
+        jdbcTemplate.update("delete from events where id = ?", eventId);
+        jdbcTemplate.update("delete from venues where id = ?", venueId);
+    }
+
+    // Books BOOKINGS_PER_RUN disjoint baskets of `size` seats and returns the mean ms per booking
+    private double run(Long eventId, List<Long> seatIds, int size, boolean setBased) {
+        jdbcTemplate.update("update tickets set status = 'AVAILABLE', user_id = null where event_id = ?", eventId);
+
+        long start = System.nanoTime();
+        for (int b = 0; b < BOOKINGS_PER_RUN; b++) {
+            List<Long> basket = seatIds.subList(b * size, (b + 1) * size);
+            long userId = b;
+            if (setBased) {
+                transactionTemplate.executeWithoutResult(status -> {
+                    int claimed = ticketRepository.claimSeats(eventId, basket, userId);
+                    if (claimed != basket.size()) throw new SeatBookedException("One of the seats is already taken!");
+                });
+            } else {
+                transactionTemplate.executeWithoutResult(status -> {
+                    for (Long seatId : basket) {
+                        Optional<Ticket> ticket = ticketRepository.findByEventIdAndSeatId(eventId, seatId);
+                        if (ticket.isEmpty() || !"AVAILABLE".equals(ticket.get().getStatus())) {
+                            throw new SeatBookedException("One of the seats is already taken!");
+                        }
+                        ticket.get().setStatus("BOOKED");
+                        ticket.get().setUserId(userId);
+                        ticketRepository.save(ticket.get());
+                    }
+                });
+            }
+        }
+        double msPerBooking = (System.nanoTime() - start) / 1_000_000.0 / BOOKINGS_PER_RUN;
+
+        Integer booked = jdbcTemplate.queryForObject(
+                "select count(*) from tickets where event_id = ? and status = 'BOOKED'", Integer.class, eventId);
+        assertEquals(BOOKINGS_PER_RUN * size, booked);
+        return msPerBooking;
+    }
+}
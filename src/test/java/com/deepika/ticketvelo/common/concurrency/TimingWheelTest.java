@@ -0,0 +1,55 @@
+package com.deepika.ticketvelo.common.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimingWheelTest {
+
+    @Test
+    void itemsExpireOnTheFirstTickAfterTheirDeadline() {
+        TimingWheel<String> wheel = new TimingWheel<>(100, 8, 0);
+        wheel.schedule("a", 250);
+        wheel.schedule("b", 420);
+        wheel.advance(0);
+
+        assertTrue(wheel.advance(299).isEmpty()); // "a" is due at 250 but its tick is 300
+        assertEquals(List.of("a"), wheel.advance(300));
+        assertTrue(wheel.advance(499).isEmpty());
+        assertEquals(List.of("b"), wheel.advance(500));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void deadlinesBeyondOneRevolutionWaitForTheirLap() {
+        TimingWheel<String> wheel = new TimingWheel<>(100, 8, 0); // one lap = 800ms
+        wheel.schedule("later", 1_000);
+        wheel.schedule("soon", 200);
+
+        assertEquals(List.of("soon"), wheel.advance(900)); // "later" shares a bucket but isn't due
+        assertEquals(1, wheel.size());
+        assertEquals(List.of("later"), wheel.advance(1_000));
+    }
+
+    @Test
+    void fallingFarBehindStillExpiresEverything() {
+        TimingWheel<Integer> wheel = new TimingWheel<>(10, 16, 0);
+        for (int i = 1; i <= 1_000; i++) wheel.schedule(i, i * 7L);
+        wheel.advance(0); // moves everything into the buckets
+
+        assertEquals(1_000, wheel.advance(10_000).size());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void pastDeadlinesExpireOnTheNextAdvance() {
+        TimingWheel<String> wheel = new TimingWheel<>(100, 8, 0);
+        wheel.advance(5_000);
+        wheel.schedule("overdue", 1_000);
+
+        assertEquals(List.of("overdue"), wheel.advance(5_001));
+    }
+}
@@ -0,0 +1,232 @@
+package com.deepika.ticketvelo.common.idempotency;
+
+import com.deepika.ticketvelo.common.concurrency.ConcurrencyLimits;
+import com.deepika.ticketvelo.common.exception.TicketVeloException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class IdempotencyStoreTest {
+
+    private static final String SCOPE = "bookings:42";
+    private static final Map<String, Object> REQUEST = Map.of("eventId", 1, "seatIds", List.of(10, 11));
+
+    private final InMemoryRedisTemplate redis = new InMemoryRedisTemplate();
+    private final ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicInteger runs = new AtomicInteger();
+    private IdempotencyStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = node();
+    }
+
+    @AfterEach
+    void tearDown() {
+        clients.shutdownNow();
+    }
+
+    @Test
+    void replaysAStoredSuccess() {
+        ResponseEntity<?> first = store.execute(SCOPE, "k1", REQUEST, this::book);
+        assertEquals(Map.of("ticketId", 1), first.getBody());
+
+        ResponseEntity<?> retry = store.execute(SCOPE, "k1", REQUEST, this::book);
+        assertEquals(1, runs.get());
+        assertEquals(200, retry.getStatusCode().value());
+        assertEquals("{\"ticketId\":1}", retry.getBody()); // stored JSON, verbatim
+        assertEquals("true", retry.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+    }
+
+    @Test
+    void replaysAStoredBusinessError() {
+        assertThrows(TicketVeloException.class, () -> store.execute(SCOPE, "k1", REQUEST, () -> fail(HttpStatus.CONFLICT)));
+
+        TicketVeloException replayed = assertThrows(TicketVeloException.class,
+                () -> store.execute(SCOPE, "k1", REQUEST, () -> fail(HttpStatus.CONFLICT)));
+        assertEquals(1, runs.get());
+        assertEquals(HttpStatus.CONFLICT, replayed.getStatus());
+        assertEquals("Seat 10 is already taken!", replayed.getMessage());
+    }
+
+    @Test
+    void releasesTheKeyAfterAnAnswerThatIsNotDefinite() {
+        assertThrows(TicketVeloException.class, () -> store.execute(SCOPE, "k1", REQUEST, () -> fail(HttpStatus.SERVICE_UNAVAILABLE)));
+        assertThrows(TicketVeloException.class, () -> store.execute(SCOPE, "k1", REQUEST, () -> fail(HttpStatus.TOO_MANY_REQUESTS)));
+        assertThrows(IllegalStateException.class, () -> store.execute(SCOPE, "k1", REQUEST, () -> {
+            runs.incrementAndGet();
+            throw new IllegalStateException("database down");
+        }));
+        assertTrue(redis.values.isEmpty());
+
+        // So the client's retry really runs again
+        assertEquals(Map.of("ticketId", 4), store.execute(SCOPE, "k1", REQUEST, this::book).getBody());
+        assertEquals(4, runs.get());
+    }
+
+    @Test
+    void rejectsAKeyReusedForADifferentRequest() {
+        store.execute(SCOPE, "k1", REQUEST, this::book);
+        TicketVeloException completed = assertThrows(TicketVeloException.class,
+                () -> store.execute(SCOPE, "k1", Map.of("eventId", 2), this::book));
+        assertEquals(HttpStatus.UNPROCESSABLE_CONTENT, completed.getStatus());
+
+        // Also while the first request is still pending (on another node)
+        redis.values.put("idem:" + SCOPE + ":k2", "pending:someone-else:not-this-fingerprint");
+        TicketVeloException pending = assertThrows(TicketVeloException.class, () -> store.execute(SCOPE, "k2", REQUEST, this::book));
+        assertEquals(HttpStatus.UNPROCESSABLE_CONTENT, pending.getStatus());
+        assertEquals(1, runs.get());
+
+        // Scoped per user: the same key for another user is a different request
+        assertEquals(Map.of("ticketId", 2), store.execute("bookings:43", "k1", Map.of("eventId", 2), this::book).getBody());
+    }
+
+    @Test
+    void aDuplicateOnTheSameNodeJoinsTheRunningRequest() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        Future<ResponseEntity<?>> first = clients.submit(() -> store.execute(SCOPE, "k1", REQUEST, () -> {
+            started.countDown();
+            await(finish);
+            return book();
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        Future<ResponseEntity<?>> duplicate = clients.submit(() -> store.execute(SCOPE, "k1", REQUEST, this::book));
+        Thread.sleep(100);
+        assertFalse(duplicate.isDone()); // waiting on the first one's future
+        finish.countDown();
+
+        assertEquals(Map.of("ticketId", 1), first.get(5, TimeUnit.SECONDS).getBody());
+        assertEquals("{\"ticketId\":1}", duplicate.get(5, TimeUnit.SECONDS).getBody());
+        assertEquals(1, runs.get());
+        assertEquals(1, redis.claims.get()); // the duplicate never went to Redis
+    }
+
+    @Test
+    void aDuplicateOnAnotherNodePollsUntilTheOutcomeIsStored() throws Exception {
+        IdempotencyStore otherNode = node();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        Future<ResponseEntity<?>> first = clients.submit(() -> store.execute(SCOPE, "k1", REQUEST, () -> {
+            started.countDown();
+            await(finish);
+            return book();
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        Future<ResponseEntity<?>> duplicate = clients.submit(() -> otherNode.execute(SCOPE, "k1", REQUEST, this::book));
+        Thread.sleep(100);
+        assertFalse(duplicate.isDone());
+        finish.countDown();
+
+        first.get(5, TimeUnit.SECONDS);
+        assertEquals("{\"ticketId\":1}", duplicate.get(5, TimeUnit.SECONDS).getBody());
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void failsOpenWithoutRedis() {
+        redis.down = true;
+        assertEquals(Map.of("ticketId", 1), store.execute(SCOPE, "k1", REQUEST, this::book).getBody());
+        assertEquals(Map.of("ticketId", 2), store.execute(SCOPE, "k1", REQUEST, this::book).getBody()); // can't deduplicate
+    }
+
+    @Test
+    void withoutAKeyEveryRequestRuns() {
+        store.execute(SCOPE, null, REQUEST, this::book);
+        store.execute(SCOPE, null, REQUEST, this::book);
+        assertEquals(2, runs.get());
+        assertThrows(TicketVeloException.class, () -> store.execute(SCOPE, " ", REQUEST, this::book));
+    }
+
+    private IdempotencyStore node() {
+        IdempotencyStore node = new IdempotencyStore(redis, new ConcurrencyLimits(10, 2, 10, new SimpleMeterRegistry()),
+                JsonMapper.builder().build(), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(node, "ttlMillis", 60_000L);
+        ReflectionTestUtils.setField(node, "pendingTtlMillis", 30_000L);
+        ReflectionTestUtils.setField(node, "waitTimeoutMillis", 5_000L);
+        return node;
+    }
+
+    private Map<String, Object> book() {
+        return Map.of("ticketId", runs.incrementAndGet());
+    }
+
+    private Object fail(HttpStatus status) {
+        runs.incrementAndGet();
+        throw new TicketVeloException("Seat 10 is already taken!", status);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Stands in for Redis: SET NX / GET, and the compare-and-set completion script
+    @SuppressWarnings("unchecked")
+    static final class InMemoryRedisTemplate extends StringRedisTemplate {
+        final Map<String, String> values = new ConcurrentHashMap<>();
+        final AtomicInteger claims = new AtomicInteger();
+        final ValueOperations<String, String> operations = mock(ValueOperations.class);
+        volatile boolean down;
+
+        InMemoryRedisTemplate() {
+            when(operations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenAnswer(call -> {
+                if (down) throw new RedisConnectionFailureException("Redis is down");
+                claims.incrementAndGet();
+                return values.putIfAbsent(call.getArgument(0), call.getArgument(1)) == null;
+            });
+            when(operations.get(anyString())).thenAnswer(call -> {
+                if (down) throw new RedisConnectionFailureException("Redis is down");
+                return values.get(call.<String>getArgument(0));
+            });
+        }
+
+        @Override
+        public ValueOperations<String, String> opsForValue() {
+            return operations;
+        }
+
+        @Override
+        public <T> T execute(RedisScript<T> script, List<String> keys, Object... args) {
+            if (down) throw new RedisConnectionFailureException("Redis is down");
+            String key = keys.get(0);
+            String marker = (String) args[0];
+            String outcome = (String) args[1];
+            synchronized (values) {
+                if (!marker.equals(values.get(key))) return (T) Long.valueOf(0);
+                if (outcome.isEmpty()) values.remove(key);
+                else values.put(key, outcome);
+            }
+            return (T) Long.valueOf(1);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.deepika.ticketvelo.config.datasource;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.Network;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.images.builder.Transferable;
+import org.testcontainers.lifecycle.Startables;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Replica routing against two real Postgres containers: a primary and a streaming replica of it
+ * (pg_basebackup). Checks that read-only transactions land on the replica, read-write ones and
+ * onPrimary(...) reads on the primary, and that reads fall back to the primary while the replica
+ * lags (WAL replay paused) and come back once it has caught up.
+ *
+ * Needs Docker. Excluded from the default build; run with:
+ *   ./mvnw test -Dtest=ReadReplicaRoutingTest -Dexcluded.test.groups=none
+ */
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "spring.kafka.bootstrap-servers=localhost:1",
+        "ticketvelo.datasource.max-lag-ms=500", "ticketvelo.datasource.lag-check-interval-ms=200"})
+@Tag("integration")
+class ReadReplicaRoutingTest {
+
+    static final Network NETWORK = Network.newNetwork();
+
+    static final PostgreSQLContainer<?> PRIMARY = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withNetwork(NETWORK).withNetworkAliases("primary")
+            .withCopyToContainer(Transferable.of("echo 'host replication all all scram-sha-256' >> \"$PGDATA/pg_hba.conf\"\n"),
+                    "/docker-entrypoint-initdb.d/replication.sh");
+
+    static final GenericContainer<?> REPLICA = new GenericContainer<>("postgres:16-alpine")
+            .withNetwork(NETWORK)
+            .withEnv("PGPASSWORD", "test")
+            .withCreateContainerCmdModifier(cmd -> cmd.withEntrypoint("sh", "-c").withUser("postgres"))
+            .withCommand("until pg_basebackup -h primary -U test -D \"$PGDATA\" -R -X stream -c fast; do sleep 1; done; "
+                    + "chmod 700 \"$PGDATA\"; exec postgres")
+            .withExposedPorts(5432)
+            .waitingFor(Wait.forLogMessage(".*ready to accept read-only connections.*", 1));
+
+    static final GenericContainer<?> REDIS = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+    static {
+        Startables.deepStart(PRIMARY, REDIS).join();
+        REPLICA.start(); // base backup needs the primary up
+    }
+
+    @DynamicPropertySource
+    static void containers(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", PRIMARY::getJdbcUrl);
+        registry.add("spring.datasource.username", PRIMARY::getUsername);
+        registry.add("spring.datasource.password", PRIMARY::getPassword);
+        registry.add("ticketvelo.datasource.replica-urls", ReadReplicaRoutingTest::replicaUrl);
+        registry.add("spring.data.redis.host", REDIS::getHost);
+        registry.add("spring.data.redis.port", () -> REDIS.getMappedPort(6379));
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void routesByTransactionAndLag() throws Exception {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+
+        // 1. Fresh replica: read-only work goes there, the rest stays on the primary
+        awaitReadsOnReplica(readOnly, true);
+        assertFalse(onReplica(readWrite));
+        Boolean pinnedOnReplica = readOnly.execute(status -> ReplicaRoutingDataSource.onPrimary(this::inRecovery));
+        assertFalse(pinnedOnReplica);
+
+        // 2. Replica stops replaying while the primary keeps writing: reads move to the primary...
+        replicaSql("select pg_wal_replay_pause()");
+        jdbcTemplate.execute("create table replica_lag_probe (id int)");
+        awaitReadsOnReplica(readOnly, false);
+
+        // 3. ...and come back once it has caught up
+        replicaSql("select pg_wal_replay_resume()");
+        awaitReadsOnReplica(readOnly, true);
+        Boolean replicated = readOnly.execute(status -> jdbcTemplate.queryForObject(
+                "select to_regclass('replica_lag_probe') is not null", Boolean.class));
+        assertTrue(replicated);
+    }
+
+    private void awaitReadsOnReplica(TransactionTemplate readOnly, boolean expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (onReplica(readOnly) != expected) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("Reads " + (expected ? "never reached" : "never left") + " the replica");
+            }
+            Thread.sleep(100);
+        }
+    }
+
+    private boolean onReplica(TransactionTemplate transaction) {
+        return Boolean.TRUE.equals(transaction.execute(status -> inRecovery()));
+    }
+
+    private boolean inRecovery() {
+        return jdbcTemplate.queryForObject("select pg_is_in_recovery()", Boolean.class);
+    }
+
+    private static String replicaUrl() {
+        return "jdbc:postgresql://" + REPLICA.getHost() + ":" + REPLICA.getMappedPort(5432) + "/" + PRIMARY.getDatabaseName();
+    }
+
+    private static void replicaSql(String sql) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(replicaUrl(), PRIMARY.getUsername(), PRIMARY.getPassword());
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
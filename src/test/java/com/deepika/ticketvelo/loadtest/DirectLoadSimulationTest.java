@@ -0,0 +1,13 @@
+package com.deepika.ticketvelo.loadtest;
+
+import org.springframework.test.context.TestPropertySource;
+
+// No in-memory inventory: Redis locks + one conditional UPDATE per booking
+@TestPropertySource(properties = "ticketvelo.inventory.enabled=false")
+class DirectLoadSimulationTest extends LoadSimulationSupport {
+
+    @Override
+    protected String strategy() {
+        return "direct (redis lock + update)";
+    }
+}
@@ -0,0 +1,10 @@
+package com.deepika.ticketvelo.loadtest;
+
+// Default strategy: in-memory CAS inventory, Redis seat locks, group-committed write-behind
+class InventoryLoadSimulationTest extends LoadSimulationSupport {
+
+    @Override
+    protected String strategy() {
+        return "inventory + write-behind";
+    }
+}
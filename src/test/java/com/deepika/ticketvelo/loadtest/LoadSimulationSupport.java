@@ -0,0 +1,236 @@
+package com.deepika.ticketvelo.loadtest;
+
+import com.deepika.ticketvelo.common.exception.SeatBookedException;
+import com.deepika.ticketvelo.common.exception.TicketVeloException;
+import com.deepika.ticketvelo.modules.booking.service.BookingService;
+import com.deepika.ticketvelo.modules.catalog.service.InventoryLoader;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.KafkaContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.lifecycle.Startables;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * On-sale load simulation against real Postgres, Redis and Kafka (Testcontainers, started once
+ * per JVM and shared by every strategy). A large venue is seeded once with the bulk loader; every
+ * workload then gets a fresh event, releases all its users at the same instant and checks:
+ *   - no seat was confirmed to two bookings, and
+ *   - Postgres holds exactly the bookings that were confirmed (nothing lost, nothing extra),
+ *   - no request failed with anything but a seat conflict or load shedding (503), and
+ *   - something was booked (the single hot seat: exactly once),
+ * then prints throughput and latency percentiles.
+ *
+ * One subclass per booking strategy. Needs Docker; excluded from the default build, run with:
+ *   ./mvnw test -Dtest='*LoadSimulationTest' -Dexcluded.test.groups=none
+ * Venue size: -Dloadtest.sections=10 -Dloadtest.rows=40 -Dloadtest.seats-per-row=250 (100k seats)
+ */
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "ticketvelo.loader.seed-stadium-events=0"})
+@Tag("loadtest")
+abstract class LoadSimulationSupport {
+
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+    static final KafkaContainer KAFKA = new KafkaContainer(DockerImageName.parse("confluentinc/cp-kafka:7.5.0"));
+    static final GenericContainer<?> REDIS = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+    static {
+        Startables.deepStart(POSTGRES, KAFKA, REDIS).join();
+    }
+
+    @DynamicPropertySource
+    static void containers(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.data.redis.host", REDIS::getHost);
+        registry.add("spring.data.redis.port", () -> REDIS.getMappedPort(6379));
+        registry.add("spring.kafka.bootstrap-servers", KAFKA::getBootstrapServers);
+    }
+
+    private static final int SECTIONS = Integer.getInteger("loadtest.sections", 4);
+    private static final int ROWS = Integer.getInteger("loadtest.rows", 50);
+    private static final int SEATS_PER_ROW = Integer.getInteger("loadtest.seats-per-row", 100);
+    private static final long TIMEOUT_MINUTES = 10;
+
+    private static Long venueId; // the database outlives each strategy's Spring context
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private InventoryLoader inventoryLoader;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Label for the report, e.g. "inventory + write-behind"
+    protected abstract String strategy();
+
+    @Test
+    void zipfianHotSeats() throws InterruptedException {
+        simulate(Workload.ZIPF_HOT_SEATS);
+    }
+
+    @Test
+    void uniformBaskets() throws InterruptedException {
+        simulate(Workload.UNIFORM_BASKETS);
+    }
+
+    @Test
+    void singleHotSeat() throws InterruptedException {
+        simulate(Workload.SINGLE_HOT_SEAT);
+    }
+
+    private void simulate(Workload workload) throws InterruptedException {
+        // 1. A fresh event at the shared venue, seats in id order (= front rows first: rank 0 is the best seat)
+        Long eventId = inventoryLoader.createEvents(venue(), List.of(
+                new InventoryLoader.EventSpec(workload.name() + " / " + strategy(), LocalDateTime.now().plusDays(30))))
+                .eventIds().get(0);
+        List<Long> seatIds = jdbcTemplate.queryForList(
+                "select seat_id from tickets where event_id = ? order by seat_id", Long.class, eventId);
+        ZipfDistribution seatRank = workload.singleSeat() ? null : new ZipfDistribution(seatIds.size(), workload.zipfExponent());
+
+        // 2. Every user waits at the gate, then they all go at once (virtual threads: thousands are cheap)
+        Queue<Attempt> attempts = new ConcurrentLinkedQueue<>();
+        CountDownLatch gate = new CountDownLatch(1);
+        long started;
+        try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int u = 0; u < workload.users(); u++) {
+                long userId = 1_000_000L + u;
+                SplittableRandom random = new SplittableRandom(userId); // reproducible per user
+                users.submit(() -> {
+                    gate.await();
+                    for (int a = 0; a < workload.attemptsPerUser(); a++) {
+                        attempts.add(attempt(eventId, userId, basket(workload, seatRank, seatIds, random)));
+                    }
+                    return null;
+                });
+            }
+            started = System.nanoTime();
+            gate.countDown();
+            users.shutdown();
+            assertTrue(users.awaitTermination(TIMEOUT_MINUTES, TimeUnit.MINUTES), "simulation timed out");
+        }
+        long elapsedNanos = System.nanoTime() - started;
+
+        // 3. Correctness
+        Map<Long, Long> confirmedOwner = new HashMap<>();
+        for (Attempt attempt : attempts) {
+            if (attempt.outcome() != Outcome.BOOKED) continue;
+            for (Long seatId : attempt.seatIds()) {
+                Long previous = confirmedOwner.put(seatId, attempt.userId());
+                assertTrue(previous == null, "double booking: seat " + seatId + " confirmed to " + previous + " and " + attempt.userId());
+            }
+        }
+        Map<Long, Long> bookedInDatabase = new HashMap<>();
+        jdbcTemplate.query("select seat_id, user_id from tickets where event_id = ? and status = 'BOOKED'",
+                row -> { bookedInDatabase.put(row.getLong(1), row.getLong(2)); }, eventId);
+        assertEquals(confirmedOwner, bookedInDatabase, "Postgres disagrees with the confirmed bookings");
+
+        Map<Outcome, Integer> outcomes = report(workload, attempts, elapsedNanos);
+        // A run where every request failed would pass the checks above: only conflicts and shedding are expected
+        assertEquals(0, outcomes.getOrDefault(Outcome.ERROR, 0), "requests failed with unexpected errors");
+        if (workload.singleSeat()) assertEquals(1, confirmedOwner.size(), "the hot seat must be sold exactly once");
+        else assertTrue(outcomes.getOrDefault(Outcome.BOOKED, 0) > 0, "nothing was booked");
+    }
+
+    private static List<Long> basket(Workload workload, ZipfDistribution seatRank, List<Long> seatIds, SplittableRandom random) {
+        if (workload.singleSeat()) return List.of(seatIds.get(0));
+
+        int size = workload.basketSizes()[workload.basketSizes().length - 1];
+        double pick = random.nextDouble();
+        for (int i = 0; i < workload.basketSizes().length; i++) {
+            pick -= workload.basketWeights()[i];
+            if (pick <= 0) {
+                size = workload.basketSizes()[i];
+                break;
+            }
+        }
+        // Adjacent seats starting at a (mostly hot) seat
+        int first = Math.min(seatRank.sample(random), seatIds.size() - size);
+        return seatIds.subList(first, first + size);
+    }
+
+    private Attempt attempt(Long eventId, long userId, List<Long> seatIds) {
+        long start = System.nanoTime();
+        Outcome outcome;
+        try {
+            bookingService.bookTickets(eventId, seatIds, userId);
+            outcome = Outcome.BOOKED;
+        } catch (SeatBookedException e) {
+            outcome = Outcome.CONFLICT;
+        } catch (TicketVeloException e) {
+            outcome = e.getStatus().value() == 503 ? Outcome.BUSY : Outcome.ERROR;
+        } catch (RuntimeException e) {
+            outcome = Outcome.ERROR;
+        }
+        return new Attempt(userId, seatIds, outcome, System.nanoTime() - start);
+    }
+
+    // Prints the run's outcomes, throughput and latencies; returns the outcome counts
+    private Map<Outcome, Integer> report(Workload workload, Queue<Attempt> attempts, long elapsedNanos) {
+        Map<Outcome, Integer> outcomes = new HashMap<>();
+        long[] latencies = new long[attempts.size()];
+        int i = 0;
+        long seatsBooked = 0;
+        for (Attempt attempt : attempts) {
+            outcomes.merge(attempt.outcome(), 1, Integer::sum);
+            latencies[i++] = attempt.nanos();
+            if (attempt.outcome() == Outcome.BOOKED) seatsBooked += attempt.seatIds().size();
+        }
+        Arrays.sort(latencies);
+        double seconds = elapsedNanos / 1e9;
+
+        System.out.printf("%n=== %s | %s: %d users x %d attempts ===%n",
+                strategy(), workload.name(), workload.users(), workload.attemptsPerUser());
+        System.out.printf("outcomes   booked=%d conflict=%d busy=%d error=%d%n",
+                outcomes.getOrDefault(Outcome.BOOKED, 0), outcomes.getOrDefault(Outcome.CONFLICT, 0),
+                outcomes.getOrDefault(Outcome.BUSY, 0), outcomes.getOrDefault(Outcome.ERROR, 0));
+        System.out.printf("throughput %.0f requests/s, %.0f bookings/s, %.0f seats/s over %.2fs%n",
+                latencies.length / seconds, outcomes.getOrDefault(Outcome.BOOKED, 0) / seconds, seatsBooked / seconds, seconds);
+        System.out.printf("latency ms p50=%.1f p95=%.1f p99=%.1f p99.9=%.1f max=%.1f%n",
+                percentile(latencies, 0.50), percentile(latencies, 0.95), percentile(latencies, 0.99),
+                percentile(latencies, 0.999), latencies.length == 0 ? 0 : latencies[latencies.length - 1] / 1e6);
+        return outcomes;
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1)] / 1e6;
+    }
+
+    // Seeded on first use and shared by every strategy, so they all book against the same layout
+    private Long venue() {
+        synchronized (LoadSimulationSupport.class) {
+            if (venueId == null) {
+                venueId = inventoryLoader.createVenue("Load Test Arena", "Testcontainers", SECTIONS, ROWS, SEATS_PER_ROW).venueId();
+            }
+            return venueId;
+        }
+    }
+
+    enum Outcome { BOOKED, CONFLICT, BUSY, ERROR }
+
+    record Attempt(long userId, List<Long> seatIds, Outcome outcome, long nanos) {}
+}
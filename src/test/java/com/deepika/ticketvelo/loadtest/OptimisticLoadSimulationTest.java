@@ -0,0 +1,13 @@
+package com.deepika.ticketvelo.loadtest;
+
+import org.springframework.test.context.TestPropertySource;
+
+// In-memory inventory, then no Redis: @Version-checked writes with jittered retry
+@TestPropertySource(properties = "ticketvelo.booking.default-strategy=optimistic")
+class OptimisticLoadSimulationTest extends LoadSimulationSupport {
+
+    @Override
+    protected String strategy() {
+        return "inventory + optimistic";
+    }
+}
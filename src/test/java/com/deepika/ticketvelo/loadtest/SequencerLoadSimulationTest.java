@@ -0,0 +1,13 @@
+package com.deepika.ticketvelo.loadtest;
+
+import org.springframework.test.context.TestPropertySource;
+
+// Per-event single-writer partitions, one transaction per drained batch, no Redis locks
+@TestPropertySource(properties = "ticketvelo.sequencer.enabled=true")
+class SequencerLoadSimulationTest extends LoadSimulationSupport {
+
+    @Override
+    protected String strategy() {
+        return "sequencer";
+    }
+}
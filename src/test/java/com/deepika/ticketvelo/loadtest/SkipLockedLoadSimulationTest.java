@@ -0,0 +1,13 @@
+package com.deepika.ticketvelo.loadtest;
+
+import org.springframework.test.context.TestPropertySource;
+
+// In-memory inventory, then no Redis: SELECT ... FOR UPDATE SKIP LOCKED per booking
+@TestPropertySource(properties = "ticketvelo.booking.default-strategy=skip-locked")
+class SkipLockedLoadSimulationTest extends LoadSimulationSupport {
+
+    @Override
+    protected String strategy() {
+        return "inventory + skip locked";
+    }
+}
@@ -0,0 +1,29 @@
+package com.deepika.ticketvelo.loadtest;
+
+/**
+ * One on-sale traffic shape: how many users arrive at once, how often each one tries, which seats
+ * they go for (Zipfian over seat rank, 0 = uniform) and how big their baskets are.
+ *
+ * Sizes can be overridden without editing code: -Dloadtest.users=5000 -Dloadtest.attempts=5
+ */
+record Workload(String name, int users, int attemptsPerUser, double zipfExponent, int[] basketSizes, double[] basketWeights) {
+
+    private static final int USERS = Integer.getInteger("loadtest.users", 2000);
+    private static final int ATTEMPTS = Integer.getInteger("loadtest.attempts", 3);
+
+    // Most users fight over the best seats; baskets of 1-8 adjacent seats
+    static final Workload ZIPF_HOT_SEATS = new Workload("zipf-hot-seats", USERS, ATTEMPTS, 1.1,
+            new int[]{1, 2, 4, 8}, new double[]{0.40, 0.35, 0.20, 0.05});
+
+    // Same baskets spread evenly over the venue: the no-contention baseline
+    static final Workload UNIFORM_BASKETS = new Workload("uniform-baskets", USERS, ATTEMPTS, 0.0,
+            new int[]{1, 2, 4, 8}, new double[]{0.40, 0.35, 0.20, 0.05});
+
+    // Everyone wants the single best seat: exactly one winner
+    static final Workload SINGLE_HOT_SEAT = new Workload("single-hot-seat", USERS, 1, Double.POSITIVE_INFINITY,
+            new int[]{1}, new double[]{1.0});
+
+    boolean singleSeat() {
+        return Double.isInfinite(zipfExponent);
+    }
+}
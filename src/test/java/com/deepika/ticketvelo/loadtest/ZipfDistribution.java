@@ -0,0 +1,28 @@
+package com.deepika.ticketvelo.loadtest;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Ranks 0..n-1 with P(rank k) proportional to 1 / (k+1)^s; s = 0 is uniform.
+ * Sampling is a binary search over the precomputed CDF, so it's cheap enough to call per request.
+ */
+final class ZipfDistribution {
+
+    private final double[] cdf;
+
+    ZipfDistribution(int n, double exponent) {
+        cdf = new double[n];
+        double sum = 0;
+        for (int k = 0; k < n; k++) {
+            sum += 1.0 / Math.pow(k + 1, exponent);
+            cdf[k] = sum;
+        }
+        for (int k = 0; k < n; k++) cdf[k] /= sum;
+    }
+
+    int sample(RandomGenerator random) {
+        int i = Arrays.binarySearch(cdf, random.nextDouble());
+        return Math.min(i >= 0 ? i : -i - 1, cdf.length - 1);
+    }
+}
@@ -0,0 +1,68 @@
+package com.deepika.ticketvelo.modules.booking.event;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TicketEventCodecTest {
+
+    private static final Instant AT = Instant.ofEpochMilli(1_767_297_600_123L);
+
+    @Test
+    void roundTripsEveryField() {
+        TicketEvent held = new TicketEvent(TicketEvent.Type.HELD, 42L, 9_000_001L, "42-6f1c2a3b-0000-4000-8000-000000000001", AT,
+                List.of(1_000_010L, 1_000_011L, 1_000_009L), List.of(510L, 511L, 509L)); // unsorted: negative deltas
+        assertEquals(held, TicketEventCodec.decode(TicketEventCodec.encode(held)));
+
+        TicketEvent anonymous = new TicketEvent(TicketEvent.Type.BOOKED, 1L, null, null, AT, List.of(), List.of());
+        TicketEvent decoded = TicketEventCodec.decode(TicketEventCodec.encode(anonymous));
+        assertNull(decoded.userId());
+        assertNull(decoded.holdId());
+        assertEquals(anonymous, decoded);
+    }
+
+    @Test
+    void adjacentSeatsCostAboutTwoBytesEach() {
+        List<Long> ticketIds = List.of(2_000_001L, 2_000_002L, 2_000_003L, 2_000_004L, 2_000_005L,
+                2_000_006L, 2_000_007L, 2_000_008L, 2_000_009L, 2_000_010L);
+        List<Long> seatIds = ticketIds.stream().map(id -> id - 1_990_000L).toList();
+        byte[] bytes = TicketEventCodec.encode(new TicketEvent(TicketEvent.Type.BOOKED, 7L, 45L, null, AT, ticketIds, seatIds));
+
+        // header ~13 bytes, first ids ~3 bytes each, then 1-byte deltas
+        assertTrue(bytes.length <= 40, "10-seat booking took " + bytes.length + " bytes");
+    }
+
+    @Test
+    void ignoresFieldsAppendedByNewerWriters() {
+        TicketEvent event = new TicketEvent(TicketEvent.Type.RELEASED, 3L, 4L, "3-x", AT, List.of(5L), List.of(6L));
+        byte[] bytes = TicketEventCodec.encode(event);
+        byte[] extended = Arrays.copyOf(bytes, bytes.length + 3);
+        extended[bytes.length] = 1;
+
+        assertEquals(event, TicketEventCodec.decode(extended));
+    }
+
+    @Test
+    void rejectsWhatItCannotRead() {
+        byte[] bytes = TicketEventCodec.encode(new TicketEvent(TicketEvent.Type.BOOKED, 3L, 4L, null, AT, List.of(5L), List.of(6L)));
+
+        byte[] futureVersion = bytes.clone();
+        futureVersion[0] = 2;
+        assertThrows(SerializationException.class, () -> TicketEventCodec.decode(futureVersion));
+
+        byte[] unknownType = bytes.clone();
+        unknownType[1] = 99;
+        assertThrows(SerializationException.class, () -> TicketEventCodec.decode(unknownType));
+
+        assertThrows(SerializationException.class, () -> TicketEventCodec.decode(Arrays.copyOf(bytes, bytes.length - 1)));
+        assertThrows(SerializationException.class, () -> TicketEventCodec.decode("Ticket Confirmed: 1 for User 2".getBytes()));
+    }
+}
@@ -0,0 +1,135 @@
+package com.deepika.ticketvelo.modules.booking.event;
+
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Producer throughput on ticket-updates, old vs new:
+ *   old: one "Ticket Confirmed: ..." string per seat, no key, producer defaults
+ *   new: one binary TicketEvent per booking, keyed by eventId, idempotent, linger + lz4 (as KafkaConfig)
+ *
+ * Reports bookings/s and the bytes the producer actually sent (after batching and compression).
+ * Needs the docker-compose Kafka. Excluded from the default build; run with:
+ *   ./mvnw test -Dtest=TicketEventProducerBenchmarkTest -Dexcluded.test.groups=none
+ */
+@Tag("benchmark")
+public class TicketEventProducerBenchmarkTest {
+
+    private static final String BOOTSTRAP_SERVERS = System.getProperty("kafka.bootstrap", "localhost:9092");
+    private static final int BOOKINGS = 50_000;
+    private static final int SEATS_PER_BOOKING = 4;
+    private static final int EVENTS = 20;
+
+    @Test
+    public void compareFormats() {
+        // Fresh topic per run so the runs don't share partition leaders' warm state
+        String topic = "ticket-updates-bench-" + UUID.randomUUID();
+        List<TicketEvent> bookings = bookings();
+
+        Result text = run(topic + "-text", textProducer(), bookings, false);
+        Result binary = run(topic + "-binary", binaryProducer(), bookings, true);
+
+        System.out.println("format | messages | bookings/s | bytes sent | bytes/booking");
+        System.out.println(text.format("text  "));
+        System.out.println(binary.format("binary"));
+        assertTrue(binary.bytesSent() < text.bytesSent());
+    }
+
+    private static Result run(String topic, Producer<String, byte[]> producer, List<TicketEvent> bookings, boolean binary) {
+        try (producer) {
+            // Warm up: metadata fetch, connections, the producer id for idempotence
+            producer.send(new ProducerRecord<>(topic, "warmup".getBytes(StandardCharsets.UTF_8)));
+            producer.flush();
+            double warmupBytes = metric(producer, "outgoing-byte-total");
+
+            long messages = 0;
+            long start = System.nanoTime();
+            for (TicketEvent booking : bookings) {
+                if (binary) {
+                    producer.send(new ProducerRecord<>(topic, String.valueOf(booking.eventId()), TicketEventCodec.encode(booking)));
+                    messages++;
+                } else {
+                    for (Long ticketId : booking.ticketIds()) {
+                        String message = "Ticket Confirmed: " + ticketId + " for User " + booking.userId();
+                        producer.send(new ProducerRecord<>(topic, message.getBytes(StandardCharsets.UTF_8)));
+                        messages++;
+                    }
+                }
+            }
+            producer.flush();
+            double seconds = (System.nanoTime() - start) / 1e9;
+            long bytesSent = (long) (metric(producer, "outgoing-byte-total") - warmupBytes);
+            return new Result(messages, bookings.size() / seconds, bytesSent, bookings.size());
+        }
+    }
+
+    // What the relay used to run with: string values, no key, every producer setting at its default
+    private static Producer<String, byte[]> textProducer() {
+        return new KafkaProducer<>(Map.of(
+                ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, BOOTSTRAP_SERVERS,
+                ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, false,
+                ProducerConfig.ACKS_CONFIG, "1"),
+                new StringSerializer(), new ByteArraySerializer());
+    }
+
+    // Mirrors KafkaConfig.producerFactory() with the application.yml defaults
+    private static Producer<String, byte[]> binaryProducer() {
+        return new KafkaProducer<>(Map.of(
+                ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, BOOTSTRAP_SERVERS,
+                ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true,
+                ProducerConfig.ACKS_CONFIG, "all",
+                ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5,
+                ProducerConfig.LINGER_MS_CONFIG, 5,
+                ProducerConfig.BATCH_SIZE_CONFIG, 65536,
+                ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4"),
+                new StringSerializer(), new ByteArraySerializer());
+    }
+
+    private static List<TicketEvent> bookings() {
+        List<TicketEvent> bookings = new ArrayList<>(BOOKINGS);
+        long ticketId = 1_000_000;
+        for (int b = 0; b < BOOKINGS; b++) {
+            List<Long> ticketIds = new ArrayList<>(SEATS_PER_BOOKING);
+            List<Long> seatIds = new ArrayList<>(SEATS_PER_BOOKING);
+            for (int s = 0; s < SEATS_PER_BOOKING; s++, ticketId++) {
+                ticketIds.add(ticketId);
+                seatIds.add(ticketId - 900_000);
+            }
+            bookings.add(new TicketEvent(TicketEvent.Type.BOOKED, b % EVENTS + 1, (long) b, null, Instant.now(), ticketIds, seatIds));
+        }
+        return bookings;
+    }
+
+    private static double metric(Producer<String, byte[]> producer, String name) {
+        for (Map.Entry<MetricName, ? extends Metric> entry : producer.metrics().entrySet()) {
+            if (entry.getKey().group().equals("producer-metrics") && entry.getKey().name().equals(name)) {
+                return ((Number) entry.getValue().metricValue()).doubleValue();
+            }
+        }
+        return 0;
+    }
+
+    private record Result(long messages, double bookingsPerSecond, long bytesSent, int bookings) {
+        String format(String label) {
+            return String.format("%s | %8d | %10.0f | %10d | %13.1f",
+                    label, messages, bookingsPerSecond, bytesSent, (double) bytesSent / bookings);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.deepika.ticketvelo.modules.booking.service;
+
+import com.deepika.ticketvelo.common.exception.SeatBookedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BookingMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final BookingMetrics metrics = new BookingMetrics(registry);
+
+    @Test
+    void nestedStagesCountARejectionOnce() {
+        assertThrows(OptimisticLockingFailureException.class, () -> metrics.time(BookingMetrics.Stage.TOTAL, 1L,
+                () -> metrics.time(BookingMetrics.Stage.COMMIT, 1L, () -> {
+                    throw new OptimisticLockingFailureException("version changed");
+                })));
+        assertEquals(1.0, rejected("optimistic_lock"));
+
+        // Sequencer mode: the in-memory claim (INVENTORY) fails inside PERSIST, inside TOTAL
+        assertThrows(SeatBookedException.class, () -> metrics.time(BookingMetrics.Stage.TOTAL, 1L,
+                () -> metrics.time(BookingMetrics.Stage.PERSIST, 1L,
+                        () -> metrics.time(BookingMetrics.Stage.INVENTORY, 1L, () -> {
+                            throw new SeatBookedException("taken");
+                        }))));
+        assertEquals(1.0, rejected("status_conflict"));
+        assertEquals(1.0, rejected("optimistic_lock"));
+    }
+
+    private double rejected(String reason) {
+        return registry.get("ticketvelo.booking.rejected").tag("reason", reason).counter().count();
+    }
+}
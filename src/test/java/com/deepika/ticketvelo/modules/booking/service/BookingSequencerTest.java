@@ -0,0 +1,76 @@
+package com.deepika.ticketvelo.modules.booking.service;
+
+import com.deepika.ticketvelo.common.exception.TicketVeloException;
+import com.deepika.ticketvelo.modules.booking.model.TicketView;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class BookingSequencerTest {
+
+    private final ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+    private SeatInventory seatInventory;
+    private BookingSequencer sequencer;
+
+    @BeforeEach
+    void setUp() {
+        seatInventory = mock(SeatInventory.class);
+        TicketWriteBehind ticketWriteBehind = mock(TicketWriteBehind.class);
+        doAnswer(call -> {
+            call.<List<TicketWriteBehind.PendingClaim>>getArgument(0).forEach(pending -> pending.result().complete(null));
+            return null;
+        }).when(ticketWriteBehind).writeBatch(anyList());
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        sequencer = new BookingSequencer(seatInventory, ticketWriteBehind, new BookingMetrics(registry), registry);
+        ReflectionTestUtils.setField(sequencer, "partitionCount", 1);
+        ReflectionTestUtils.setField(sequencer, "queueCapacity", 16);
+        ReflectionTestUtils.setField(sequencer, "maxBatch", 1);
+        ReflectionTestUtils.setField(sequencer, "awaitTimeoutMillis", 100L);
+        sequencer.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        sequencer.stop();
+        clients.shutdownNow();
+    }
+
+    @Test
+    void aRequestThatTimesOutInTheQueueIsWithdrawn() throws Exception {
+        // The writer is stuck on the first booking well past the await timeout
+        CountDownLatch claiming = new CountDownLatch(1);
+        CountDownLatch proceed = new CountDownLatch(1);
+        when(seatInventory.claim(eq(1L), eq(List.of(10L)), eq(1L))).thenAnswer(call -> {
+            claiming.countDown();
+            proceed.await();
+            return mock(SeatInventory.Claim.class);
+        });
+        Future<List<TicketView>> first = clients.submit(() -> sequencer.book(1L, List.of(10L), 1L));
+        assertTrue(claiming.await(5, TimeUnit.SECONDS));
+
+        // Still queued when its caller gives up: a retryable 503, and the writer never books it
+        TicketVeloException timedOut = assertThrows(TicketVeloException.class, () -> sequencer.book(1L, List.of(20L), 2L));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, timedOut.getStatus());
+
+        // The first one was already being processed: its caller waits for the outcome instead of a 504
+        Thread.sleep(150);
+        proceed.countDown();
+        assertNotNull(first.get(5, TimeUnit.SECONDS));
+        verify(seatInventory, after(200).never()).claim(eq(1L), eq(List.of(20L)), any());
+    }
+}
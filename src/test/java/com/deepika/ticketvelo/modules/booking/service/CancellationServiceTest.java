@@ -0,0 +1,102 @@
+package com.deepika.ticketvelo.modules.booking.service;
+
+import com.deepika.ticketvelo.common.concurrency.ConcurrencyLimits;
+import com.deepika.ticketvelo.common.exception.ResourceNotFoundException;
+import com.deepika.ticketvelo.common.exception.SeatBookedException;
+import com.deepika.ticketvelo.modules.booking.model.CancellationView;
+import com.deepika.ticketvelo.modules.booking.model.TicketSeatRow;
+import com.deepika.ticketvelo.modules.booking.repository.TicketRepository;
+import com.deepika.ticketvelo.modules.booking.repository.WaitlistRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class CancellationServiceTest {
+
+    private static final Long EVENT_ID = 5L;
+    private static final Long USER_ID = 42L;
+
+    private TicketRepository ticketRepository;
+    private WaitlistRepository waitlistRepository;
+    private SeatInventory seatInventory;
+    private WaitlistMatcher waitlistMatcher;
+    private CancellationService cancellationService;
+
+    @BeforeEach
+    void setUp() {
+        ticketRepository = mock(TicketRepository.class);
+        waitlistRepository = mock(WaitlistRepository.class);
+        seatInventory = mock(SeatInventory.class);
+        waitlistMatcher = mock(WaitlistMatcher.class);
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(call -> call.<TransactionCallback<?>>getArgument(0).doInTransaction(mock(TransactionStatus.class)));
+
+        cancellationService = new CancellationService(ticketRepository, waitlistRepository, seatInventory, waitlistMatcher,
+                mock(TicketUpdatePublisher.class), transactionTemplate, new ConcurrencyLimits(10, 2, 10, new SimpleMeterRegistry()),
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cancellationService, "releaseHoldMillis", 30_000L);
+        ReflectionTestUtils.setField(cancellationService, "batchSize", 2); // three tickets: two bounded UPDATEs
+    }
+
+    @Test
+    void withAWaitlistTheSeatsAreHeldAndOfferedToTheMatcher() {
+        List<TicketSeatRow> order = List.of(row(1L), row(2L), row(3L));
+        when(ticketRepository.findBookedRowsByEventIdAndUserId(EVENT_ID, USER_ID, null)).thenReturn(order);
+        when(waitlistRepository.existsByEventIdAndStatus(EVENT_ID, "WAITING")).thenReturn(true);
+        when(ticketRepository.cancelTickets(eq(EVENT_ID), anyList(), eq("LOCKED"), anyString(), any()))
+                .thenAnswer(call -> call.<List<Long>>getArgument(1).size());
+
+        CancellationView view = cancellationService.cancelOrder(EVENT_ID, USER_ID);
+
+        assertTrue(view.waitlisted());
+        assertEquals(List.of(1L, 2L, 3L), view.ticketIds());
+        verify(ticketRepository).cancelTickets(eq(EVENT_ID), eq(List.of(1L, 2L)), eq("LOCKED"), anyString(), any());
+        verify(ticketRepository).cancelTickets(eq(EVENT_ID), eq(List.of(3L)), eq("LOCKED"), anyString(), any());
+
+        ArgumentCaptor<String> holdId = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Long> heldUntil = ArgumentCaptor.forClass(Long.class);
+        verify(seatInventory).returnSeats(eq(EVENT_ID), eq(List.of(1001L, 1002L, 1003L)), holdId.capture(), heldUntil.capture());
+        assertTrue(holdId.getValue().startsWith(EVENT_ID + "-release-"));
+        assertTrue(heldUntil.getValue() > System.currentTimeMillis());
+        verify(waitlistMatcher).offer(EVENT_ID, holdId.getValue(), heldUntil.getValue(), order);
+    }
+
+    @Test
+    void withoutAWaitlistTheSeatsGoStraightBackOnSale() {
+        when(ticketRepository.findBookedRowsByEventIdAndUserId(EVENT_ID, USER_ID, 1L)).thenReturn(List.of(row(1L)));
+        when(ticketRepository.cancelTickets(EVENT_ID, List.of(1L), "AVAILABLE", null, null)).thenReturn(1);
+
+        CancellationView view = cancellationService.cancelTicket(EVENT_ID, 1L, USER_ID);
+
+        assertFalse(view.waitlisted());
+        verify(seatInventory).returnSeats(EVENT_ID, List.of(1001L), null, 0L);
+        verifyNoInteractions(waitlistMatcher);
+    }
+
+    @Test
+    void aConcurrentCancellationLeavesMemoryUntouched() {
+        when(ticketRepository.findBookedRowsByEventIdAndSection(EVENT_ID, "Floor")).thenReturn(List.of(row(1L), row(2L)));
+        when(ticketRepository.cancelTickets(eq(EVENT_ID), anyList(), anyString(), any(), any())).thenReturn(1); // one already gone
+
+        assertThrows(SeatBookedException.class, () -> cancellationService.releaseSection(EVENT_ID, "Floor"));
+        assertThrows(ResourceNotFoundException.class, () -> cancellationService.cancelOrder(EVENT_ID, USER_ID));
+        verifyNoInteractions(seatInventory, waitlistMatcher);
+    }
+
+    // Ticket id n is seat 1000 + n
+    private static TicketSeatRow row(long ticketId) {
+        return new TicketSeatRow(ticketId, 1000 + ticketId, "A", (int) ticketId, "Floor", "BOOKED", USER_ID);
+    }
+}
@@ -0,0 +1,69 @@
+package com.deepika.ticketvelo.modules.booking.service;
+
+import com.deepika.ticketvelo.common.concurrency.ConcurrencyLimits;
+import com.deepika.ticketvelo.common.exception.SeatBookedException;
+import com.deepika.ticketvelo.modules.booking.model.TicketSeatRow;
+import com.deepika.ticketvelo.modules.booking.repository.TicketRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SeatBlockIndexTest {
+
+    private static final Long EVENT_ID = 9L;
+
+    private SeatInventory seatInventory;
+
+    @BeforeEach
+    void setUp() {
+        // Section "Floor": rows A-C of 10 seats (seat id = 100 * row + seat number)
+        List<TicketSeatRow> rows = new ArrayList<>();
+        String[] labels = {"A", "B", "C"};
+        for (int r = 0; r < labels.length; r++) {
+            for (int s = 1; s <= 10; s++) {
+                long seatId = 100L * (r + 1) + s;
+                rows.add(new TicketSeatRow(seatId, seatId, labels[r], s, "Floor", "AVAILABLE", null));
+            }
+        }
+        TicketRepository ticketRepository = mock(TicketRepository.class);
+        when(ticketRepository.findSeatRowsByEventId(EVENT_ID)).thenReturn(rows);
+
+        seatInventory = new SeatInventory(ticketRepository, new ConcurrencyLimits(10, 2, 10, new SimpleMeterRegistry()), 100, 64);
+    }
+
+    @Test
+    void picksTheCentreOfTheFrontRow() {
+        SeatInventory.Claim claim = seatInventory.claimBestAvailable(EVENT_ID, "Floor", 4, 1L);
+        assertEquals(List.of(104L, 105L, 106L, 107L), claim.getSeatIds());
+    }
+
+    @Test
+    void skipsRowsWithoutALongEnoughRun() {
+        // Break row A into runs of 4 and 5, so a block of 6 has to go to row B
+        seatInventory.claim(EVENT_ID, List.of(105L), 1L);
+
+        SeatInventory.Claim claim = seatInventory.claimBestAvailable(EVENT_ID, "Floor", 6, 2L);
+        assertEquals(List.of(203L, 204L, 205L, 206L, 207L, 208L), claim.getSeatIds());
+
+        // ...but a block of 5 still fits in row A, as close to the centre as possible
+        SeatInventory.Claim small = seatInventory.claimBestAvailable(EVENT_ID, "Floor", 5, 3L);
+        assertEquals(List.of(106L, 107L, 108L, 109L, 110L), small.getSeatIds());
+    }
+
+    @Test
+    void releasedSeatsBecomeAvailableAgain() {
+        List<SeatInventory.Claim> claims = new ArrayList<>();
+        for (int i = 0; i < 3; i++) claims.add(seatInventory.claimBestAvailable(EVENT_ID, null, 10, (long) i));
+        assertThrows(SeatBookedException.class, () -> seatInventory.claimBestAvailable(EVENT_ID, null, 1, 9L));
+
+        seatInventory.release(claims.get(1)); // row B
+        assertEquals(List.of(205L, 206L), seatInventory.claimBestAvailable(EVENT_ID, "Floor", 2, 9L).getSeatIds());
+    }
+}
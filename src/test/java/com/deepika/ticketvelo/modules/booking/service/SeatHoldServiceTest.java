@@ -0,0 +1,61 @@
+package com.deepika.ticketvelo.modules.booking.service;
+
+import com.deepika.ticketvelo.common.concurrency.ConcurrencyLimits;
+import com.deepika.ticketvelo.modules.booking.model.TicketSeatRow;
+import com.deepika.ticketvelo.modules.booking.repository.TicketRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class SeatHoldServiceTest {
+
+    private TicketRepository ticketRepository;
+    private SeatInventory seatInventory;
+    private TicketUpdatePublisher ticketUpdatePublisher;
+    private SeatHoldService seatHoldService;
+
+    @BeforeEach
+    void setUp() {
+        ticketRepository = mock(TicketRepository.class);
+        seatInventory = mock(SeatInventory.class);
+        ticketUpdatePublisher = mock(TicketUpdatePublisher.class);
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(call ->
+                call.<TransactionCallback<?>>getArgument(0).doInTransaction(mock(TransactionStatus.class)));
+
+        seatHoldService = new SeatHoldService(ticketRepository, seatInventory, mock(SeatLockManager.class), ticketUpdatePublisher,
+                transactionTemplate, new ConcurrencyLimits(10, 2, 10, new SimpleMeterRegistry()), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(seatHoldService, "releaseBatchSize", 2);
+    }
+
+    @Test
+    void publishesTheSeatsOfEachExpiredBatch() {
+        when(seatInventory.expireHolds(anyLong())).thenReturn(List.of("5-a", "5-b", "5-c", "6-a"));
+        when(ticketRepository.lockExpiredHolds(eq(5L), eq(List.of("5-a", "5-b")), any())).thenReturn(List.of(row(1L), row(2L)));
+        when(ticketRepository.lockExpiredHolds(eq(5L), eq(List.of("5-c")), any())).thenReturn(List.of(row(3L)));
+        when(ticketRepository.lockExpiredHolds(eq(6L), eq(List.of("6-a")), any())).thenReturn(List.of()); // confirmed in time
+        when(ticketRepository.releaseExpiredHolds(eq(5L), any(), any())).thenReturn(2, 1);
+
+        seatHoldService.expireHolds();
+
+        verify(ticketUpdatePublisher).seatsReleased(5L, null, null, List.of(1L, 2L), List.of(1001L, 1002L));
+        verify(ticketUpdatePublisher).seatsReleased(5L, null, null, List.of(3L), List.of(1003L));
+        verify(ticketRepository, never()).releaseExpiredHolds(eq(6L), any(), any());
+        verifyNoMoreInteractions(ticketUpdatePublisher);
+    }
+
+    // Ticket id n is seat 1000 + n
+    private static TicketSeatRow row(long ticketId) {
+        return new TicketSeatRow(ticketId, 1000 + ticketId, "A", (int) ticketId, "Floor", "LOCKED", 9L, "hold", Instant.now());
+    }
+}
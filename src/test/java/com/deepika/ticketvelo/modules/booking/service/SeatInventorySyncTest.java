@@ -0,0 +1,141 @@
+package com.deepika.ticketvelo.modules.booking.service;
+
+import com.deepika.ticketvelo.common.concurrency.ConcurrencyLimits;
+import com.deepika.ticketvelo.common.exception.SeatBookedException;
+import com.deepika.ticketvelo.modules.booking.model.TicketSeatRow;
+import com.deepika.ticketvelo.modules.booking.repository.TicketRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class SeatInventorySyncTest {
+
+    private static final Long EVENT_ID = 7L;
+
+    private final Map<String, Long> redis = new ConcurrentHashMap<>();
+    private final List<SeatInventorySync> subscribers = new ArrayList<>();
+    private boolean delivering = true;
+
+    private TicketRepository ticketRepository;
+    private StringRedisTemplate redisTemplate;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ticketRepository = mock(TicketRepository.class);
+        when(ticketRepository.findSeatRowsByEventId(EVENT_ID)).thenReturn(rows("BOOKED"));
+
+        // One Redis for all nodes: the sequence counters, and pub/sub delivered to every subscriber (or lost)
+        ValueOperations<String, String> values = mock(ValueOperations.class);
+        when(values.increment(anyString())).thenAnswer(call -> redis.merge(call.getArgument(0), 1L, Long::sum));
+        when(values.get(anyString())).thenAnswer(call -> {
+            Long value = redis.get(call.<String>getArgument(0));
+            return value == null ? null : value.toString();
+        });
+        redisTemplate = mock(StringRedisTemplate.class);
+        when(redisTemplate.opsForValue()).thenReturn(values);
+        when(redisTemplate.convertAndSend(anyString(), any())).thenAnswer(call -> {
+            if (delivering) {
+                byte[] body = call.<String>getArgument(1).getBytes(StandardCharsets.UTF_8);
+                for (SeatInventorySync subscriber : subscribers) {
+                    subscriber.onMessage(new DefaultMessage(SeatInventorySync.CHANNEL.getBytes(StandardCharsets.UTF_8), body), null);
+                }
+            }
+            return (long) subscribers.size();
+        });
+    }
+
+    @Test
+    void seatsCancelledOnOneNodeAreFreeOnTheOthers() {
+        SeatInventory nodeA = node();
+        SeatInventory nodeB = node();
+        nodeA.getSeatMap(EVENT_ID, null);
+        nodeB.getSeatMap(EVENT_ID, null);
+        assertThrows(SeatBookedException.class, () -> nodeB.claim(EVENT_ID, List.of(1005L), 2L));
+
+        nodeA.returnSeats(EVENT_ID, List.of(1005L), null, 0L);
+
+        assertDoesNotThrow(() -> nodeB.claim(EVENT_ID, List.of(1005L), 2L));
+    }
+
+    @Test
+    void releaseHoldsAndConfirmationsReachTheOtherNodes() {
+        SeatInventory nodeA = node();
+        SeatInventory nodeB = node();
+        nodeA.getSeatMap(EVENT_ID, null);
+        nodeB.getSeatMap(EVENT_ID, null);
+
+        // Cancelled for the waitlist: held on both nodes, then the waitlist takes it
+        long heldUntil = System.currentTimeMillis() + 60_000;
+        nodeA.returnSeats(EVENT_ID, List.of(1005L), "7-release-1", heldUntil);
+        assertEquals(2, status(nodeB, 5));
+        nodeA.confirmHold(EVENT_ID, List.of(1005L), 43L);
+        assertEquals(1, status(nodeB, 5));
+
+        // Another release hold nobody on the waitlist wanted: back on sale everywhere
+        nodeA.returnSeats(EVENT_ID, List.of(1006L), "7-release-2", heldUntil);
+        nodeA.releaseHold(EVENT_ID, List.of(1006L), heldUntil);
+        assertEquals(0, status(nodeB, 6));
+    }
+
+    @Test
+    void aNodeThatMissedAChangeReloadsTheEvent() {
+        SeatInventory nodeA = node();
+        SeatInventory nodeB = node();
+        SeatInventorySync syncB = subscribers.get(1);
+        nodeA.getSeatMap(EVENT_ID, null);
+        nodeB.getSeatMap(EVENT_ID, null);
+
+        delivering = false; // the message is lost
+        nodeA.returnSeats(EVENT_ID, List.of(1005L), null, 0L);
+        when(ticketRepository.findSeatRowsByEventId(EVENT_ID)).thenReturn(rows("AVAILABLE"));
+
+        syncB.checkForMissedChanges(); // could still be in flight
+        assertThrows(SeatBookedException.class, () -> nodeB.claim(EVENT_ID, List.of(1005L), 2L));
+
+        syncB.checkForMissedChanges(); // still behind: reload
+        assertDoesNotThrow(() -> nodeB.claim(EVENT_ID, List.of(1005L), 2L));
+
+        // Caught up: the reload starts from the current sequence, so it isn't behind again
+        syncB.checkForMissedChanges();
+        syncB.checkForMissedChanges();
+        assertEquals(1, status(nodeB, 5));
+    }
+
+    private SeatInventory node() {
+        SeatInventory seatInventory = new SeatInventory(ticketRepository, new ConcurrencyLimits(10, 2, 10, new SimpleMeterRegistry()), 100, 64);
+        subscribers.add(new SeatInventorySync(seatInventory, redisTemplate, JsonMapper.builder().build(), new SimpleMeterRegistry()));
+        return seatInventory;
+    }
+
+    // 10 seats (ids 1000..1009); seat 1005 is booked by user 42 unless `seat1005` says otherwise
+    private static List<TicketSeatRow> rows(String seat1005) {
+        List<TicketSeatRow> rows = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            String status = i == 5 ? seat1005 : i == 6 ? "BOOKED" : "AVAILABLE";
+            rows.add(new TicketSeatRow(500L + i, 1000L + i, "A", i + 1, "Standard", status, "BOOKED".equals(status) ? 42L : null));
+        }
+        return rows;
+    }
+
+    // Seat-map status code of one seat: 0 = AVAILABLE, 1 = BOOKED, 2 = HELD
+    private static int status(SeatInventory seatInventory, int ordinal) {
+        byte[] packed = Base64.getDecoder().decode(seatInventory.getSeatMap(EVENT_ID, null).statuses());
+        return (packed[ordinal >>> 2] >> ((ordinal & 3) << 1)) & 3;
+    }
+}
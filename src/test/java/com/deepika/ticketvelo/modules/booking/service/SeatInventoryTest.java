@@ -0,0 +1,105 @@
+package com.deepika.ticketvelo.modules.booking.service;
+
+import com.deepika.ticketvelo.common.concurrency.ConcurrencyLimits;
+import com.deepika.ticketvelo.common.exception.SeatBookedException;
+import com.deepika.ticketvelo.modules.booking.model.SeatMapView;
+import com.deepika.ticketvelo.modules.booking.model.TicketSeatRow;
+import com.deepika.ticketvelo.modules.booking.repository.TicketRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SeatInventoryTest {
+
+    private static final Long EVENT_ID = 7L;
+
+    private SeatInventory seatInventory;
+
+    @BeforeEach
+    void setUp() {
+        // 100 seats (ids 1000..1099); seat 1005 is already booked in the database
+        List<TicketSeatRow> rows = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            rows.add(new TicketSeatRow(500L + i, 1000L + i, "A", i + 1, "Standard",
+                    i == 5 ? "BOOKED" : "AVAILABLE", i == 5 ? 42L : null));
+        }
+        TicketRepository ticketRepository = mock(TicketRepository.class);
+        when(ticketRepository.findSeatRowsByEventId(EVENT_ID)).thenReturn(rows);
+
+        seatInventory = new SeatInventory(ticketRepository, new ConcurrencyLimits(10, 2, 10, new SimpleMeterRegistry()), 100, 64);
+    }
+
+    @Test
+    void claimIsAllOrNothing() {
+        long before = seatInventory.getSeatMap(EVENT_ID, null).version();
+        assertThrows(SeatBookedException.class, () -> seatInventory.claim(EVENT_ID, List.of(1004L, 1005L, 1006L), 1L));
+
+        // 1004 was briefly taken: the rollback shows up in deltas, so a reader that saw it taken sees it free again
+        assertArrayEquals(new int[]{4, 0}, seatInventory.getSeatMap(EVENT_ID, before).changes());
+
+        // 1004 and 1006 were rolled back, so they are still claimable
+        SeatInventory.Claim claim = seatInventory.claim(EVENT_ID, List.of(1004L, 1006L), 2L);
+        assertEquals(List.of(504L, 506L), claim.getTicketIds());
+    }
+
+    @Test
+    void releasedSeatsCanBeClaimedAgain() {
+        SeatInventory.Claim claim = seatInventory.claim(EVENT_ID, List.of(1010L), 1L);
+        assertThrows(SeatBookedException.class, () -> seatInventory.claim(EVENT_ID, List.of(1010L), 2L));
+
+        seatInventory.release(claim);
+        assertDoesNotThrow(() -> seatInventory.claim(EVENT_ID, List.of(1010L), 2L));
+    }
+
+    @Test
+    void seatMapDeltaContainsOnlyChangedSeats() {
+        SeatMapView full = seatInventory.getSeatMap(EVENT_ID, null);
+        assertTrue(full.full());
+        byte[] packed = Base64.getDecoder().decode(full.statuses());
+        assertEquals(1, (packed[5 >>> 2] >> ((5 & 3) << 1)) & 3); // seat ordinal 5 is BOOKED
+        assertEquals(0, (packed[6 >>> 2] >> ((6 & 3) << 1)) & 3);
+
+        seatInventory.claim(EVENT_ID, List.of(1020L, 1021L), 3L);
+        SeatMapView delta = seatInventory.getSeatMap(EVENT_ID, full.version());
+
+        assertFalse(delta.full());
+        assertTrue(delta.version() > full.version());
+        assertArrayEquals(new int[]{20, 1, 21, 1}, delta.changes());
+
+        SeatMapView nothingNew = seatInventory.getSeatMap(EVENT_ID, delta.version());
+        assertEquals(0, nothingNew.changes().length);
+    }
+
+    @Test
+    void expiredHoldsAreFreedByTheWheel() {
+        long now = System.currentTimeMillis();
+        seatInventory.hold(EVENT_ID, List.of(1030L, 1031L), 1L, "hold-1", now + 1_000);
+        assertThrows(SeatBookedException.class, () -> seatInventory.claim(EVENT_ID, List.of(1031L), 2L));
+        SeatMapView held = seatInventory.getSeatMap(EVENT_ID, null);
+
+        assertTrue(seatInventory.expireHolds(now + 500).isEmpty());
+        assertEquals(List.of("hold-1"), seatInventory.expireHolds(now + 1_100));
+
+        SeatMapView delta = seatInventory.getSeatMap(EVENT_ID, held.version());
+        assertArrayEquals(new int[]{30, 0, 31, 0}, delta.changes());
+        assertDoesNotThrow(() -> seatInventory.claim(EVENT_ID, List.of(1031L), 2L));
+    }
+
+    @Test
+    void confirmedHoldsDoNotExpire() {
+        long now = System.currentTimeMillis();
+        seatInventory.hold(EVENT_ID, List.of(1040L), 1L, "hold-2", now + 1_000);
+        seatInventory.confirmHold(EVENT_ID, List.of(1040L), 1L);
+
+        assertTrue(seatInventory.expireHolds(now + 1_100).isEmpty());
+        assertThrows(SeatBookedException.class, () -> seatInventory.claim(EVENT_ID, List.of(1040L), 2L));
+    }
+}
@@ -0,0 +1,79 @@
+package com.deepika.ticketvelo.modules.booking.service;
+
+import com.deepika.ticketvelo.common.exception.QueuedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class WaitingRoomTest {
+
+    private static final long MS = 1_000_000L;
+    private static final long T0 = 1_000 * MS;
+
+    // 10 in flight / 100ms latency = 100 admissions per second, one every 10ms
+    private final WaitingRoom room = new WaitingRoom(new SimpleMeterRegistry(), true, 5, 10, 100, 1, 1000, 3, 60_000);
+
+    @Test
+    void overCapacityCallersGetNumberedTicketsAndAreAdmittedInOrder() {
+        room.admit(1L, 10L, null, T0); // the first request goes straight through
+
+        QueuedException first = assertThrows(QueuedException.class, () -> room.admit(1L, 11L, null, T0));
+        QueuedException second = assertThrows(QueuedException.class, () -> room.admit(1L, 12L, null, T0));
+        assertEquals(1, first.getPosition());
+        assertEquals(2, second.getPosition());
+        assertEquals(20, second.getEtaMillis());
+
+        // 10ms of credit admits ticket 1 only; a newcomer without a ticket still queues behind ticket 2
+        assertNotNull(room.admit(1L, 11L, first.getQueueTicket(), T0 + 10 * MS));
+        QueuedException stillWaiting = assertThrows(QueuedException.class,
+                () -> room.admit(1L, 12L, second.getQueueTicket(), T0 + 10 * MS));
+        assertEquals(1, stillWaiting.getPosition());
+        assertEquals(2, assertThrows(QueuedException.class, () -> room.admit(1L, 13L, null, T0 + 10 * MS)).getPosition());
+
+        assertNotNull(room.admit(1L, 12L, stillWaiting.getQueueTicket(), T0 + 20 * MS));
+    }
+
+    @Test
+    void fullQueueIsShedWithoutATicket() {
+        room.admit(1L, 10L, null, T0);
+        for (long user = 11; user <= 13; user++) {
+            long id = user;
+            assertThrows(QueuedException.class, () -> room.admit(1L, id, null, T0));
+        }
+
+        QueuedException shed = assertThrows(QueuedException.class, () -> room.admit(1L, 14L, null, T0));
+        assertNull(shed.getQueueTicket());
+        assertEquals(1, shed.getRetryAfterSeconds());
+
+        // Other events have their own bucket
+        assertNotNull(room.admit(2L, 14L, null, T0));
+    }
+
+    @Test
+    void ticketIsSpentOnSuccessButKeptWhenTheBookingFails() {
+        room.admit(1L, 10L, null, T0);
+        String ticket = assertThrows(QueuedException.class, () -> room.admit(1L, 11L, null, T0)).getQueueTicket();
+
+        // Seat was taken: the same ticket may try again
+        room.admit(1L, 11L, ticket, T0 + 10 * MS).complete(false, T0 + 110 * MS);
+        room.admit(1L, 11L, ticket, T0 + 120 * MS).complete(true, T0 + 220 * MS);
+
+        // Spent: presenting it again is a new arrival (the bucket has refilled, so it goes through)
+        assertNotNull(room.admit(1L, 11L, ticket, T0 + 230 * MS));
+    }
+
+    @Test
+    void ticketsAreBoundToTheirEventAndUser() {
+        room.admit(1L, 10L, null, T0);
+        String ticket = assertThrows(QueuedException.class, () -> room.admit(1L, 11L, null, T0)).getQueueTicket();
+
+        // Someone else's ticket is ignored: they queue behind it with their own number
+        QueuedException stolen = assertThrows(QueuedException.class, () -> room.admit(1L, 99L, ticket, T0));
+        assertEquals(2, stolen.getPosition());
+        assertThrows(QueuedException.class, () -> room.admit(1L, 11L, ticket.replaceFirst("^1\\.", "0."), T0));
+    }
+}
@@ -0,0 +1,174 @@
+package com.deepika.ticketvelo.modules.booking.service;
+
+import com.deepika.ticketvelo.common.concurrency.ConcurrencyLimits;
+import com.deepika.ticketvelo.modules.booking.model.TicketSeatRow;
+import com.deepika.ticketvelo.modules.booking.model.WaitlistEntry;
+import com.deepika.ticketvelo.modules.booking.repository.TicketRepository;
+import com.deepika.ticketvelo.modules.booking.repository.WaitlistRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class WaitlistMatcherTest {
+
+    private static final Long EVENT_ID = 3L;
+
+    private TicketRepository ticketRepository;
+    private WaitlistRepository waitlistRepository;
+    private SeatInventory seatInventory;
+    private TicketUpdatePublisher ticketUpdatePublisher;
+    private TransactionStatus transactionStatus;
+    private WaitlistMatcher matcher;
+
+    @BeforeEach
+    void setUp() {
+        ticketRepository = mock(TicketRepository.class);
+        waitlistRepository = mock(WaitlistRepository.class);
+        seatInventory = mock(SeatInventory.class);
+        ticketUpdatePublisher = mock(TicketUpdatePublisher.class);
+        transactionStatus = mock(TransactionStatus.class);
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(call -> call.<TransactionCallback<?>>getArgument(0).doInTransaction(transactionStatus));
+
+        // The schedule never fires during a test: drain() is called directly
+        matcher = new WaitlistMatcher(ticketRepository, waitlistRepository, seatInventory, ticketUpdatePublisher, transactionTemplate,
+                new ConcurrencyLimits(10, 2, 10, new SimpleMeterRegistry()), new SimpleMeterRegistry(), 3_600_000);
+        ReflectionTestUtils.setField(matcher, "scanPageSize", 1); // one entry per page: exercises the keyset paging
+        ReflectionTestUtils.setField(matcher, "batchSize", 1000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        matcher.stop();
+    }
+
+    @Test
+    void skipsEntriesForOtherSectionsAndMatchesTheNextOneThatFits() {
+        WaitlistEntry balcony = entry(10L, 100L, 1, "Balcony");
+        WaitlistEntry anywhere = entry(11L, 101L, 2, null);
+        waiting(balcony, anywhere);
+        when(waitlistRepository.lockWaiting(11L)).thenReturn(Optional.of(anywhere));
+        when(ticketRepository.assignReleasedSeats(eq(EVENT_ID), eq(List.of(1L, 2L)), eq(Set.of("h1")), eq(101L), any())).thenReturn(2);
+
+        matcher.offer(EVENT_ID, "h1", future(), List.of(row(2L, "Floor"), row(1L, "Floor")));
+        matcher.drain();
+
+        verify(waitlistRepository, never()).lockWaiting(10L);
+        verify(waitlistRepository).findByEventIdAndStatusAndIdGreaterThanOrderByIdAsc(EVENT_ID, "WAITING", 10L, Limit.of(1));
+        assertEquals("FULFILLED", anywhere.getStatus());
+        assertNotNull(anywhere.getFulfilledAt());
+        verify(ticketUpdatePublisher).ticketsBooked(EVENT_ID, 101L, null, List.of(1L, 2L), List.of(1001L, 1002L));
+        verify(seatInventory).confirmHold(EVENT_ID, List.of(1001L, 1002L), 101L);
+        verify(ticketRepository, never()).freeReleasedSeats(any(), any(), any());
+    }
+
+    @Test
+    void rollsBackAMatchWhoseReleaseHoldExpired() {
+        WaitlistEntry entry = entry(20L, 200L, 1, null);
+        waiting(entry);
+        when(waitlistRepository.lockWaiting(20L)).thenReturn(Optional.of(entry));
+        when(ticketRepository.assignReleasedSeats(any(), any(), any(), any(), any())).thenReturn(0); // hold gone
+
+        matcher.offer(EVENT_ID, "h1", future(), List.of(row(1L, "Floor")));
+        matcher.drain();
+
+        verify(transactionStatus).setRollbackOnly();
+        verify(ticketUpdatePublisher, never()).ticketsBooked(any(), any(), any(), any(), any());
+        verify(seatInventory, never()).confirmHold(any(), any(), any());
+        // Not ours to put on sale either: hold expiry already decides what happens to the seat
+        verify(ticketRepository, never()).freeReleasedSeats(any(), any(), any());
+    }
+
+    @Test
+    void keepsSeatsWhoseHoldIsStillLiveWhenAnotherHoldExpiresMidMatch() {
+        WaitlistEntry pair = entry(40L, 400L, 2, null);
+        WaitlistEntry single = entry(41L, 401L, 1, null);
+        waiting(pair, single);
+        when(waitlistRepository.lockWaiting(40L)).thenReturn(Optional.of(pair));
+        when(waitlistRepository.lockWaiting(41L)).thenReturn(Optional.of(single));
+
+        long shortHold = System.currentTimeMillis() + 50;
+        // The pair gets seat 1 (short hold) and seat 2: by the time it commits, seat 1's hold is gone
+        when(ticketRepository.assignReleasedSeats(eq(EVENT_ID), eq(List.of(1L, 2L)), any(), eq(400L), any())).thenAnswer(call -> {
+            while (System.currentTimeMillis() <= shortHold) Thread.sleep(5);
+            return 1;
+        });
+        when(ticketRepository.assignReleasedSeats(eq(EVENT_ID), eq(List.of(2L)), eq(Set.of("h2")), eq(401L), any())).thenReturn(1);
+
+        matcher.offer(EVENT_ID, "h1", shortHold, List.of(row(1L, "Floor")));
+        matcher.offer(EVENT_ID, "h2", future(), List.of(row(2L, "Floor")));
+        matcher.drain();
+
+        // Seat 2's hold was still live, so it went to the next waiting user instead of sitting LOCKED
+        verify(seatInventory).confirmHold(EVENT_ID, List.of(1002L), 401L);
+        verify(ticketRepository, never()).freeReleasedSeats(any(), any(), any());
+    }
+
+    @Test
+    void putsLeftoverSeatsOnSalePerReleaseBatch() {
+        WaitlistEntry entry = entry(30L, 300L, 1, "Floor");
+        waiting(entry);
+        when(waitlistRepository.lockWaiting(30L)).thenReturn(Optional.of(entry));
+        when(ticketRepository.assignReleasedSeats(any(), any(), any(), any(), any())).thenReturn(1);
+
+        long first = future();
+        long second = first + 5_000;
+        matcher.offer(EVENT_ID, "h1", first, List.of(row(1L, "Floor"), row(2L, "Balcony")));
+        matcher.offer(EVENT_ID, "h2", second, List.of(row(3L, "Balcony")));
+        matcher.offer(EVENT_ID, "h3", System.currentTimeMillis() - 1, List.of(row(4L, "Floor"))); // already expired: left alone
+        matcher.drain();
+
+        verify(ticketRepository).assignReleasedSeats(eq(EVENT_ID), eq(List.of(1L)), eq(Set.of("h1")), eq(300L), any());
+        verify(ticketRepository).freeReleasedSeats(EVENT_ID, List.of(2L, 3L), Set.of("h1", "h2"));
+        verify(ticketUpdatePublisher).seatsReleased(EVENT_ID, null, null, List.of(2L, 3L), List.of(1002L, 1003L));
+        verify(seatInventory).releaseHold(EVENT_ID, List.of(1002L), first);
+        verify(seatInventory).releaseHold(EVENT_ID, List.of(1003L), second);
+        verifyNoMoreInteractions(ticketRepository);
+    }
+
+    // Stubs the keyset pages (one entry each) over the given WAITING entries
+    private void waiting(WaitlistEntry... entries) {
+        long afterId = 0;
+        for (WaitlistEntry entry : entries) {
+            when(waitlistRepository.findByEventIdAndStatusAndIdGreaterThanOrderByIdAsc(EVENT_ID, "WAITING", afterId, Limit.of(1)))
+                    .thenReturn(List.of(entry));
+            afterId = entry.getId();
+        }
+        when(waitlistRepository.findByEventIdAndStatusAndIdGreaterThanOrderByIdAsc(EVENT_ID, "WAITING", afterId, Limit.of(1)))
+                .thenReturn(List.of());
+    }
+
+    private static WaitlistEntry entry(Long id, Long userId, int quantity, String section) {
+        WaitlistEntry entry = new WaitlistEntry();
+        entry.setId(id);
+        entry.setEventId(EVENT_ID);
+        entry.setUserId(userId);
+        entry.setQuantity(quantity);
+        entry.setSection(section);
+        entry.setStatus("WAITING");
+        return entry;
+    }
+
+    // Ticket id n is seat 1000 + n
+    private static TicketSeatRow row(long ticketId, String section) {
+        return new TicketSeatRow(ticketId, 1000 + ticketId, "A", (int) ticketId, section, "BOOKED", 9L);
+    }
+
+    private static long future() {
+        return System.currentTimeMillis() + 60_000;
+    }
+}
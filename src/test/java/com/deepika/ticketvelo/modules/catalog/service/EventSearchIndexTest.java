@@ -0,0 +1,139 @@
+package com.deepika.ticketvelo.modules.catalog.service;
+
+import com.deepika.ticketvelo.common.exception.TicketVeloException;
+import com.deepika.ticketvelo.modules.catalog.model.Event;
+import com.deepika.ticketvelo.modules.catalog.model.EventSearchHit;
+import com.deepika.ticketvelo.modules.catalog.model.Venue;
+import com.deepika.ticketvelo.modules.catalog.repository.EventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class EventSearchIndexTest {
+
+    private static final LocalDateTime DAY_ONE = LocalDateTime.of(2026, 6, 1, 20, 0);
+
+    private EventSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new EventSearchIndex(null, null, new SimpleMeterRegistry(), 5000, 4, 8);
+        Venue garden = venue(1L, "Madison Square Garden", "4 Penn Plaza, NY");
+        Venue stadium = venue(2L, "Wembley Stadium", "London HA9 0WS");
+
+        // Added out of date order: results must still come back soonest first
+        index.add(event(3L, "Taylor Swift - Eras Tour", DAY_ONE.plusDays(2), stadium));
+        index.add(event(1L, "Taylor Swift - Eras Tour", DAY_ONE, garden));
+        index.add(event(2L, "Beyoncé - Renaissance", DAY_ONE.plusDays(1), garden));
+        index.add(event(4L, "Tays Tribute Night", DAY_ONE.plusDays(3), stadium));
+    }
+
+    @Test
+    void matchesEveryWordAsAPrefixOfTitleOrVenue() {
+        assertEquals(List.of(1L, 3L), ids(index.search("tay swi", null, null, null, 10)));
+        assertEquals(List.of(1L, 3L, 4L), ids(index.search("TAY", null, null, null, 10))); // taylor and tays, each once
+        assertEquals(List.of(1L, 2L), ids(index.search("garden", null, null, null, 10)));
+        assertEquals(List.of(3L), ids(index.search("swift london", null, null, null, 10)));
+        assertEquals(List.of(2L), ids(index.search("beyonce", null, null, null, 10))); // accents folded
+        assertEquals(List.of(), ids(index.search("swift renaissance", null, null, null, 10)));
+        assertEquals(List.of(), ids(index.search("zz", null, null, null, 10)));
+    }
+
+    @Test
+    void filtersByDateRange() {
+        assertEquals(List.of(2L, 3L), ids(index.search(null, DAY_ONE.plusDays(1), DAY_ONE.plusDays(2), null, 10)));
+        assertEquals(List.of(3L, 4L), ids(index.search("t", DAY_ONE.plusHours(1), null, null, 10)));
+    }
+
+    @Test
+    void pagesWithACursor() {
+        EventSearchIndex.Page first = index.search(null, null, null, null, 3);
+        assertEquals(List.of(1L, 2L, 3L), ids(first));
+        assertEquals(3L, first.nextCursor());
+
+        EventSearchIndex.Page last = index.search(null, null, null, first.nextCursor(), 3);
+        assertEquals(List.of(4L), ids(last));
+        assertNull(last.nextCursor());
+
+        assertThrows(TicketVeloException.class, () -> index.search(null, null, null, 99L, 3));
+    }
+
+    @Test
+    void shortPrefixesFallBackToTheDateOrder() {
+        // max-merge-terms is 4 here, and "t" matches taylor, tour, tays, tribute, t10 ...: it is verified against the date order
+        List<Event> more = new ArrayList<>();
+        for (long id = 10; id < 20; id++) more.add(event(id, "T" + id + " Show", DAY_ONE.plusDays(id), null));
+        more.forEach(index::add);
+
+        EventSearchIndex.Page page = index.search("t", null, null, null, 5);
+        assertEquals(List.of(1L, 3L, 4L, 10L, 11L), ids(page));
+        assertEquals(List.of(10L, 11L), ids(index.search("t sh", null, null, null, 2))); // "sh" drives instead
+        assertEquals(14, index.size());
+    }
+
+    @Test
+    void removedEventsLeaveEveryList() {
+        index.remove(1L);
+
+        assertEquals(List.of(3L), ids(index.search("tay swi", null, null, null, 10)));
+        assertEquals(List.of(2L), ids(index.search("garden", null, null, null, 10)));
+        assertEquals(List.of(2L, 3L, 4L), ids(index.search(null, null, null, null, 10)));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void refreshDropsEventsDeletedFromTheTable() {
+        EventRepository eventRepository = mock(EventRepository.class);
+        EventSearchIndex refreshed = new EventSearchIndex(eventRepository, null, new SimpleMeterRegistry(), 2, 4, 8);
+        Venue garden = venue(1L, "Madison Square Garden", "4 Penn Plaza, NY");
+        List<Event> events = new ArrayList<>(List.of(event(1L, "Eras Tour", DAY_ONE, garden),
+                event(2L, "Renaissance", DAY_ONE.plusDays(1), garden), event(3L, "Eras Tour", DAY_ONE.plusDays(2), garden)));
+        when(eventRepository.findByIdGreaterThanOrderByIdAsc(anyLong(), any())).thenAnswer(call -> events.stream()
+                .filter(event -> event.getId() > call.<Long>getArgument(0)).limit(call.<Limit>getArgument(1).max()).toList());
+        when(eventRepository.findIdsAfter(anyLong(), any())).thenAnswer(call -> events.stream().map(Event::getId)
+                .filter(id -> id > call.<Long>getArgument(0)).limit(call.<Limit>getArgument(1).max()).toList());
+        when(eventRepository.count()).thenAnswer(call -> (long) events.size());
+
+        refreshed.refresh();
+        assertEquals(3, refreshed.size());
+
+        events.removeFirst();
+        refreshed.refresh();
+        assertEquals(List.of(3L), ids(refreshed.search("eras", null, null, null, 10)));
+        assertEquals(2, refreshed.size());
+
+        // In step again: the next refresh doesn't walk the ids (two pages of 2, once, for the deletion)
+        refreshed.refresh();
+        verify(eventRepository, times(2)).findIdsAfter(anyLong(), any());
+    }
+
+    private static List<Long> ids(EventSearchIndex.Page page) {
+        return page.hits().stream().map(EventSearchHit::id).toList();
+    }
+
+    private static Venue venue(Long id, String name, String address) {
+        Venue venue = new Venue();
+        venue.setId(id);
+        venue.setName(name);
+        venue.setAddress(address);
+        return venue;
+    }
+
+    private static Event event(Long id, String title, LocalDateTime date, Venue venue) {
+        Event event = new Event();
+        event.setId(id);
+        event.setTitle(title);
+        event.setDate(date);
+        event.setVenue(venue);
+        return event;
+    }
+}
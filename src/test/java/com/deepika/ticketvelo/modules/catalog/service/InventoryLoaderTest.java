@@ -0,0 +1,72 @@
+package com.deepika.ticketvelo.modules.catalog.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InventoryLoaderTest {
+
+    @Test
+    void encodesOneCopyLinePerSeat() throws SQLException {
+        List<String> chunks = encode(9L, 2, 2, 3, 64 * 1024);
+
+        assertEquals(1, chunks.size()); // all of it fits in one chunk
+        String[] lines = chunks.get(0).split("\n");
+        assertEquals(12, lines.length);
+        assertEquals("9\tSection 1\tA\t1", lines[0]);
+        assertEquals("9\tSection 1\tB\t3", lines[5]);
+        assertEquals("9\tSection 2\tA\t1", lines[6]);
+        assertEquals("9\tSection 2\tB\t3", lines[11]);
+        assertTrue(chunks.get(0).endsWith("\n"));
+    }
+
+    @Test
+    void aSingleSectionIsNamedStandard() throws SQLException {
+        String text = encode(9L, 1, 1, 2, 64 * 1024).get(0);
+        assertEquals("9\tStandard\tA\t1\n9\tStandard\tA\t2\n", text);
+    }
+
+    @Test
+    void chunksEndOnLineBoundariesAndAddUpToTheWholeText() throws SQLException {
+        String whole = encode(9L, 3, 4, 10, 64 * 1024).get(0);
+        int chunkChars = 100;
+        List<String> chunks = encode(9L, 3, 4, 10, chunkChars);
+
+        assertTrue(chunks.size() > 1);
+        assertEquals(whole, String.join("", chunks));
+        for (int i = 0; i < chunks.size(); i++) {
+            String chunk = chunks.get(i);
+            assertTrue(chunk.endsWith("\n"), "chunk " + i + " splits a row");
+            // Flushed as soon as it reaches the limit, so at most one line over it; only the last one is short
+            if (i < chunks.size() - 1) assertTrue(chunk.length() >= chunkChars);
+            assertTrue(chunk.substring(0, chunk.length() - 1).lastIndexOf('\n') + 1 < chunkChars);
+        }
+    }
+
+    @Test
+    void aChunkSizeSmallerThanALineFlushesEveryLine() throws SQLException {
+        List<String> chunks = encode(9L, 1, 1, 3, 1);
+        assertEquals(List.of("9\tStandard\tA\t1\n", "9\tStandard\tA\t2\n", "9\tStandard\tA\t3\n"), chunks);
+    }
+
+    @Test
+    void labelsRowsLikeSpreadsheetColumns() {
+        assertEquals("A", InventoryLoader.generateRowLabel(1));
+        assertEquals("Z", InventoryLoader.generateRowLabel(26));
+        assertEquals("AA", InventoryLoader.generateRowLabel(27));
+        assertEquals("AZ", InventoryLoader.generateRowLabel(52));
+        assertEquals("BA", InventoryLoader.generateRowLabel(53));
+    }
+
+    private static List<String> encode(long venueId, int sections, int rows, int seats, int chunkChars) throws SQLException {
+        List<String> chunks = new ArrayList<>();
+        InventoryLoader.encodeSeats(venueId, sections, rows, seats, chunkChars,
+                chunk -> chunks.add(new String(chunk, StandardCharsets.UTF_8)));
+        return chunks;
+    }
+}
@@ -0,0 +1,45 @@
+package com.deepika.ticketvelo.modules.notification;
+
+import com.deepika.ticketvelo.modules.booking.event.TicketEvent;
+import com.deepika.ticketvelo.modules.booking.event.TicketEventSerializer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class NotificationServiceTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void aTransportThatThrowsStillReleasesItsPermit() {
+        MailTransport mailTransport = mock(MailTransport.class);
+        when(mailTransport.send(any())).thenThrow(new IllegalStateException("smtp pool closed"));
+        KafkaTemplate<String, byte[]> kafkaTemplate = mock(KafkaTemplate.class);
+        when(kafkaTemplate.send(anyString(), any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        // One permit: if the first send leaked it, the second record would block the listener forever
+        NotificationService service = new NotificationService(mailTransport, kafkaTemplate, new SimpleMeterRegistry(), 1);
+        ReflectionTestUtils.setField(service, "maxAttempts", 2);
+        ReflectionTestUtils.setField(service, "retryBackoffMillis", 1L);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> service.listen(List.of(booked(0), booked(1))));
+
+        verify(mailTransport, times(4)).send(any()); // every attempt of both records
+        verify(kafkaTemplate, times(2)).send(eq(NotificationService.DEAD_LETTER_TOPIC), anyString(), any());
+    }
+
+    private static ConsumerRecord<String, byte[]> booked(long offset) {
+        TicketEvent event = new TicketEvent(TicketEvent.Type.BOOKED, 1L, 42L, null, Instant.now(), List.of(10L), List.of(100L));
+        return new ConsumerRecord<>("ticket-updates", 0, offset, "1", new TicketEventSerializer().serialize("ticket-updates", event));
+    }
+}